@@ -0,0 +1,113 @@
+package com.codecounter.stinger.worker;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Memory-mapped reader for the {@code results.bin} file written by the Stinger app
+ * (header index, front-coded path table, per-file metric columns).
+ */
+public final class BinaryResultsReader {
+
+    public static final String FILE_NAME = "results.bin";
+
+    public static final byte KIND_FOLDER = 0;
+    public static final byte KIND_CODE = 1;
+    public static final byte KIND_DOC = 2;
+    public static final byte KIND_OTHER = 3;
+
+    private static final int MAGIC = 0x53544752;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16 + 7 * Long.BYTES;
+
+    private final MappedByteBuffer buf;
+    private final int count;
+    private final int sizesOffset;
+    private final int linesOffset;
+    private final int methodsOffset;
+    private final int kindsOffset;
+    private final int pathDataOffset;
+
+    private BinaryResultsReader(MappedByteBuffer buf) throws IOException {
+        this.buf = buf;
+        if (buf.limit() < HEADER_SIZE || buf.getInt(0) != MAGIC) {
+            throw new IOException("Not a Stinger binary results file");
+        }
+        int version = buf.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary results version: " + version);
+        }
+        this.count = buf.getInt(8);
+        this.sizesOffset = (int) buf.getLong(32);
+        this.linesOffset = (int) buf.getLong(40);
+        this.methodsOffset = (int) buf.getLong(48);
+        this.kindsOffset = (int) buf.getLong(56);
+        this.pathDataOffset = (int) buf.getLong(64);
+    }
+
+    public static BinaryResultsReader open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary results file too large to map: " + file);
+            }
+            return new BinaryResultsReader(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public byte kind(int i) {
+        return buf.get(kindsOffset + i);
+    }
+
+    public long fileSize(int i) {
+        return buf.getLong(sizesOffset + i * Long.BYTES);
+    }
+
+    public long lines(int i) {
+        return buf.getLong(linesOffset + i * Long.BYTES);
+    }
+
+    public int methods(int i) {
+        return buf.getInt(methodsOffset + i * Integer.BYTES);
+    }
+
+    public void forEach(BiConsumer<Integer, String> consumer) {
+        int pos = pathDataOffset;
+        byte[] current = new byte[0];
+        for (int i = 0; i < count; i++) {
+            int[] shared = readVarInt(pos);
+            int[] suffix = readVarInt(shared[1]);
+            byte[] next = Arrays.copyOf(current, shared[0] + suffix[0]);
+            buf.get(suffix[1], next, shared[0], suffix[0]);
+            pos = suffix[1] + suffix[0];
+            current = next;
+            consumer.accept(i, new String(current, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns {value, positionAfter}.
+     */
+    private int[] readVarInt(int pos) {
+        int value = 0;
+        int shift = 0;
+        int p = pos;
+        while (true) {
+            byte b = buf.get(p++);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return new int[] {value, p};
+            }
+            shift += 7;
+        }
+    }
+}
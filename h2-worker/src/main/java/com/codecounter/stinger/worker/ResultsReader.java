@@ -24,6 +24,11 @@ public record ResultsReader(Path savedResultsDir, Path rootPath, List<Path> code
         }
         Path rootPath = rootPathOverride != null ? rootPathOverride : Path.of(root).toAbsolutePath().normalize();
 
+        Path bin = savedResultsDir.resolve(BinaryResultsReader.FILE_NAME);
+        if (Files.exists(bin)) {
+            return loadBinary(savedResultsDir, rootPath, bin);
+        }
+
         List<Path> code = readPathList(savedResultsDir.resolve("code_files.txt"));
         List<Path> docs = readPathList(savedResultsDir.resolve("document_files.txt"));
         List<Path> folders = readPathList(savedResultsDir.resolve("folders.txt"));
@@ -31,6 +36,24 @@ public record ResultsReader(Path savedResultsDir, Path rootPath, List<Path> code
         return new ResultsReader(savedResultsDir.toAbsolutePath().normalize(), rootPath, code, docs, folders);
     }
 
+    private static ResultsReader loadBinary(Path savedResultsDir, Path rootPath, Path bin) throws IOException {
+        BinaryResultsReader reader = BinaryResultsReader.open(bin);
+        List<Path> code = new ArrayList<>();
+        List<Path> docs = new ArrayList<>();
+        List<Path> folders = new ArrayList<>();
+        reader.forEach((i, p) -> {
+            byte kind = reader.kind(i);
+            if (kind == BinaryResultsReader.KIND_CODE) {
+                code.add(Path.of(p).toAbsolutePath().normalize());
+            } else if (kind == BinaryResultsReader.KIND_DOC) {
+                docs.add(Path.of(p).toAbsolutePath().normalize());
+            } else if (kind == BinaryResultsReader.KIND_FOLDER) {
+                folders.add(Path.of(p).toAbsolutePath().normalize());
+            }
+        });
+        return new ResultsReader(savedResultsDir.toAbsolutePath().normalize(), rootPath, code, docs, folders);
+    }
+
     private static List<Path> readPathList(Path file) throws IOException {
         if (!Files.exists(file)) {
             return List.of();
@@ -0,0 +1,110 @@
+package com.codecounter.stinger.cli;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.IMarkerFactory;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.BasicMarkerFactory;
+import org.slf4j.helpers.LegacyAbstractLogger;
+import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.helpers.NOPMDCAdapter;
+import org.slf4j.spi.MDCAdapter;
+import org.slf4j.spi.SLF4JServiceProvider;
+
+/**
+ * SLF4J provider for the CLI: one line per event on stderr, warnings and errors only unless
+ * {@code --verbose}. {@link StingerCliMain} selects it through the {@code slf4j.provider} system property
+ * (there is no service file, so the web app keeps Logback); the CLI jar leaves Logback out, whose
+ * configuration lookup would take longer than the rest of startup.
+ */
+public final class CliLogging implements SLF4JServiceProvider {
+
+    static volatile Level threshold = Level.WARN;
+
+    private final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private final ILoggerFactory factory = name -> loggers.computeIfAbsent(name, StderrLogger::new);
+    private final IMarkerFactory markers = new BasicMarkerFactory();
+    private final MDCAdapter mdc = new NOPMDCAdapter();
+
+    @Override
+    public ILoggerFactory getLoggerFactory() {
+        return factory;
+    }
+
+    @Override
+    public IMarkerFactory getMarkerFactory() {
+        return markers;
+    }
+
+    @Override
+    public MDCAdapter getMDCAdapter() {
+        return mdc;
+    }
+
+    @Override
+    public String getRequestedApiVersion() {
+        return "2.0.99";
+    }
+
+    @Override
+    public void initialize() {
+        // nothing to configure
+    }
+
+    private static final class StderrLogger extends LegacyAbstractLogger {
+
+        private final String shortName;
+
+        StderrLogger(String name) {
+            this.name = name;
+            this.shortName = name.substring(name.lastIndexOf('.') + 1);
+        }
+
+        private static boolean enabled(Level level) {
+            return level.toInt() >= threshold.toInt();
+        }
+
+        @Override
+        public boolean isTraceEnabled() {
+            return enabled(Level.TRACE);
+        }
+
+        @Override
+        public boolean isDebugEnabled() {
+            return enabled(Level.DEBUG);
+        }
+
+        @Override
+        public boolean isInfoEnabled() {
+            return enabled(Level.INFO);
+        }
+
+        @Override
+        public boolean isWarnEnabled() {
+            return enabled(Level.WARN);
+        }
+
+        @Override
+        public boolean isErrorEnabled() {
+            return enabled(Level.ERROR);
+        }
+
+        @Override
+        protected String getFullyQualifiedCallerName() {
+            return null;
+        }
+
+        @Override
+        protected void handleNormalizedLoggingCall(Level level, Marker marker, String messagePattern, Object[] arguments, Throwable throwable) {
+            String message = MessageFormatter.basicArrayFormat(messagePattern, arguments);
+            synchronized (System.err) {
+                System.err.println(level + " " + shortName + " - " + message);
+                if (throwable != null) throwable.printStackTrace(System.err);
+            }
+        }
+    }
+}
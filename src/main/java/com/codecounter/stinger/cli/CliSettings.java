@@ -0,0 +1,36 @@
+package com.codecounter.stinger.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * The {@code stinger.*} settings the web app takes from Spring, looked up without starting a context: a
+ * {@code -D} system property wins over {@code application.properties} on the classpath. Unset keys keep the
+ * defaults of {@link com.codecounter.stinger.config.ScanSettings}.
+ */
+final class CliSettings {
+
+    private final Properties file = new Properties();
+
+    private CliSettings() {
+    }
+
+    static CliSettings load() {
+        CliSettings settings = new CliSettings();
+        try (InputStream in = CliSettings.class.getClassLoader().getResourceAsStream("application.properties")) {
+            if (in != null) settings.file.load(in);
+        } catch (IOException e) {
+            // defaults only
+        }
+        return settings;
+    }
+
+    /**
+     * The value of {@code key}, or null when neither source sets it.
+     */
+    String get(String key) {
+        String value = System.getProperty(key);
+        return value == null || value.isBlank() ? file.getProperty(key) : value;
+    }
+}
@@ -0,0 +1,46 @@
+package com.codecounter.stinger.cli;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.codecounter.stinger.service.FileAnalysisService;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
+
+/**
+ * {@code stinger merge <partial>...}: combines the partial runs of {@code scan --part} into one run of the
+ * root, as {@code POST /api/merge} does.
+ */
+@Command(name = "merge", mixinStandardHelpOptions = true, description = "Merge the partial runs of one root into a run of the whole root.")
+final class MergeCommand implements Callable<Integer> {
+
+    @ParentCommand
+    private StingerCli cli;
+
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(arity = "1..*", description = "Partial run folders, one per partition")
+    private List<String> partials;
+
+    @Override
+    public Integer call() throws Exception {
+        FileAnalysisService service = cli.service();
+        try {
+            Path merged = service.mergePartials(partials);
+            StingerCli.printRun(spec.commandLine().getOut(), merged);
+            return 0;
+        } catch (IOException e) {
+            spec.commandLine().getErr().println("Merge failed: " + e.getMessage());
+            return 1;
+        } finally {
+            service.shutdownReads();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.codecounter.stinger.cli;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+import com.codecounter.stinger.model.AnalysisResult;
+import com.codecounter.stinger.service.FileAnalysisService;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
+
+/**
+ * {@code stinger scan <path>}: the same analysis and results folder as {@code POST /api/analyze}, or one
+ * partition of it with {@code --part}/{@code --parts}. Exits 1 when the scan or the save fails, so a
+ * pipeline step fails with it.
+ */
+@Command(name = "scan", mixinStandardHelpOptions = true, description = "Analyze a directory and save its results folder.")
+final class ScanCommand implements Callable<Integer> {
+
+    @ParentCommand
+    private StingerCli cli;
+
+    @Spec
+    private CommandSpec spec;
+
+    @Parameters(index = "0", description = "Directory to scan")
+    private Path path;
+
+    @Option(names = {"--part"}, description = "Partition to scan, from 0 (with --parts); saves a partial run for 'merge'")
+    private Integer part;
+
+    @Option(names = {"--parts"}, description = "Number of partitions the root is split into")
+    private Integer parts;
+
+    @Override
+    public Integer call() throws Exception {
+        if ((part == null) != (parts == null)) {
+            spec.commandLine().getErr().println("--part and --parts go together");
+            return 2;
+        }
+        FileAnalysisService service = cli.service();
+        try {
+            // the web app is always given absolute paths; "stinger scan ." must name the same results folder and root
+            String dirPath = path.toAbsolutePath().normalize().toString();
+            AnalysisResult result = part == null ? service.analyzeDirectory(dirPath) : service.analyzePartition(dirPath, part, parts);
+            if (result.getResultsPath() == null) {
+                spec.commandLine().getErr().println("Scan of " + dirPath + " finished but its results were not saved");
+                return 1;
+            }
+            StingerCli.printRun(spec.commandLine().getOut(), Path.of(result.getResultsPath()));
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            spec.commandLine().getErr().println("Scan failed: " + e.getMessage());
+            return 1;
+        } finally {
+            service.shutdownReads();
+        }
+    }
+}
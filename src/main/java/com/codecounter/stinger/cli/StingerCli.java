@@ -0,0 +1,81 @@
+package com.codecounter.stinger.cli;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.codecounter.stinger.config.H2StorageProperties;
+import com.codecounter.stinger.config.ScanSettings;
+import com.codecounter.stinger.service.FileAnalysisService;
+import com.codecounter.stinger.service.H2StorageService;
+import com.codecounter.stinger.service.ScanHistoryService;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ScopeType;
+import picocli.CommandLine.Spec;
+
+/**
+ * Headless front end to the scan engine for CI builds: the subcommands build a {@link FileAnalysisService}
+ * by hand instead of starting the Spring context, run one scan or merge, write the usual results folder and
+ * exit. {@link ScanSettings} are read through {@link CliSettings}; the options here override the ones a
+ * pipeline usually sets. The H2 summary hook never runs (it is the LLM worker's job), and scan history is off
+ * unless asked for, since a CI workspace rarely keeps it.
+ */
+@Command(
+        name = "stinger",
+        mixinStandardHelpOptions = true,
+        description = "Scans a directory without starting the Stinger web app.",
+        subcommands = { ScanCommand.class, MergeCommand.class }
+)
+public final class StingerCli implements Runnable {
+
+    @Spec
+    private CommandSpec spec;
+
+    @Option(names = {"--results-dir"}, scope = ScopeType.INHERIT,
+            description = "Results directory (default: stinger.results.dir, else code_counter_results)")
+    String resultsDir;
+
+    @Option(names = {"--format"}, scope = ScopeType.INHERIT,
+            description = "Results format: text, binary or both (default: stinger.results.format, else text)")
+    String format;
+
+    @Option(names = {"--history"}, scope = ScopeType.INHERIT,
+            description = "Record the run in the results directory's scan history")
+    boolean history;
+
+    @Option(names = {"-v", "--verbose"}, scope = ScopeType.INHERIT, description = "Log scan progress")
+    boolean verbose;
+
+    @Override
+    public void run() {
+        spec.commandLine().usage(spec.commandLine().getOut());
+    }
+
+    FileAnalysisService service() {
+        ScanSettings settings = ScanSettings.from(CliSettings.load()::get);
+        if (resultsDir != null) settings.setResultsDir(Path.of(resultsDir).toAbsolutePath().toString());
+        if (format != null) settings.setResultsFormat(format);
+        // the pre-scan only feeds streamed progress
+        settings.setPreScanEnabled(false);
+        // -D values were read above; the options must not be overridden by them afterwards
+        settings.setSystemPropertyOverrides(false);
+        return new FileAnalysisService(settings, new H2StorageService(new H2StorageProperties()), new ScanHistoryService(history));
+    }
+
+    /**
+     * Print a saved run's folder and its {@code summary.txt} to the command's output.
+     */
+    static void printRun(PrintWriter out, Path runFolder) throws IOException {
+        out.println("resultsPath: " + runFolder);
+        Path summary = runFolder.resolve("summary.txt");
+        if (Files.exists(summary)) {
+            for (String line : Files.readAllLines(summary, StandardCharsets.UTF_8)) out.println(line);
+        }
+        out.flush();
+    }
+}
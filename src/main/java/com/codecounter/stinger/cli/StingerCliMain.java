@@ -0,0 +1,26 @@
+package com.codecounter.stinger.cli;
+
+import org.slf4j.event.Level;
+
+import picocli.CommandLine;
+
+/**
+ * Entry point of the headless scanner ({@code java -jar stinger-<version>-cli.jar scan <path>}).
+ */
+public final class StingerCliMain {
+
+    private StingerCliMain() {
+    }
+
+    public static void main(String[] args) {
+        // before the first logger is created; the verbosity keeps SLF4J from announcing the provider choice
+        System.setProperty("slf4j.provider", CliLogging.class.getName());
+        System.setProperty("slf4j.internal.verbosity", "WARN");
+        for (String arg : args) {
+            if ("-v".equals(arg) || "--verbose".equals(arg)) CliLogging.threshold = Level.INFO;
+        }
+
+        int exitCode = new CommandLine(new StingerCli()).execute(args);
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,301 @@
+package com.codecounter.stinger.config;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Settings of the scan engine ({@code FileAnalysisService}). The defaults below are the only ones: the web app
+ * reads the {@code stinger.*} keys from its Spring environment and the CLI from {@code -D} and
+ * {@code application.properties}, both through {@link #from}.
+ */
+public class ScanSettings {
+
+    /**
+     * Base results directory; relative paths resolve against the working directory.
+     */
+    private String resultsDir = "code_counter_results";
+
+    /**
+     * Results output format: text (path lists only), binary (results.bin only) or both.
+     */
+    private String resultsFormat = "text";
+
+    /**
+     * Heap the results writers may use for sorting before they spill sorted runs to disk.
+     */
+    private long sortBufferMb = 32;
+
+    /**
+     * Streaming scans merge updates into one progress frame per interval.
+     */
+    private long progressIntervalMs = 100;
+
+    /**
+     * Count folders, files and bytes from metadata alongside a streaming scan so progress totals are accurate.
+     */
+    private boolean preScanEnabled = true;
+
+    /**
+     * Length of each top-N list in hotspots.json.
+     */
+    private int hotspotCount = 10;
+
+    /**
+     * Estimate-mode scans read at most this many files per (type, extension, size class) stratum.
+     */
+    private int estimateSamplesPerStratum = 30;
+
+    private int readConcurrencyMin = 1;
+    private int readConcurrencyMax = 8;
+    private int readConcurrencyInitial = 2;
+
+    /**
+     * Read concurrency is cut when latency exceeds this multiple of its floor.
+     */
+    private double readLatencyTolerance = 1.5;
+
+    /**
+     * Read order: walk (as found) or inode (batches sorted by device and inode).
+     */
+    private String readOrder = "walk";
+
+    private int readBatchSize = 1024;
+
+    /**
+     * Heap-pressure levels as fractions of max heap, and the longest single pause.
+     */
+    private double memoryShrinkAt = 0.70;
+    private double memorySpillAt = 0.80;
+    private double memoryPauseAt = 0.90;
+    private long maxPauseMs = 5000;
+
+    /**
+     * When true, the {@code stinger.results.dir} and {@code stinger.results.format} system properties set after
+     * startup override the two settings (tests point one cached context at their own folders this way).
+     */
+    private boolean systemPropertyOverrides = true;
+
+    /**
+     * Settings with each key that {@code property} knows (null or blank when unset) and the defaults for the rest.
+     *
+     * @throws IllegalArgumentException when a value does not parse
+     */
+    public static ScanSettings from(Function<String, String> property) {
+        ScanSettings s = new ScanSettings();
+        Lookup in = new Lookup(property);
+        s.resultsDir = in.string("stinger.results.dir", s.resultsDir);
+        s.resultsFormat = in.string("stinger.results.format", s.resultsFormat);
+        s.sortBufferMb = in.longValue("stinger.results.sort-buffer-mb", s.sortBufferMb);
+        s.progressIntervalMs = in.longValue("stinger.stream.progress-interval-ms", s.progressIntervalMs);
+        s.preScanEnabled = in.bool("stinger.stream.prescan.enabled", s.preScanEnabled);
+        s.hotspotCount = in.intValue("stinger.hotspots.top-n", s.hotspotCount);
+        s.estimateSamplesPerStratum = in.intValue("stinger.estimate.samples-per-stratum", s.estimateSamplesPerStratum);
+        s.readConcurrencyMin = in.intValue("stinger.scan.read-concurrency.min", s.readConcurrencyMin);
+        s.readConcurrencyMax = in.intValue("stinger.scan.read-concurrency.max", s.readConcurrencyMax);
+        s.readConcurrencyInitial = in.intValue("stinger.scan.read-concurrency.initial", s.readConcurrencyInitial);
+        s.readLatencyTolerance = in.doubleValue("stinger.scan.read-concurrency.latency-tolerance", s.readLatencyTolerance);
+        s.readOrder = in.string("stinger.scan.read-order", s.readOrder);
+        s.readBatchSize = in.intValue("stinger.scan.read-batch-size", s.readBatchSize);
+        s.memoryShrinkAt = in.doubleValue("stinger.scan.memory.shrink-at", s.memoryShrinkAt);
+        s.memorySpillAt = in.doubleValue("stinger.scan.memory.spill-at", s.memorySpillAt);
+        s.memoryPauseAt = in.doubleValue("stinger.scan.memory.pause-at", s.memoryPauseAt);
+        s.maxPauseMs = in.longValue("stinger.scan.memory.max-pause-ms", s.maxPauseMs);
+        return s;
+    }
+
+    private record Lookup(Function<String, String> property) {
+
+        String string(String key, String fallback) {
+            String value = property.apply(key);
+            return value == null || value.isBlank() ? fallback : value.trim();
+        }
+
+        int intValue(String key, int fallback) {
+            String value = string(key, null);
+            if (value == null) return fallback;
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw invalid(key, value);
+            }
+        }
+
+        long longValue(String key, long fallback) {
+            String value = string(key, null);
+            if (value == null) return fallback;
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw invalid(key, value);
+            }
+        }
+
+        double doubleValue(String key, double fallback) {
+            String value = string(key, null);
+            if (value == null) return fallback;
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw invalid(key, value);
+            }
+        }
+
+        boolean bool(String key, boolean fallback) {
+            String value = string(key, null);
+            if (value == null) return fallback;
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "true", "on", "yes", "1" -> true;
+                case "false", "off", "no", "0" -> false;
+                default -> throw invalid(key, value);
+            };
+        }
+
+        private static IllegalArgumentException invalid(String key, String value) {
+            return new IllegalArgumentException("Invalid value for " + key + ": " + value);
+        }
+    }
+
+    public String getResultsDir() {
+        return resultsDir;
+    }
+
+    public void setResultsDir(String resultsDir) {
+        this.resultsDir = resultsDir;
+    }
+
+    public String getResultsFormat() {
+        return resultsFormat;
+    }
+
+    public void setResultsFormat(String resultsFormat) {
+        this.resultsFormat = resultsFormat;
+    }
+
+    public long getSortBufferMb() {
+        return sortBufferMb;
+    }
+
+    public void setSortBufferMb(long sortBufferMb) {
+        this.sortBufferMb = sortBufferMb;
+    }
+
+    public long getProgressIntervalMs() {
+        return progressIntervalMs;
+    }
+
+    public void setProgressIntervalMs(long progressIntervalMs) {
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
+    public boolean isPreScanEnabled() {
+        return preScanEnabled;
+    }
+
+    public void setPreScanEnabled(boolean preScanEnabled) {
+        this.preScanEnabled = preScanEnabled;
+    }
+
+    public int getHotspotCount() {
+        return hotspotCount;
+    }
+
+    public void setHotspotCount(int hotspotCount) {
+        this.hotspotCount = hotspotCount;
+    }
+
+    public int getEstimateSamplesPerStratum() {
+        return estimateSamplesPerStratum;
+    }
+
+    public void setEstimateSamplesPerStratum(int estimateSamplesPerStratum) {
+        this.estimateSamplesPerStratum = estimateSamplesPerStratum;
+    }
+
+    public int getReadConcurrencyMin() {
+        return readConcurrencyMin;
+    }
+
+    public void setReadConcurrencyMin(int readConcurrencyMin) {
+        this.readConcurrencyMin = readConcurrencyMin;
+    }
+
+    public int getReadConcurrencyMax() {
+        return readConcurrencyMax;
+    }
+
+    public void setReadConcurrencyMax(int readConcurrencyMax) {
+        this.readConcurrencyMax = readConcurrencyMax;
+    }
+
+    public int getReadConcurrencyInitial() {
+        return readConcurrencyInitial;
+    }
+
+    public void setReadConcurrencyInitial(int readConcurrencyInitial) {
+        this.readConcurrencyInitial = readConcurrencyInitial;
+    }
+
+    public double getReadLatencyTolerance() {
+        return readLatencyTolerance;
+    }
+
+    public void setReadLatencyTolerance(double readLatencyTolerance) {
+        this.readLatencyTolerance = readLatencyTolerance;
+    }
+
+    public String getReadOrder() {
+        return readOrder;
+    }
+
+    public void setReadOrder(String readOrder) {
+        this.readOrder = readOrder;
+    }
+
+    public int getReadBatchSize() {
+        return readBatchSize;
+    }
+
+    public void setReadBatchSize(int readBatchSize) {
+        this.readBatchSize = readBatchSize;
+    }
+
+    public double getMemoryShrinkAt() {
+        return memoryShrinkAt;
+    }
+
+    public void setMemoryShrinkAt(double memoryShrinkAt) {
+        this.memoryShrinkAt = memoryShrinkAt;
+    }
+
+    public double getMemorySpillAt() {
+        return memorySpillAt;
+    }
+
+    public void setMemorySpillAt(double memorySpillAt) {
+        this.memorySpillAt = memorySpillAt;
+    }
+
+    public double getMemoryPauseAt() {
+        return memoryPauseAt;
+    }
+
+    public void setMemoryPauseAt(double memoryPauseAt) {
+        this.memoryPauseAt = memoryPauseAt;
+    }
+
+    public long getMaxPauseMs() {
+        return maxPauseMs;
+    }
+
+    public void setMaxPauseMs(long maxPauseMs) {
+        this.maxPauseMs = maxPauseMs;
+    }
+
+    public boolean isSystemPropertyOverrides() {
+        return systemPropertyOverrides;
+    }
+
+    public void setSystemPropertyOverrides(boolean systemPropertyOverrides) {
+        this.systemPropertyOverrides = systemPropertyOverrides;
+    }
+}
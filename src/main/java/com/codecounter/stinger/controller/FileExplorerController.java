@@ -1,31 +1,46 @@
 package com.codecounter.stinger.controller;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.codecounter.stinger.model.AnalysisResult;
 import com.codecounter.stinger.model.FileNode;
+import com.codecounter.stinger.service.BatchAnalysisService;
 import com.codecounter.stinger.service.FileAnalysisService;
-
-import jakarta.annotation.PreDestroy;
+import com.codecounter.stinger.service.ScanEventBus;
+import com.codecounter.stinger.service.ScanHistoryService;
+import com.codecounter.stinger.service.ScanScheduler;
+import com.codecounter.stinger.service.results.RollupIndex;
+import com.codecounter.stinger.service.results.RunDiff;
+import com.codecounter.stinger.service.results.RunEntries;
+import com.codecounter.stinger.service.results.ScanPartition;
+import com.codecounter.stinger.service.stream.ScanSession;
+import com.codecounter.stinger.service.stream.SseEventPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api")
@@ -36,12 +51,29 @@ public class FileExplorerController {
     @Autowired
     private FileAnalysisService fileAnalysisService;
 
-    // Executor for background streaming tasks. Bounded so we don't spawn unlimited threads.
-    private final ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    @Autowired
+    private ScanHistoryService scanHistoryService;
+
+    @Autowired
+    private ScanEventBus scanEventBus;
+
+    @Autowired
+    private ScanScheduler scanScheduler;
+
+    @Autowired
+    private BatchAnalysisService batchAnalysisService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     // Keep SSE connections alive for up to 10 minutes for long running analyses
     private static final long SSE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
 
+    // a nightly batch of hundreds of roots can run for hours
+    private static final long BATCH_TIMEOUT_MS = TimeUnit.HOURS.toMillis(12);
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @GetMapping("/list")
     public ResponseEntity<?> listDirectory(@RequestParam String path) {
         logger.info("Received request to list directory: {}", path);
@@ -63,82 +95,276 @@ public class FileExplorerController {
     @PostMapping("/analyze")
     public ResponseEntity<?> analyzeDirectory(@RequestBody Map<String, String> request) {
         String path = request.get("path");
-        logger.info("Received request to analyze directory: {}", path);
+        // "estimate" samples lines and methods instead of reading every file (see FileAnalysisService#estimateDirectory)
+        boolean estimate = "estimate".equalsIgnoreCase(request.get("mode"));
+        // "part" of "parts" scans one partition of the root for a later /api/merge (see FileAnalysisService#analyzePartition)
+        boolean partial = request.get("part") != null || request.get("parts") != null;
+        logger.info("Received request to {} directory: {}", estimate ? "estimate" : "analyze", path);
         try {
-            AnalysisResult result = fileAnalysisService.analyzeDirectory(path);
+            // admitted by the scan scheduler; a concurrent request for the same root shares this run
+            AnalysisResult result;
+            if (estimate) {
+                result = scanScheduler.submit("estimate", path, ScanScheduler.Priority.INTERACTIVE,
+                    () -> fileAnalysisService.estimateDirectory(path)).get();
+            } else if (partial) {
+                int part = Integer.parseInt(String.valueOf(request.get("part")).trim());
+                int parts = Integer.parseInt(String.valueOf(request.get("parts")).trim());
+                result = scanScheduler.submit("partial " + part + "/" + parts, path, ScanScheduler.Priority.INTERACTIVE,
+                    () -> fileAnalysisService.analyzePartition(path, part, parts)).get();
+            } else {
+                result = scanScheduler.submit("analyze", path, ScanScheduler.Priority.INTERACTIVE,
+                    () -> fileAnalysisService.analyzeDirectory(path)).get();
+            }
             logger.info("Analysis complete for path {}", path);
             return ResponseEntity.ok(result);
-        } catch (IOException e) {
-            logger.error("Error analyzing directory {}: {}", path, e.getMessage());
+        } catch (NumberFormatException e) {
             Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
+            error.put("error", "part and parts must both be integers");
             return ResponseEntity.badRequest().body(error);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            logger.error("Error analyzing directory {}: {}", path, cause.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", cause.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Interrupted while waiting for the scan");
+            return ResponseEntity.internalServerError().body(error);
         }
     }
 
-    @GetMapping("/analyze-stream")
-    public SseEmitter analyzeDirectoryStream(@RequestParam String path) {
-        final SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+    /**
+     * Analyze many roots in one request. Each root is a batch job on the shared scan scheduler; one NDJSON
+     * line per root is written as it completes (in completion order), then a final summary line.
+     */
+    @PostMapping("/analyze/batch")
+    public ResponseEntity<ResponseBodyEmitter> analyzeBatch(@RequestBody Map<String, List<String>> request) {
+        List<String> roots = request.get("roots");
+        final ResponseBodyEmitter emitter = new ResponseBodyEmitter(BATCH_TIMEOUT_MS);
+        if (roots == null || roots.isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "roots is required");
+            sendLine(emitter, error);
+            emitter.complete();
+            return ResponseEntity.badRequest().contentType(NDJSON).body(emitter);
+        }
+        logger.info("Received batch analysis request for {} roots", roots.size());
+        batchAnalysisService.analyze(roots, line -> sendLine(emitter, line))
+            .thenAccept(summary -> {
+                sendLine(emitter, summary);
+                emitter.complete();
+            });
+        return ResponseEntity.ok().contentType(NDJSON).body(emitter);
+    }
 
-        // Submit to executor instead of creating ad-hoc threads
-        executor.submit(() -> {
-            try {
-                // send starting event (best-effort)
-                safeSend(emitter, SseEmitter.event().name("start").data("Starting analysis of: " + path));
+    private void sendLine(ResponseBodyEmitter emitter, Map<String, Object> line) {
+        try {
+            emitter.send(objectMapper.writeValueAsString(line) + "\n", MediaType.TEXT_PLAIN);
+        } catch (Exception e) {
+            // client went away; the remaining roots still run and save their results
+            logger.debug("Batch line not delivered: {}", e.getMessage());
+        }
+    }
 
-                // run analysis — the service will now throw if sending fails and the emitter is closed
-                fileAnalysisService.analyzeDirectoryStream(path, emitter);
+    /**
+     * Subscribe to a streaming scan. A new request for {@code path} joins the scan already running for that
+     * root, or starts one; the scan keeps going if every subscriber disconnects. A reconnecting EventSource
+     * sends {@code Last-Event-ID} ({@code <scanId>:<seq>}) and resumes after it while the scan is still retained.
+     */
+    @GetMapping("/analyze-stream")
+    public SseEmitter analyzeDirectoryStream(@RequestParam(required = false) String path,
+            @RequestParam(required = false) String scanId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        final SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
 
-                safeSend(emitter, SseEmitter.event().name("done").data("Analysis complete"));
-                emitter.complete();
-            } catch (Exception e) {
-                logger.error("Streaming analysis failed for {}: {}", path, e.getMessage());
-                // best-effort notify client
-                safeSend(emitter, SseEmitter.event().name("error").data(e.getMessage()));
-                try {
-                    emitter.completeWithError(e);
-                } catch (Exception ex) {
-                    logger.debug("Failed to completeWithError on emitter: {}", ex.getMessage());
-                }
+        ScanSession session = null;
+        long afterSeq = 0L;
+        String[] resume = SseEventPublisher.parseLastEventId(lastEventId);
+        if (resume != null) {
+            session = scanEventBus.find(resume[0]);
+            if (session != null) afterSeq = Long.parseLong(resume[1]);
+        }
+        if (session == null && scanId != null) {
+            session = scanEventBus.find(scanId);
+        }
+        if (session == null) {
+            if (path == null || path.isBlank()) {
+                emitter.completeWithError(new IllegalArgumentException("path or a known scanId is required"));
+                return emitter;
             }
-        });
+            session = scanEventBus.startOrJoin(path);
+        }
+        logger.info("SSE subscriber attached to scan {} ({}) after seq {}", session.id(), session.root(), afterSeq);
 
+        // the subscriber has its own sender thread, so a slow client never stalls the scan or other subscribers
+        new SseEventPublisher(session, emitter, afterSeq);
         return emitter;
     }
 
-    private boolean safeSend(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+    /**
+     * Scan admission: running and queued scans, queue depth and wait times, plus the read concurrency of recent
+     * analyses and the heap-pressure throttle level.
+     */
+    @GetMapping("/scheduler")
+    public ResponseEntity<?> scheduler() {
+        Map<String, Object> response = scanScheduler.stats();
+        // per-root read concurrency chosen by the adaptive controller of recent analyses
+        response.put("reads", fileAnalysisService.readConcurrencyStats());
+        response.put("memory", fileAnalysisService.memoryPressureStats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Streaming scans that are running or were retained for replay.
+     */
+    @GetMapping("/scans")
+    public ResponseEntity<?> scans() {
+        return ResponseEntity.ok(scanEventBus.describe());
+    }
+
+    /**
+     * Time series of completed runs for a root (oldest first), optionally limited to the last {@code days} days.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> history(@RequestParam String root, @RequestParam(required = false) Integer days) {
+        try {
+            List<Map<String, Object>> runs = scanHistoryService.history(fileAnalysisService.resolveResultsRoot(), root, days);
+            Map<String, Object> response = new HashMap<>();
+            response.put("root", root);
+            response.put("runs", runs);
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            logger.error("Failed to read scan history for {}: {}", root, e.getMessage());
+            Map<String, String> err = new HashMap<>();
+            err.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(err);
+        }
+    }
+
+    /**
+     * Added, removed and changed files between two saved runs of a root, plus cumulative per-folder deltas.
+     */
+    @GetMapping("/diff")
+    public ResponseEntity<?> diff(@RequestParam String root, @RequestParam String from, @RequestParam String to,
+                                  @RequestParam(defaultValue = "1000") int limit) {
         try {
-            emitter.send(event);
-            return true;
-        } catch (IOException | IllegalStateException e) {
-            // emitter likely closed; treat as transient and stop attempts
-            logger.debug("Emitter failed to send event — skipping further sends: {}", e.getMessage());
-            return false;
+            Path fromFolder = fileAnalysisService.resolveRunFolder(root, from);
+            Path toFolder = fileAnalysisService.resolveRunFolder(root, to);
+            String rootPath = new File(root).getCanonicalPath();
+            try (RunEntries a = RunEntries.open(fromFolder); RunEntries b = RunEntries.open(toFolder)) {
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("root", root);
+                response.put("from", from);
+                response.put("to", to);
+                response.putAll(RunDiff.compute(rootPath, a, b, Math.max(0, limit)));
+                return ResponseEntity.ok(response);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to diff runs {} and {} for {}: {}", from, to, root, e.getMessage());
+            Map<String, String> err = new HashMap<>();
+            err.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(err);
         }
     }
 
-    @PreDestroy
-    public void shutdownExecutor() {
+    /**
+     * Cumulative counters of one folder of a saved run (the latest unless {@code run} is given), answered from
+     * the run's rollup index without touching the file lists or the tree.
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<?> metrics(@RequestParam String root, @RequestParam(required = false) String subpath,
+                                     @RequestParam(required = false) String run) {
         try {
-            executor.shutdownNow();
-        } catch (Exception e) {
-            logger.debug("Error shutting down executor: {}", e.getMessage());
+            RollupIndex index = fileAnalysisService.rollupIndex(root, run);
+            if (index == null) {
+                Map<String, String> err = new HashMap<>();
+                err.put("error", "No saved run for " + root);
+                return ResponseEntity.status(404).body(err);
+            }
+            RollupIndex.Rollup rollup = index.get(subpath);
+            if (rollup == null) {
+                Map<String, String> err = new HashMap<>();
+                err.put("error", "No folder " + subpath + " in the saved run of " + root);
+                return ResponseEntity.status(404).body(err);
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("root", root);
+            response.put("subpath", rollup.path());
+            response.putAll(rollup.toMap());
+            response.remove("path");
+            return ResponseEntity.ok(response);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Failed to read rollups for {}: {}", root, e.getMessage());
+            Map<String, String> err = new HashMap<>();
+            err.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(err);
+        }
+    }
+
+    /**
+     * Combine the partial runs of one root (from {@code /api/analyze} with {@code part}/{@code parts}) into
+     * one run of the root. Body: {@code {"partials": ["<partial run folder>", ...]}}.
+     */
+    @PostMapping("/merge")
+    public ResponseEntity<?> mergePartials(@RequestBody Map<String, List<String>> request) {
+        List<String> partials = request.get("partials");
+        try {
+            if (partials == null || partials.isEmpty()) throw new IOException("No partial results to merge");
+            // keyed on the merged root, so a second merge of the same root joins the running one
+            String root = ScanPartition.readManifest(Paths.get(partials.get(0))).get("root");
+            if (root == null) throw new IOException("No root in the manifest of " + partials.get(0));
+            Path out = scanScheduler.submit("merge", root, ScanScheduler.Priority.INTERACTIVE,
+                () -> fileAnalysisService.mergePartials(partials)).get();
+            Map<String, String> resp = new HashMap<>();
+            resp.put("resultsPath", out.toString());
+            return ResponseEntity.ok(resp);
+        } catch (IOException e) {
+            logger.error("Failed to merge partial results {}: {}", partials, e.getMessage());
+            Map<String, String> err = new HashMap<>();
+            err.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(err);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            logger.error("Failed to merge partial results {}: {}", partials, cause.getMessage());
+            Map<String, String> err = new HashMap<>();
+            err.put("error", cause.getMessage());
+            return ResponseEntity.badRequest().body(err);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Map<String, String> err = new HashMap<>();
+            err.put("error", "Interrupted while waiting for the merge");
+            return ResponseEntity.internalServerError().body(err);
         }
     }
 
     @PostMapping("/save-results")
     public ResponseEntity<?> saveResults(@RequestBody Map<String, String> request) {
         String path = request.get("path");
+        if (path == null || path.isBlank()) {
+            Map<String, String> err = new HashMap<>();
+            err.put("error", "path is required");
+            return ResponseEntity.badRequest().body(err);
+        }
         try {
-            Path out = fileAnalysisService.saveAnalysisResults(path);
+            // a full walk like /api/analyze, so it is admitted by the same scheduler
+            Path out = scanScheduler.submit("save", path, ScanScheduler.Priority.INTERACTIVE,
+                () -> fileAnalysisService.saveAnalysisResults(path)).get();
             Map<String, String> resp = new HashMap<>();
             resp.put("resultsPath", out.toString());
             return ResponseEntity.ok(resp);
-        } catch (IOException e) {
-            logger.error("Failed to save results for {}: {}", path, e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            logger.error("Failed to save results for {}: {}", path, cause.getMessage());
             Map<String, String> err = new HashMap<>();
-            err.put("error", e.getMessage());
+            err.put("error", cause.getMessage());
             return ResponseEntity.badRequest().body(err);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Map<String, String> err = new HashMap<>();
+            err.put("error", "Interrupted while waiting for the scan");
+            return ResponseEntity.internalServerError().body(err);
         }
     }
 }
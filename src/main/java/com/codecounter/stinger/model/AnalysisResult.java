@@ -1,5 +1,8 @@
 package com.codecounter.stinger.model;
 
+import java.util.List;
+import java.util.Map;
+
 public class AnalysisResult {
     private int totalFolders;
     private int totalFiles;
@@ -13,6 +16,12 @@ public class AnalysisResult {
     private long totalDocLines;
     private String path;
     private String resultsPath;
+    // top-N lists by name (largestFiles, mostMethods, slowestFiles, busiestFolders); null until a scan fills them
+    private Map<String, List<Hotspot>> hotspots;
+    // set only by estimate-mode scans: the line and method totals above are then extrapolated from a sample
+    private Estimate estimate;
+    // heap-pressure throttling during a full scan; null for scans that don't track it
+    private ThrottleEvents throttle;
 
     public AnalysisResult() {
     }
@@ -104,4 +113,28 @@ public class AnalysisResult {
     public void setResultsPath(String resultsPath) {
         this.resultsPath = resultsPath;
     }
+
+    public Map<String, List<Hotspot>> getHotspots() {
+        return hotspots;
+    }
+
+    public void setHotspots(Map<String, List<Hotspot>> hotspots) {
+        this.hotspots = hotspots;
+    }
+
+    public Estimate getEstimate() {
+        return estimate;
+    }
+
+    public void setEstimate(Estimate estimate) {
+        this.estimate = estimate;
+    }
+
+    public ThrottleEvents getThrottle() {
+        return throttle;
+    }
+
+    public void setThrottle(ThrottleEvents throttle) {
+        this.throttle = throttle;
+    }
 }
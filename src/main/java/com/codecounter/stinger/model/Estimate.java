@@ -0,0 +1,155 @@
+package com.codecounter.stinger.model;
+
+/**
+ * How an estimate-mode {@link AnalysisResult} was produced and how far its extrapolated totals can be
+ * trusted. Folder and file counts are exact; lines and methods come from a stratified sample. Files in strata
+ * where no sampled file could be read ({@code unmeasuredFiles}) are not in the line and method totals or
+ * their intervals.
+ */
+public class Estimate {
+    private double confidenceLevel;
+    private long sampledFiles;
+    private int strata;
+    private int unmeasuredStrata;
+    private long unmeasuredFiles;
+    private long elapsedMs;
+    private Range totalLines;
+    private Range totalCodeLines;
+    private Range totalDocLines;
+    private Range totalMethods;
+
+    public Estimate() {
+    }
+
+    /**
+     * An extrapolated total: the point estimate and the bounds of its confidence interval.
+     */
+    public static class Range {
+        private long estimate;
+        private long low;
+        private long high;
+        private long standardError;
+
+        public Range() {
+        }
+
+        public Range(long estimate, long low, long high, long standardError) {
+            this.estimate = estimate;
+            this.low = low;
+            this.high = high;
+            this.standardError = standardError;
+        }
+
+        public long getEstimate() {
+            return estimate;
+        }
+
+        public void setEstimate(long estimate) {
+            this.estimate = estimate;
+        }
+
+        public long getLow() {
+            return low;
+        }
+
+        public void setLow(long low) {
+            this.low = low;
+        }
+
+        public long getHigh() {
+            return high;
+        }
+
+        public void setHigh(long high) {
+            this.high = high;
+        }
+
+        public long getStandardError() {
+            return standardError;
+        }
+
+        public void setStandardError(long standardError) {
+            this.standardError = standardError;
+        }
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) {
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public long getSampledFiles() {
+        return sampledFiles;
+    }
+
+    public void setSampledFiles(long sampledFiles) {
+        this.sampledFiles = sampledFiles;
+    }
+
+    public int getStrata() {
+        return strata;
+    }
+
+    public void setStrata(int strata) {
+        this.strata = strata;
+    }
+
+    public int getUnmeasuredStrata() {
+        return unmeasuredStrata;
+    }
+
+    public void setUnmeasuredStrata(int unmeasuredStrata) {
+        this.unmeasuredStrata = unmeasuredStrata;
+    }
+
+    public long getUnmeasuredFiles() {
+        return unmeasuredFiles;
+    }
+
+    public void setUnmeasuredFiles(long unmeasuredFiles) {
+        this.unmeasuredFiles = unmeasuredFiles;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Range getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(Range totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public Range getTotalCodeLines() {
+        return totalCodeLines;
+    }
+
+    public void setTotalCodeLines(Range totalCodeLines) {
+        this.totalCodeLines = totalCodeLines;
+    }
+
+    public Range getTotalDocLines() {
+        return totalDocLines;
+    }
+
+    public void setTotalDocLines(Range totalDocLines) {
+        this.totalDocLines = totalDocLines;
+    }
+
+    public Range getTotalMethods() {
+        return totalMethods;
+    }
+
+    public void setTotalMethods(Range totalMethods) {
+        this.totalMethods = totalMethods;
+    }
+}
@@ -9,6 +9,10 @@ public class FileNode {
     private boolean isDirectory;
     private String type;
     private long size;
+    // folders only: subtree totals from the latest saved run's rollups, null when no run covers the folder
+    private Long cumulativeBytes;
+    private Long cumulativeFiles;
+    private Long cumulativeLines;
     private List<FileNode> children;
 
     public FileNode() {
@@ -69,4 +73,28 @@ public class FileNode {
     public void setChildren(List<FileNode> children) {
         this.children = children;
     }
+
+    public Long getCumulativeBytes() {
+        return cumulativeBytes;
+    }
+
+    public void setCumulativeBytes(Long cumulativeBytes) {
+        this.cumulativeBytes = cumulativeBytes;
+    }
+
+    public Long getCumulativeFiles() {
+        return cumulativeFiles;
+    }
+
+    public void setCumulativeFiles(Long cumulativeFiles) {
+        this.cumulativeFiles = cumulativeFiles;
+    }
+
+    public Long getCumulativeLines() {
+        return cumulativeLines;
+    }
+
+    public void setCumulativeLines(Long cumulativeLines) {
+        this.cumulativeLines = cumulativeLines;
+    }
 }
@@ -0,0 +1,34 @@
+package com.codecounter.stinger.model;
+
+/**
+ * One entry of a top-N hotspot list: a file or folder and the value it was ranked by
+ * (lines, methods, analysis milliseconds or file count, depending on the list).
+ */
+public class Hotspot {
+    private String path;
+    private long value;
+
+    public Hotspot() {
+    }
+
+    public Hotspot(String path, long value) {
+        this.path = path;
+        this.value = value;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public void setValue(long value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,65 @@
+package com.codecounter.stinger.model;
+
+/**
+ * What a scan did under heap pressure: how often it shrank its read parallelism, spilled its visited set
+ * to disk and paused file admissions, and the highest heap occupancy it saw.
+ */
+public class ThrottleEvents {
+    private long shrinks;
+    private long spills;
+    private long spilledEntries;
+    private long pauses;
+    private long pausedMs;
+    private double peakHeapPercent;
+
+    public ThrottleEvents() {
+    }
+
+    public long getShrinks() {
+        return shrinks;
+    }
+
+    public void setShrinks(long shrinks) {
+        this.shrinks = shrinks;
+    }
+
+    public long getSpills() {
+        return spills;
+    }
+
+    public void setSpills(long spills) {
+        this.spills = spills;
+    }
+
+    public long getSpilledEntries() {
+        return spilledEntries;
+    }
+
+    public void setSpilledEntries(long spilledEntries) {
+        this.spilledEntries = spilledEntries;
+    }
+
+    public long getPauses() {
+        return pauses;
+    }
+
+    public void setPauses(long pauses) {
+        this.pauses = pauses;
+    }
+
+    public long getPausedMs() {
+        return pausedMs;
+    }
+
+    public void setPausedMs(long pausedMs) {
+        this.pausedMs = pausedMs;
+    }
+
+    public double getPeakHeapPercent() {
+        return peakHeapPercent;
+    }
+
+    public void setPeakHeapPercent(double peakHeapPercent) {
+        this.peakHeapPercent = peakHeapPercent;
+    }
+}
@@ -0,0 +1,101 @@
+package com.codecounter.stinger.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.codecounter.stinger.model.AnalysisResult;
+
+/**
+ * Analyzes many roots in one request. Every root is an ordinary batch-priority job on the
+ * {@link ScanScheduler}, so the roots share its worker pool (and the per-thread parser and ignore-rule
+ * caches in {@link FileAnalysisService}) with every other scan, and each one saves its results folder
+ * exactly as {@code /api/analyze} does.
+ */
+@Service
+public class BatchAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchAnalysisService.class);
+
+    private final FileAnalysisService fileAnalysisService;
+    private final ScanScheduler scanScheduler;
+
+    public BatchAnalysisService(FileAnalysisService fileAnalysisService, ScanScheduler scanScheduler) {
+        this.fileAnalysisService = fileAnalysisService;
+        this.scanScheduler = scanScheduler;
+    }
+
+    /**
+     * Schedule every root (duplicates once) and hand one status line per root to {@code onRoot} as it
+     * completes, in completion order. The returned future completes with a summary line once all are done.
+     * {@code onRoot} is called from scan worker threads, one call at a time.
+     */
+    public CompletableFuture<Map<String, Object>> analyze(List<String> roots, Consumer<Map<String, Object>> onRoot) {
+        long start = System.nanoTime();
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(roots));
+        logger.info("Batch analysis of {} roots", unique.size());
+        int[] outcome = new int[2]; // succeeded, failed
+        List<CompletableFuture<?>> futures = new ArrayList<>(unique.size());
+        for (String root : unique) {
+            long submitted = System.nanoTime();
+            long[] startedAt = new long[1];
+            CompletableFuture<AnalysisResult> future = scanScheduler.submit("analyze", root, ScanScheduler.Priority.BATCH, () -> {
+                startedAt[0] = System.nanoTime();
+                return fileAnalysisService.analyzeDirectory(root);
+            });
+            futures.add(future.handle((result, error) -> {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("root", root);
+                if (error == null) {
+                    line.put("status", "ok");
+                    line.put("resultsPath", result.getResultsPath());
+                    line.put("totalFolders", result.getTotalFolders());
+                    line.put("totalFiles", result.getTotalFiles());
+                    line.put("totalCodeFiles", result.getTotalCodeFiles());
+                    line.put("totalDocFiles", result.getTotalDocFiles());
+                    line.put("totalLines", result.getTotalLines());
+                    line.put("totalMethods", result.getTotalMethods());
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    logger.warn("Batch analysis of {} failed: {}", root, cause.getMessage());
+                    line.put("status", "error");
+                    line.put("error", cause.getMessage());
+                }
+                long now = System.nanoTime();
+                // a root joined from an already running scan never ran our task
+                if (startedAt[0] != 0) line.put("waitMs", (startedAt[0] - submitted) / 1_000_000L);
+                line.put("elapsedMs", (now - submitted) / 1_000_000L);
+                synchronized (outcome) {
+                    outcome[error == null ? 0 : 1]++;
+                    try {
+                        onRoot.accept(line);
+                    } catch (Exception e) {
+                        logger.debug("Batch listener failed for {}: {}", root, e.getMessage());
+                    }
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("done", true);
+            summary.put("roots", unique.size());
+            synchronized (outcome) {
+                summary.put("succeeded", outcome[0]);
+                summary.put("failed", outcome[1]);
+            }
+            summary.put("elapsedMs", (System.nanoTime() - start) / 1_000_000L);
+            logger.info("Batch analysis finished: {}", summary);
+            return summary;
+        });
+    }
+}
@@ -4,32 +4,71 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import com.codecounter.stinger.config.ScanSettings;
 import com.codecounter.stinger.model.AnalysisResult;
+import com.codecounter.stinger.model.Estimate;
 import com.codecounter.stinger.model.FileNode;
+import com.codecounter.stinger.model.ThrottleEvents;
+import com.codecounter.stinger.service.io.AdaptiveConcurrency;
+import com.codecounter.stinger.service.io.AdaptiveReadStage;
+import com.codecounter.stinger.service.io.MemoryPressure;
+import com.codecounter.stinger.service.io.MemoryThrottle;
+import com.codecounter.stinger.service.io.ReadScheduler;
+import com.codecounter.stinger.service.io.SpillableStringSet;
+import com.codecounter.stinger.service.results.BinaryResultsReader;
+import com.codecounter.stinger.service.results.BinaryResultsWriter;
+import com.codecounter.stinger.service.results.FileMetricsWriter;
+import com.codecounter.stinger.service.results.HotspotTracker;
+import com.codecounter.stinger.service.results.PartialMerger;
+import com.codecounter.stinger.service.results.RollupIndex;
+import com.codecounter.stinger.service.results.RollupIndexWriter;
+import com.codecounter.stinger.service.results.RunEntries;
+import com.codecounter.stinger.service.results.ScanPartition;
+import com.codecounter.stinger.service.results.ScanPathStore;
+import com.codecounter.stinger.service.results.StratifiedEstimator;
+import com.codecounter.stinger.service.results.StreamingResultsWriter;
+import com.codecounter.stinger.service.stream.ProgressAggregator;
+import com.codecounter.stinger.service.stream.MetadataPreScan;
+import com.codecounter.stinger.service.stream.ScanSession;
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
 
+import jakarta.annotation.PreDestroy;
+
 @Service
 public class FileAnalysisService {
     
@@ -105,23 +144,37 @@ public class FileAnalysisService {
 
         // allow user to add additional ignore patterns via system property
         // comma-separated patterns, supports exact names or suffix '*' wildcard, e.g. 'build,temp*,node_modules'
-        String extra = System.getProperty("stinger.ignore.dirs", "");
-        if (extra != null && !extra.isBlank()) {
-            for (String raw : extra.split(",")) {
-                String p = raw.trim().toLowerCase();
-                if (p.isEmpty()) continue;
-                if (p.endsWith("*")) {
-                    String pref = p.substring(0, p.length() - 1);
-                    if (name.startsWith(pref)) return true;
-                } else {
-                    if (name.equals(p)) return true;
-                }
+        for (String p : extraIgnoredDirPatterns()) {
+            if (p.endsWith("*")) {
+                String pref = p.substring(0, p.length() - 1);
+                if (name.startsWith(pref)) return true;
+            } else {
+                if (name.equals(p)) return true;
             }
         }
 
         return false;
     }
 
+    // parsed 'stinger.ignore.dirs', shared by every scan and re-parsed only when the property changes
+    private volatile String extraIgnoredDirsRaw = "";
+    private volatile List<String> extraIgnoredDirs = List.of();
+
+    private List<String> extraIgnoredDirPatterns() {
+        String raw = System.getProperty("stinger.ignore.dirs", "");
+        if (raw == null) raw = "";
+        if (!raw.equals(extraIgnoredDirsRaw)) {
+            List<String> parsed = new ArrayList<>();
+            for (String part : raw.split(",")) {
+                String p = part.trim().toLowerCase();
+                if (!p.isEmpty()) parsed.add(p);
+            }
+            extraIgnoredDirs = List.copyOf(parsed);
+            extraIgnoredDirsRaw = raw;
+        }
+        return extraIgnoredDirs;
+    }
+
     // file extensions to ignore completely (case-insensitive)
     private static final Set<String> IGNORED_FILE_EXTENSIONS = new HashSet<>(Arrays.asList(
         // Metadata / IDE / System
@@ -172,14 +225,93 @@ public class FileAnalysisService {
     // to point to a temporary location so tests do not write into the repo's ./code_counter_results/ folder.
     private final String resultsDirProperty;
 
+    // results output format: 'text' (path lists only), 'binary' (results.bin only) or 'both'.
+    // Like the results dir, this may be overridden at runtime with the system property `stinger.results.format`.
+    private final String resultsFormatProperty;
+
+    // false when the two settings above were fixed by the caller (the CLI) and must not follow system properties
+    private final boolean systemPropertyOverrides;
+
     private final H2StorageService h2StorageService;
 
-    public FileAnalysisService(
-        @Value("${stinger.results.dir:code_counter_results}") String resultsDirProperty,
-        H2StorageService h2StorageService
-    ) {
-        this.resultsDirProperty = resultsDirProperty;
+    private final ScanHistoryService scanHistoryService;
+
+    // streaming progress is coalesced into one frame per interval carrying this many recent names
+    private static final int PROGRESS_SAMPLE_SIZE = 8;
+
+    // JavaParser is not thread-safe but is reusable; one per scan worker thread, shared across roots and runs
+    private static final ThreadLocal<JavaParser> JAVA_PARSER = ThreadLocal.withInitial(JavaParser::new);
+    private final long progressIntervalMs;
+    private final boolean preScanEnabled;
+    private final int hotspotCount;
+    private final int estimateSamplesPerStratum;
+    private final int readConcurrencyMin;
+    private final int readConcurrencyMax;
+    private final int readConcurrencyInitial;
+    private final double readLatencyTolerance;
+    private final ReadScheduler.Order readOrder;
+    private final int readBatchSize;
+    // heap occupancy shared by every scan; each scan throttles itself from it
+    private final MemoryPressure memoryPressure;
+    private final long maxPauseMs;
+    // heap the results writers may use for sorting before they spill sorted runs to disk
+    private final long sortBudgetBytes;
+    // shared by every analysis; each one limits its own reads in flight
+    private final ExecutorService readPool;
+    private final AtomicInteger readThreadIds = new AtomicInteger();
+    private static final int READ_CONTROLLERS_KEPT = 32;
+    private final Map<String, AdaptiveConcurrency> readControllers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AdaptiveConcurrency> eldest) {
+            return size() > READ_CONTROLLERS_KEPT;
+        }
+    };
+
+    // run folders are <yyyy_MM_dd>_<alpha>
+    private static final Pattern RUN_FOLDER = Pattern.compile("\\d{4}_\\d{2}_\\d{2}_[a-z]+");
+    // partial runs of a root, one folder per partition, beside its run folders
+    private static final String PARTIALS_DIR = "partials";
+    // summary.txt keys that are per-run counts (the rest describe the run)
+    private static final Set<String> SUMMARY_COUNTS = Set.of("folders", "totalFiles", "codeFiles", "docFiles", "otherFiles",
+        "totalMethods", "totalCodeLines", "totalDocLines", "totalLines");
+    private static final int ROLLUP_CACHE_SIZE = 32;
+    // mapped rollup indexes of recently queried runs, least recently used evicted first
+    private final Map<Path, RollupIndex> rollupCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, RollupIndex> eldest) {
+            return size() > ROLLUP_CACHE_SIZE;
+        }
+    };
+
+    @Autowired
+    public FileAnalysisService(Environment environment, H2StorageService h2StorageService, ScanHistoryService scanHistoryService) {
+        this(ScanSettings.from(environment::getProperty), h2StorageService, scanHistoryService);
+    }
+
+    public FileAnalysisService(ScanSettings settings, H2StorageService h2StorageService, ScanHistoryService scanHistoryService) {
+        this.resultsDirProperty = settings.getResultsDir();
+        this.resultsFormatProperty = settings.getResultsFormat();
+        this.systemPropertyOverrides = settings.isSystemPropertyOverrides();
+        this.progressIntervalMs = settings.getProgressIntervalMs();
+        this.preScanEnabled = settings.isPreScanEnabled();
+        this.hotspotCount = settings.getHotspotCount();
+        this.estimateSamplesPerStratum = settings.getEstimateSamplesPerStratum();
+        this.readConcurrencyMin = settings.getReadConcurrencyMin();
+        this.readConcurrencyMax = settings.getReadConcurrencyMax();
+        this.readConcurrencyInitial = settings.getReadConcurrencyInitial();
+        this.readLatencyTolerance = settings.getReadLatencyTolerance();
+        this.readOrder = ReadScheduler.Order.parse(settings.getReadOrder());
+        this.readBatchSize = settings.getReadBatchSize();
+        this.memoryPressure = MemoryPressure.heap(settings.getMemoryShrinkAt(), settings.getMemorySpillAt(), settings.getMemoryPauseAt());
+        this.maxPauseMs = settings.getMaxPauseMs();
+        this.sortBudgetBytes = Math.max(1, settings.getSortBufferMb()) * 1024 * 1024;
+        this.readPool = Executors.newFixedThreadPool(Math.max(1, this.readConcurrencyMax), r -> {
+            Thread t = new Thread(r, "scan-read-" + readThreadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
         this.h2StorageService = h2StorageService;
+        this.scanHistoryService = scanHistoryService;
     }
 
     public List<FileNode> listDirectory(String dirPath) throws IOException {
@@ -191,6 +323,9 @@ public class FileAnalysisService {
         
         List<FileNode> nodes = new ArrayList<>();
         File[] files = dir.listFiles();
+        // subfolder sizes come from the rollups of a saved run covering this folder, never from walking them
+        RollupIndex rollups = files == null ? null : coveringRollups(dir);
+        String dirCanonical = rollups == null ? null : dir.getCanonicalPath();
         
         if (files != null) {
             for (File file : files) {
@@ -205,6 +340,13 @@ public class FileAnalysisService {
                         String extension = getFileExtension(file.getName());
                         node.setType(classifyFile(extension));
                         node.setSize(file.length());
+                    } else if (rollups != null) {
+                        RollupIndex.Rollup rollup = rollups.get(ScanPathStore.join(dirCanonical, file.getName()));
+                        if (rollup != null) {
+                            node.setCumulativeBytes(rollup.bytes());
+                            node.setCumulativeFiles(rollup.files());
+                            node.setCumulativeLines(rollup.lines());
+                        }
                     }
                     
                     nodes.add(node);
@@ -215,16 +357,44 @@ public class FileAnalysisService {
         return nodes;
     }
 
-    private Path getPersistentSummaryPath(String dirPath) throws IOException {
-        // Build results directory structure
+    /**
+     * Base results directory (e.g. ./code_counter_results), created if missing.
+     */
+    public Path resolveResultsRoot() throws IOException {
+        Path resultsRoot = resultsRootPath();
+        Files.createDirectories(resultsRoot);
+        return resultsRoot;
+    }
+
+    // the results root without creating it, for read-only callers
+    private Path resultsRootPath() throws IOException {
         // Respect configurable results dir (may be set by tests via a Spring property or runtime System property)
-        String runtimeOverride = System.getProperty("stinger.results.dir");
+        String runtimeOverride = systemPropertyOverrides ? System.getProperty("stinger.results.dir") : null;
         Path resultsRoot = runtimeOverride != null && !runtimeOverride.isEmpty() ? Paths.get(runtimeOverride) : Paths.get(resultsDirProperty);
         if (!resultsRoot.isAbsolute()) {
             Path appRoot = Paths.get(new File(".").getCanonicalPath());
-            resultsRoot = appRoot.resolve(resultsDirProperty);
+            resultsRoot = appRoot.resolve(resultsRoot);
         }
-        Files.createDirectories(resultsRoot);
+        return resultsRoot;
+    }
+
+    /**
+     * Folder of a saved run (e.g. {@code 2024_05_01_a}) of the given root. Only plain run folder names are accepted.
+     */
+    public Path resolveRunFolder(String dirPath, String run) throws IOException {
+        if (run == null || !run.matches("[A-Za-z0-9_]+")) {
+            throw new IOException("Invalid run name: " + run);
+        }
+        Path folder = getPersistentSummaryPath(dirPath).getParent().resolve(run);
+        if (!Files.isDirectory(folder)) {
+            throw new IOException("No saved run " + run + " for " + dirPath);
+        }
+        return folder;
+    }
+
+    private Path getPersistentSummaryPath(String dirPath) throws IOException {
+        // Build results directory structure
+        Path resultsRoot = resolveResultsRoot();
 
         // Use last folder name from path (not the complete path), then sanitize
         Path inputPath = Paths.get(dirPath);
@@ -240,86 +410,134 @@ public class FileAnalysisService {
      * Returns the path to the created results folder.
      */
     public Path saveAnalysisResults(String dirPath) throws IOException {
-        return saveAnalysisResults(dirPath, null);
+        Path saved = saveAnalysisResults(dirPath, null);
+        writeRollups(dirPath, saved);
+        return saved;
     }
 
     public Path saveAnalysisResults(String dirPath, AnalysisResult analysisResult) throws IOException {
+        return saveResults(dirPath, analysisResult, null, null);
+    }
+
+    /**
+     * A partial run (non-null {@code partition}) lists only the partition's share of the root and is saved
+     * under {@code partials/part<i>of<n>/} of the root's results folder. It is not a run of the root: the
+     * persistent summary and the scan history are left alone until the partials are merged.
+     * {@code metricsFile}, when the run was analyzed, is its closed {@code file_metrics.csv}: results.bin takes
+     * each file's lines and methods from it.
+     */
+    private Path saveResults(String dirPath, AnalysisResult analysisResult, ScanPartition partition, Path metricsFile) throws IOException {
         Path root = Paths.get(dirPath);
         if (!Files.exists(root) || !Files.isDirectory(root)) {
             throw new IOException("Invalid directory path: " + dirPath);
         }
 
-        // produce collections while walking
-        Set<String> visited = new HashSet<>();
-        List<String> folders = new ArrayList<>();
-        List<String> allFiles = new ArrayList<>();
-        List<String> codeFiles = new ArrayList<>();
-        List<String> docFiles = new ArrayList<>();
-        List<String> otherFiles = new ArrayList<>();
-
-        // walk with protection against loops
-        long walkStart = System.currentTimeMillis();
-        walkAndCollect(root.toFile(), visited, folders, allFiles, codeFiles, docFiles, otherFiles);
-        long walkElapsed = System.currentTimeMillis() - walkStart;
-        logger.debug("walkAndCollect finished for {} — folders={}, totalFiles={}, codeFiles={}, docFiles={}, otherFiles={}, elapsed={}ms", dirPath, folders.size(), allFiles.size(), codeFiles.size(), docFiles.size(), otherFiles.size(), walkElapsed);
+        // the path store doubles as the visited set; the lists themselves are streamed to disk as the walk goes
+        String rootPath;
+        try {
+            rootPath = root.toFile().getCanonicalPath();
+        } catch (IOException e) {
+            rootPath = root.toFile().getAbsolutePath();
+        }
+        ScanPathStore store = new ScanPathStore(rootPath);
 
         Path persistentSummary = getPersistentSummaryPath(dirPath);
-        Path rootFolder = persistentSummary.getParent();
+        Path rootFolder = partition == null ? persistentSummary.getParent()
+            : persistentSummary.getParent().resolve(PARTIALS_DIR).resolve(partition.folderName());
         Files.createDirectories(rootFolder);
 
-        // date folder with alpha suffix
-        String datePrefix = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy_MM_dd"));
-        String alpha = nextAlphaSuffix(rootFolder, datePrefix); // now always returns a non-empty alpha (e.g., 'a')
-        Path outFolder = rootFolder.resolve(datePrefix + "_" + alpha);
-        Files.createDirectories(outFolder);
-
-        // produce output files
-        long writeStart = System.currentTimeMillis();
-        writeList(outFolder.resolve("folders.txt"), folders);
-        writeList(outFolder.resolve("total_files.txt"), allFiles);
-        writeList(outFolder.resolve("code_files.txt"), codeFiles);
-        writeList(outFolder.resolve("document_files.txt"), docFiles);
-        writeList(outFolder.resolve("other_files.txt"), otherFiles);
-
-        // Also write a small meta file
+        String format = resolveResultsFormat();
+        boolean writeText = !"binary".equals(format);
+        boolean writeBinary = "binary".equals(format) || "both".equals(format);
+        // per-file line counts are only needed when the caller has no analysis totals (an analyzed run's come from
+        // metricsFile); -1 marks "not measured"
+        boolean countLines = analysisResult == null;
+
+        // everything goes into a hidden temp folder first (inspectable while the walk runs) and is renamed into place at the end
+        StreamingResultsWriter out = StreamingResultsWriter.start(
+            createStagingFolder(rootFolder), dirPath, writeText, writeBinary, sortBudgetBytes);
+        if (metricsFile != null) out.measuredBy(metricsFile);
         Map<String, String> meta = new LinkedHashMap<>();
-        meta.put("root", dirPath);
-        meta.put("createdAt", LocalDate.now().toString());
-        meta.put("folders", String.valueOf(folders.size()));
-        meta.put("totalFiles", String.valueOf(allFiles.size()));
-        meta.put("codeFiles", String.valueOf(codeFiles.size()));
-        meta.put("docFiles", String.valueOf(docFiles.size()));
-        meta.put("otherFiles", String.valueOf(otherFiles.size()));
-        
-        long codeLines = 0L;
-        long docLines = 0L;
-
-        if (analysisResult != null) {
-            codeLines = analysisResult.getTotalCodeLines();
-            docLines = analysisResult.getTotalDocLines();
-            meta.put("totalMethods", String.valueOf(analysisResult.getTotalMethods()));
-        } else {
-            // compute total lines per category so summary includes code/doc line counts
-            for (String p : codeFiles) {
-                try {
-                    codeLines += countLines(new File(p));
-                } catch (Exception e) {
-                    logger.debug("Failed to count lines for code file {}: {}", p, e.getMessage());
-                }
+        Path outFolder;
+        long totalFileCount;
+        long walkStart = System.currentTimeMillis();
+        try {
+            collect(store, store.root(), ScanPathStore.FOLDER, root.toFile(), out, false);
+            walkAndCollect(root.toFile(), rootPath, store.root(), store, out, countLines, partition);
+            out.close();
+            long walkElapsed = System.currentTimeMillis() - walkStart;
+            long folderCount = out.count(ScanPathStore.FOLDER);
+            long codeCount = out.count(ScanPathStore.CODE);
+            long docCount = out.count(ScanPathStore.DOC);
+            long otherCount = out.count(ScanPathStore.OTHER);
+            totalFileCount = codeCount + docCount;
+            logger.debug("walkAndCollect finished for {} — folders={}, totalFiles={}, codeFiles={}, docFiles={}, otherFiles={}, elapsed={}ms", dirPath, folderCount, totalFileCount, codeCount, docCount, otherCount, walkElapsed);
+
+            // Also write a small meta file
+            meta.put("root", dirPath);
+            meta.put("createdAt", LocalDate.now().toString());
+            meta.put("folders", String.valueOf(folderCount));
+            meta.put("totalFiles", String.valueOf(totalFileCount));
+            meta.put("codeFiles", String.valueOf(codeCount));
+            meta.put("docFiles", String.valueOf(docCount));
+            meta.put("otherFiles", String.valueOf(otherCount));
+
+            long codeLines;
+            long docLines;
+            if (analysisResult != null) {
+                codeLines = analysisResult.getTotalCodeLines();
+                docLines = analysisResult.getTotalDocLines();
+                meta.put("totalMethods", String.valueOf(analysisResult.getTotalMethods()));
+            } else {
+                codeLines = out.lines(ScanPathStore.CODE);
+                docLines = out.lines(ScanPathStore.DOC);
             }
-            for (String p : docFiles) {
-                try {
-                    docLines += countLines(new File(p));
-                } catch (Exception e) {
-                    logger.debug("Failed to count lines for doc file {}: {}", p, e.getMessage());
-                }
+            meta.put("totalCodeLines", String.valueOf(codeLines));
+            meta.put("totalDocLines", String.valueOf(docLines));
+            meta.put("totalLines", String.valueOf(codeLines + docLines));
+            writeKeyValue(out.folder().resolve("summary.txt"), meta);
+            outFolder = commitRun(rootFolder, out::commitTo);
+        } catch (IOException | RuntimeException e) {
+            out.abort();
+            throw e;
+        }
+
+        if (partition == null) recordRun(dirPath, outFolder, meta, analysisResult);
+
+        long writeElapsed = System.currentTimeMillis() - walkStart;
+        logger.info("Saved analysis results to {} (files={}, elapsedMs={})", outFolder.toString(), totalFileCount, writeElapsed);
+        return outFolder;
+    }
+
+    private interface RunCommit {
+        void to(Path target) throws IOException;
+    }
+
+    /**
+     * Move a finished run into a new date folder with alpha suffix under {@code rootFolder}, retrying if a
+     * concurrent run of the same root claimed the name first.
+     */
+    private Path commitRun(Path rootFolder, RunCommit commit) throws IOException {
+        String datePrefix = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy_MM_dd"));
+        int attempts = 0;
+        while (true) {
+            String alpha = nextAlphaSuffix(rootFolder, datePrefix); // now always returns a non-empty alpha (e.g., 'a')
+            Path outFolder = rootFolder.resolve(datePrefix + "_" + alpha);
+            try {
+                commit.to(outFolder);
+                return outFolder;
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                if (++attempts >= 5) throw e;
             }
         }
+    }
 
-        meta.put("totalCodeLines", String.valueOf(codeLines));
-        meta.put("totalDocLines", String.valueOf(docLines));
-        meta.put("totalLines", String.valueOf(codeLines + docLines));
-        writeKeyValue(outFolder.resolve("summary.txt"), meta);
+    /**
+     * Make a saved run the root's latest: merge its summary into the persistent summary and add its history row.
+     */
+    private void recordRun(String dirPath, Path outFolder, Map<String, String> meta, AnalysisResult analysisResult) throws IOException {
+        Path persistentSummary = getPersistentSummaryPath(dirPath);
+        Path rootFolder = persistentSummary.getParent();
 
         // Update persistent summary in the application folder
         try {
@@ -334,18 +552,36 @@ public class FileAnalysisService {
             logger.warn("Failed to update persistent summary file: {}", e.getMessage());
         }
 
-        long writeElapsed = System.currentTimeMillis() - writeStart;
-        logger.info("Saved analysis results to {} (files={}, elapsedMs={})", outFolder.toString(), allFiles.size(), writeElapsed);
-        return outFolder;
+        // one history row per completed run: the analysis totals when there was an analysis, otherwise the walk counts
+        AnalysisResult historyRow = new AnalysisResult();
+        historyRow.setPath(dirPath);
+        historyRow.setResultsPath(outFolder.toString());
+        if (analysisResult != null) {
+            historyRow.setTotalFolders(analysisResult.getTotalFolders());
+            historyRow.setTotalFiles(analysisResult.getTotalFiles());
+            historyRow.setTotalCodeFiles(analysisResult.getTotalCodeFiles());
+            historyRow.setTotalDocFiles(analysisResult.getTotalDocFiles());
+            historyRow.setTotalOtherFiles(analysisResult.getTotalOtherFiles());
+            historyRow.setTotalMethods(analysisResult.getTotalMethods());
+        } else {
+            historyRow.setTotalFolders(parseIntSafe(meta.get("folders")));
+            historyRow.setTotalFiles(parseIntSafe(meta.get("totalFiles")));
+            historyRow.setTotalCodeFiles(parseIntSafe(meta.get("codeFiles")));
+            historyRow.setTotalDocFiles(parseIntSafe(meta.get("docFiles")));
+            historyRow.setTotalOtherFiles(parseIntSafe(meta.get("otherFiles")));
+            // not measured, unless the summary has a total (a merged run)
+            historyRow.setTotalMethods(meta.containsKey("totalMethods") ? parseIntSafe(meta.get("totalMethods")) : -1);
+        }
+        historyRow.setTotalCodeLines(parseLongSafe(meta.get("totalCodeLines")));
+        historyRow.setTotalDocLines(parseLongSafe(meta.get("totalDocLines")));
+        historyRow.setTotalLines(parseLongSafe(meta.get("totalLines")));
+        scanHistoryService.recordRun(rootFolder.getParent(), dirPath, outFolder, historyRow);
     }
 
-    private void writeList(Path p, List<String> items) throws IOException {
-        try (BufferedWriter w = Files.newBufferedWriter(p, StandardCharsets.UTF_8)) {
-            for (String s : items) {
-                w.write(s);
-                w.newLine();
-            }
-        }
+    private String resolveResultsFormat() {
+        String runtimeOverride = systemPropertyOverrides ? System.getProperty("stinger.results.format") : null;
+        String format = runtimeOverride != null && !runtimeOverride.isBlank() ? runtimeOverride : resultsFormatProperty;
+        return format == null || format.isBlank() ? "text" : format.trim().toLowerCase();
     }
 
     private void writeKeyValue(Path p, Map<String, String> map) throws IOException {
@@ -419,94 +655,122 @@ public class FileAnalysisService {
         return "a" + sb.toString();
     }
 
-    private void walkAndCollect(File directory,
-                                Set<String> visited,
-                                List<String> folders,
-                                List<String> allFiles,
-                                List<String> codeFiles,
-                                List<String> docFiles,
-                                List<String> otherFiles) {
-        // tracking time for per-directory operations (if needed)
+    /**
+     * A hidden folder under {@code rootFolder} that a run is written into before it is renamed into place. It is
+     * created with the process umask like the results folders around it; {@code Files.createTempDirectory}
+     * would make it, and so the finished run folder, owner-only.
+     */
+    private static Path createStagingFolder(Path rootFolder) throws IOException {
+        return Files.createDirectory(rootFolder.resolve(".inprogress-" + UUID.randomUUID()));
+    }
+
+    /**
+     * The file's canonical path, or its absolute path when it cannot be resolved. Metrics and hotspot rows
+     * name files this way so they line up with the path lists.
+     */
+    private static String canonicalOrAbsolute(File file) {
         try {
-            String canonical = directory.getCanonicalPath();
-            if (visited.contains(canonical)) return;
-            visited.add(canonical);
-            folders.add(canonical);
+            return file.getCanonicalPath();
         } catch (IOException e) {
-            // fallback
-            folders.add(directory.getAbsolutePath());
+            return file.getAbsolutePath();
         }
+    }
 
+    /**
+     * Directory entries ordered by name, so every walk visits the tree in the same (path) order and the lists it
+     * writes can be merge-joined across runs (see {@link RunEntries#PATH_ORDER}).
+     */
+    private static File[] listSorted(File directory) {
         File[] files = directory.listFiles();
+        if (files != null) Arrays.sort(files, (x, y) -> x.getName().compareTo(y.getName()));
+        return files;
+    }
+
+    private void walkAndCollect(File directory, String dirPath, int dirId, ScanPathStore store, StreamingResultsWriter out, boolean countLines, ScanPartition partition) {
+        File[] files = listSorted(directory);
         if (files == null) return;
 
         for (File f : files) {
             if (f.isHidden()) continue;
+            if (partition != null && !partition.includes(f.getName())) continue;
+            String natural = ScanPathStore.join(dirPath, f.getName());
+            String fcanon;
             try {
-                String fcanon = f.getCanonicalPath();
-                if (visited.contains(fcanon)) continue;
-                if (f.isDirectory()) {
-                    if (isIgnoredDirectoryName(f.getName())) {
-                        logger.debug("Skipping nested ignored directory: {}", f.getAbsolutePath());
-                        continue;
-                    }
-                    walkAndCollect(f, visited, folders, allFiles, codeFiles, docFiles, otherFiles);
-                } else {
-                    // skip files with ignored extensions (e.g. .idx .db)
-                    String _ext = getFileExtension(f.getName());
-                    if (_ext != null && IGNORED_FILE_EXTENSIONS.contains(_ext)) {
-                        logger.debug("Skipping ignored file by extension: {}", f.getAbsolutePath());
-                        continue;
-                    }
-                    // ignore certain well-known filenames (e.g. .gitignore/.gitkeep/.env.example)
-                    if (isIgnoredFileName(f.getName())) {
-                        logger.debug("Skipping ignored filename: {}", f.getAbsolutePath());
-                        continue;
-                    }
-                    visited.add(fcanon);
-                    String ext = getFileExtension(f.getName());
-                    String type = classifyFile(ext);
-                    
-                    if ("code".equals(type)) {
-                        allFiles.add(fcanon);
-                        codeFiles.add(fcanon);
-                    } else if ("document".equals(type)) {
-                        allFiles.add(fcanon);
-                        docFiles.add(fcanon);
-                    }
-                    // else: ignore completely (do not add to allFiles or otherFiles)
-                }
+                fcanon = f.getCanonicalPath();
             } catch (IOException ioe) {
-                // if canonicalization fails, still process
-                String absolute = f.getAbsolutePath();
-                if (!visited.contains(absolute)) {
-                    if (f.isDirectory()) {
-                        walkAndCollect(f, visited, folders, allFiles, codeFiles, docFiles, otherFiles);
-                    } else {
-                        // ignore .gitignore file in fallback path too
-                        visited.add(absolute);
-                        if (f.getName() != null && isIgnoredFileName(f.getName())) {
-                            logger.debug("Skipping ignored filename (fallback): {}", absolute);
-                            continue;
-                        }
-                        
-                        String ext = getFileExtension(f.getName());
-                        String type = classifyFile(ext);
-                        if ("code".equals(type)) {
-                            allFiles.add(absolute);
-                            codeFiles.add(absolute);
-                        } else if ("document".equals(type)) {
-                            allFiles.add(absolute);
-                            docFiles.add(absolute);
-                        }
-                        // else ignore
-                    }
+                // if canonicalization fails, still process using the absolute path
+                fcanon = f.getAbsolutePath();
+            }
+            // entries reached through their own parent are looked up by (parent, name); symlinked
+            // entries are looked up by their canonical location
+            boolean isNatural = fcanon.equals(natural);
+            int existing = isNatural ? store.child(dirId, f.getName()) : store.find(fcanon);
+            if (existing >= 0 && store.isCollected(existing)) continue;
+
+            if (f.isDirectory()) {
+                if (isIgnoredDirectoryName(f.getName())) {
+                    logger.debug("Skipping nested ignored directory: {}", f.getAbsolutePath());
+                    continue;
                 }
+                int id = placeEntry(store, existing, isNatural, dirId, f.getName(), fcanon);
+                collect(store, id, ScanPathStore.FOLDER, f, out, false);
+                walkAndCollect(f, fcanon, id, store, out, countLines, null);
+            } else {
+                // skip files with ignored extensions (e.g. .idx .db)
+                String ext = getFileExtension(f.getName());
+                if (ext != null && IGNORED_FILE_EXTENSIONS.contains(ext)) {
+                    logger.debug("Skipping ignored file by extension: {}", f.getAbsolutePath());
+                    continue;
+                }
+                // ignore certain well-known filenames (e.g. .gitignore/.gitkeep/.env.example)
+                if (isIgnoredFileName(f.getName())) {
+                    logger.debug("Skipping ignored filename: {}", f.getAbsolutePath());
+                    continue;
+                }
+                String type = classifyFile(ext);
+                if ("code".equals(type)) {
+                    collect(store, placeEntry(store, existing, isNatural, dirId, f.getName(), fcanon), ScanPathStore.CODE, f, out, countLines);
+                } else if ("document".equals(type)) {
+                    collect(store, placeEntry(store, existing, isNatural, dirId, f.getName(), fcanon), ScanPathStore.DOC, f, out, countLines);
+                }
+                // else: ignore completely (do not add to allFiles or otherFiles)
             }
         }
     }
 
+    private void collect(ScanPathStore store, int id, int category, File f, StreamingResultsWriter out, boolean countLines) {
+        store.mark(id, category);
+        long size = category == ScanPathStore.FOLDER ? 0L : f.length();
+        long lines = -1L;
+        if (countLines) {
+            try {
+                lines = countLines(f);
+            } catch (Exception e) {
+                logger.debug("Failed to count lines for {}: {}", f.getAbsolutePath(), e.getMessage());
+            }
+        }
+        out.accept(category, store.path(id), size, lines);
+    }
+
+    private int placeEntry(ScanPathStore store, int existing, boolean isNatural, int dirId, String name, String canonical) {
+        if (existing >= 0) return existing;
+        return isNatural ? store.add(dirId, name) : store.resolve(canonical);
+    }
+
     public AnalysisResult analyzeDirectory(String dirPath) throws IOException {
+        return analyze(dirPath, null);
+    }
+
+    /**
+     * One node's share of a multi-node scan: analyzes the root's top-level entries in partition {@code part}
+     * of {@code parts} (see {@link ScanPartition}) and saves a partial run for {@link #mergePartials}. The
+     * result's totals cover the partition only.
+     */
+    public AnalysisResult analyzePartition(String dirPath, int part, int parts) throws IOException {
+        return analyze(dirPath, new ScanPartition(part, parts));
+    }
+
+    private AnalysisResult analyze(String dirPath, ScanPartition partition) throws IOException {
         AnalysisResult result = new AnalysisResult();
         result.setPath(dirPath);
 
@@ -520,17 +784,38 @@ public class FileAnalysisService {
         long startTime = System.currentTimeMillis();
 
         // Use a visited set to prevent infinite recursion when there are symlink loops
-        Set<String> visited = new HashSet<>();
-        analyzeRecursively(path.toFile(), result, visited);
+        SpillableStringSet visited = openVisited();
+        FileMetricsWriter metrics = openFileMetrics(dirPath);
+        HotspotTracker hotspots = new HotspotTracker(hotspotCount);
+        ReadScheduler reads = openReads(dirPath);
+        MemoryThrottle throttle = new MemoryThrottle(memoryPressure, reads, visited, maxPauseMs);
+        int rootFiles;
+        boolean walked = false;
+        try {
+            rootFiles = analyzeRecursively(path.toFile(), result, visited, metrics, hotspots, reads, throttle, partition);
+            awaitReads(reads, dirPath);
+            walked = true;
+        } finally {
+            // a failed walk saves nothing, so its temporary metrics file goes now
+            if (walked) closeFileMetrics(metrics);
+            else discardFileMetrics(metrics);
+            visited.close();
+            result.setThrottle(finishThrottle(throttle, dirPath));
+        }
+        result.setHotspots(hotspots.toResult());
 
         // Save results automatically into code_counter_results/<last-folder>/YYYY_MM_DD_alpha
         try {
-            Path saved = saveAnalysisResults(dirPath, result);
+            Path saved = saveResults(dirPath, result, partition, metrics == null ? null : metrics.file());
+            attachFileMetrics(metrics, saved);
+            writeRollups(dirPath, saved);
+            writeHotspots(hotspots, saved);
+            if (partition != null) partition.writeManifest(saved, dirPath, path.toFile().getAbsolutePath(), rootFiles);
             logger.info("Auto-saved analysis results to {}", saved);
             // expose saved path in result for callers
             result.setResultsPath(saved.toString());
-            // optional post-save step (no-op when disabled)
-            h2StorageService.onCodeCounterResultsSaved(saved);
+            // optional post-save step (no-op when disabled); a partial run is stored once merged
+            if (partition == null) h2StorageService.onCodeCounterResultsSaved(saved);
             // attempt to read the auto-saved summary and copy computed line totals back into the AnalysisResult
             Path summary = saved.resolve("summary.txt");
             if (Files.exists(summary)) {
@@ -554,6 +839,8 @@ public class FileAnalysisService {
         } catch (Exception e) {
             // include stacktrace to help diagnose saving issues when they occur outside streaming
             logger.warn("Failed to auto-save analysis results for {}: {}", dirPath, e.getMessage(), e);
+        } finally {
+            discardFileMetrics(metrics);
         }
 
             long elapsed = System.currentTimeMillis() - startTime;
@@ -564,24 +851,227 @@ public class FileAnalysisService {
     }
 
     /**
-     * Analyze directory and stream progress events to the provided SseEmitter.
-     * Emits events named "start", "directory", "file", "result", and "error".
+     * Combine the partial runs of one root (from {@link #analyzePartition}, on this node or copied from
+     * others) into a run of the whole root, with the same lists, {@code file_metrics.csv}, {@code results.bin},
+     * {@code hotspots.json} and {@code summary.txt} a single scan writes. The merged run is saved and
+     * recorded like any other run; the partials are left in place.
+     *
+     * @param partialPaths the partial run folders, one per partition
+     * @return the merged run folder
+     */
+    public Path mergePartials(List<String> partialPaths) throws IOException {
+        if (partialPaths == null || partialPaths.isEmpty()) throw new IOException("No partial results to merge");
+        List<Path> partials = new ArrayList<>();
+        for (String p : partialPaths) partials.add(Paths.get(p));
+        String dirPath = ScanPartition.readManifest(partials.get(0)).get("root");
+        long start = System.currentTimeMillis();
+
+        Path rootFolder = getPersistentSummaryPath(dirPath).getParent();
+        Files.createDirectories(rootFolder);
+        Path temp = createStagingFolder(rootFolder);
+        Map<String, String> meta;
+        Path outFolder;
+        try {
+            PartialMerger.Totals totals = PartialMerger.merge(partials, temp, hotspotCount);
+            meta = mergeSummaries(partials, totals);
+            writeKeyValue(temp.resolve("summary.txt"), meta);
+            outFolder = commitRun(rootFolder, target -> moveRun(temp, target));
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+
+        recordRun(dirPath, outFolder, meta, null);
+        writeRollups(dirPath, outFolder);
+        h2StorageService.onCodeCounterResultsSaved(outFolder);
+        logger.info("Merged {} partial runs of {} into {} (elapsedMs={})", partials.size(), dirPath, outFolder, System.currentTimeMillis() - start);
+        return outFolder;
+    }
+
+    /**
+     * The summary of a merged run: the partials' descriptive keys, with the counts taken from the merged files.
+     * Summing the partials' counts would count the root folder once per partial, and an entry reached through
+     * a symlink into another partition once per partial that reached it.
      */
-    public void analyzeDirectoryStream(String dirPath, org.springframework.web.servlet.mvc.method.annotation.SseEmitter emitter) throws IOException {
+    private Map<String, String> mergeSummaries(List<Path> partials, PartialMerger.Totals totals) throws IOException {
+        Map<String, String> meta = new LinkedHashMap<>();
+        Map<String, Long> sums = new HashMap<>();
+        for (Path partial : partials) {
+            for (Map.Entry<String, String> e : readKeyValue(partial.resolve("summary.txt")).entrySet()) {
+                if (SUMMARY_COUNTS.contains(e.getKey())) {
+                    meta.putIfAbsent(e.getKey(), "");
+                    sums.merge(e.getKey(), parseLongSafe(e.getValue()), Long::sum);
+                } else {
+                    meta.putIfAbsent(e.getKey(), e.getValue());
+                }
+            }
+        }
+        // fallbacks for a count no merged file has: the partials' sum, with the root folder counted once
+        sums.computeIfPresent("folders", (k, v) -> v - (partials.size() - 1));
+        putCount(meta, "folders", totals.folders(), sums);
+        putCount(meta, "codeFiles", totals.codeFiles(), sums);
+        putCount(meta, "docFiles", totals.docFiles(), sums);
+        putCount(meta, "otherFiles", totals.otherFiles(), sums);
+        putCount(meta, "totalFiles", totals.codeFiles() >= 0 && totals.docFiles() >= 0 ? totals.codeFiles() + totals.docFiles() : -1, sums);
+        putCount(meta, "totalMethods", totals.methods(), sums);
+        putCount(meta, "totalCodeLines", totals.codeLines(), sums);
+        putCount(meta, "totalDocLines", totals.docLines(), sums);
+        putCount(meta, "totalLines", totals.codeLines() >= 0 ? totals.codeLines() + totals.docLines() : -1, sums);
+        meta.computeIfPresent("createdAt", (k, v) -> LocalDate.now().toString());
+        return meta;
+    }
+
+    // only keys the partials' summaries have, in their order
+    private static void putCount(Map<String, String> meta, String key, long merged, Map<String, Long> sums) {
+        if (!meta.containsKey(key)) return;
+        meta.put(key, String.valueOf(merged >= 0 ? merged : sums.getOrDefault(key, 0L)));
+    }
+
+    private static void moveRun(Path folder, Path target) throws IOException {
+        if (Files.exists(target)) throw new FileAlreadyExistsException(target.toString());
+        try {
+            Files.move(folder, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(folder, target);
+        }
+    }
+
+    private static void deleteQuietly(Path folder) {
+        try (Stream<Path> s = Files.walk(folder)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        } catch (IOException e) {
+            logger.debug("Failed to clean up temporary folder {}: {}", folder, e.getMessage());
+        }
+    }
+
+    /**
+     * Quick sizing of a tree: walks the full directory structure (names and sizes only) with the same rules as
+     * {@link #analyzeDirectory}, so folder and file counts are exact, but counts lines and methods only in a
+     * random sample of files per stratum (type, extension and power-of-two size bucket). Line and method totals
+     * are extrapolated from the sample and reported with 95% confidence intervals in
+     * {@link AnalysisResult#getEstimate()}. Nothing is saved: an estimate is not a run.
+     */
+    public AnalysisResult estimateDirectory(String dirPath) throws IOException {
+        return estimateDirectory(dirPath, System.nanoTime());
+    }
+
+    public AnalysisResult estimateDirectory(String dirPath, long seed) throws IOException {
+        Path path = Paths.get(dirPath);
+        if (!Files.exists(path) || !Files.isDirectory(path)) {
+            logger.warn("estimateDirectory called with invalid path: {}", dirPath);
+            throw new IOException("Invalid directory path: " + dirPath);
+        }
+        logger.info("Starting estimate of directory: {}", dirPath);
+        long start = System.currentTimeMillis();
+        AnalysisResult result = new AnalysisResult();
+        result.setPath(dirPath);
+        StratifiedEstimator<File> sample = new StratifiedEstimator<>(estimateSamplesPerStratum, seed);
+        estimateRecursively(path.toFile(), result, new HashSet<>(), sample);
+
+        // lines, code lines, doc lines, methods
+        StratifiedEstimator.Interval[] totals = sample.estimate(4, this::measureSampledFile);
+        result.setTotalLines(Math.round(totals[0].estimate()));
+        result.setTotalCodeLines(Math.round(totals[1].estimate()));
+        result.setTotalDocLines(Math.round(totals[2].estimate()));
+        result.setTotalMethods((int) Math.min(Integer.MAX_VALUE, Math.round(totals[3].estimate())));
+
+        Estimate estimate = new Estimate();
+        estimate.setConfidenceLevel(0.95);
+        estimate.setSampledFiles(sample.sampleSize());
+        estimate.setStrata(sample.strata());
+        estimate.setUnmeasuredStrata(sample.unmeasuredStrata());
+        estimate.setUnmeasuredFiles(sample.unmeasuredPopulation());
+        if (sample.unmeasuredStrata() > 0) {
+            logger.warn("Estimate of {} leaves out {} files in {} strata where no sampled file could be read",
+                dirPath, sample.unmeasuredPopulation(), sample.unmeasuredStrata());
+        }
+        estimate.setTotalLines(range(totals[0]));
+        estimate.setTotalCodeLines(range(totals[1]));
+        estimate.setTotalDocLines(range(totals[2]));
+        estimate.setTotalMethods(range(totals[3]));
+        estimate.setElapsedMs(System.currentTimeMillis() - start);
+        result.setEstimate(estimate);
+        logger.info("Finished estimate of directory: {} — files={}, sampled={}, strata={}, lines≈{} [{}, {}] (elapsed={}ms)",
+            dirPath, result.getTotalFiles(), estimate.getSampledFiles(), estimate.getStrata(), result.getTotalLines(),
+            estimate.getTotalLines().getLow(), estimate.getTotalLines().getHigh(), estimate.getElapsedMs());
+        return result;
+    }
+
+    private static Estimate.Range range(StratifiedEstimator.Interval interval) {
+        return new Estimate.Range(Math.round(interval.estimate()), Math.round(interval.low()), Math.round(interval.high()),
+            Math.round(interval.standardError()));
+    }
+
+    // same rules and counters as analyzeRecursively, but files only go into the sample
+    private void estimateRecursively(File directory, AnalysisResult result, Set<String> visited, StratifiedEstimator<File> sample) {
+        try {
+            if (!visited.add(directory.getCanonicalPath())) return;
+        } catch (IOException e) {
+            logger.warn("Could not resolve canonical path for {}: {}", directory.getPath(), e.getMessage());
+        }
+        File[] files = listSorted(directory);
+        if (files == null) return;
+        for (File file : files) {
+            if (file.isHidden()) continue;
+            if (file.isDirectory()) {
+                result.setTotalFolders(result.getTotalFolders() + 1);
+                if (isIgnoredDirectoryName(file.getName())) continue;
+                estimateRecursively(file, result, visited, sample);
+                continue;
+            }
+            if (isIgnoredFileName(file.getName())) continue;
+            String extension = getFileExtension(file.getName());
+            if (IGNORED_FILE_EXTENSIONS.contains(extension)) continue;
+            String fileType = classifyFile(extension);
+            if ("code".equals(fileType)) {
+                result.setTotalCodeFiles(result.getTotalCodeFiles() + 1);
+            } else if ("document".equals(fileType)) {
+                result.setTotalDocFiles(result.getTotalDocFiles() + 1);
+            } else {
+                continue;
+            }
+            result.setTotalFiles(result.getTotalFiles() + 1);
+            // files of one type, extension and size class have similar line counts, which keeps each stratum's variance low
+            int sizeBucket = 64 - Long.numberOfLeadingZeros(file.length());
+            sample.offer(fileType + ":" + extension + ":" + sizeBucket, file);
+        }
+    }
+
+    private long[] measureSampledFile(File file) {
+        String extension = getFileExtension(file.getName());
+        boolean code = "code".equals(classifyFile(extension));
+        try {
+            long lines = countLines(file);
+            long methods = !code ? 0 : "java".equals(extension) ? countJavaMethods(file) : estimateMethodCount(file, extension);
+            return new long[] { lines, code ? lines : 0, code ? 0 : lines, methods };
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not measure sampled file {}: {}", file.getAbsolutePath(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Analyze with live progress. Events are only published to the scan's {@code events} session; each
+     * subscriber's own sender thread writes them to its client, so the walk neither waits for nor depends on
+     * any connection.
+     */
+    public void analyzeDirectoryStream(String dirPath, ScanSession events) throws IOException {
         Path path = Paths.get(dirPath);
         if (!Files.exists(path) || !Files.isDirectory(path)) {
             logger.warn("analyzeDirectoryStream called with invalid path: {}", dirPath);
-            try { emitter.send(org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event().name("error").data("Invalid directory path: " + dirPath)); } catch (Exception ex) {}
+            events.event("error", "Invalid directory path: " + dirPath);
             throw new IOException("Invalid directory path: " + dirPath);
         }
 
         AnalysisResult result = new AnalysisResult();
         result.setPath(dirPath);
 
-        Set<String> visited = new HashSet<>();
+        SpillableStringSet visited = openVisited();
+        MemoryThrottle throttle = new MemoryThrottle(memoryPressure, null, visited, maxPauseMs);
+        FileMetricsWriter metrics = openFileMetrics(dirPath);
+        MetadataPreScan preScan = null;
         try {
-            // send a start event — if this fails the client likely disconnected and we abort
-            safeSend(emitter, "start", "Start:" + dirPath, true);
+            publish(events, "start", "Start:" + dirPath);
 
             // Attempt to read totals from persistent summary.txt instead of computing them
             AnalysisResult totals = new AnalysisResult();
@@ -617,10 +1107,25 @@ public class FileAnalysisService {
             totalsSummary.put("totalCodeLines", totals.getTotalCodeLines());
             totalsSummary.put("totalDocLines", totals.getTotalDocLines());
             totalsSummary.put("totalMethods", totals.getTotalMethods());
-            // best-effort send totals so UI can draw progress bars with known totals
-            safeSend(emitter, "totals", totalsSummary, false);
-
-            analyzeRecursivelyStream(path.toFile(), result, visited, totals, emitter);
+            // best-effort send totals so UI can draw progress bars with known totals; later updates replace it
+            if (events != null) events.latest("totals", totalsSummary);
+
+            // folder/file/method notifications are merged into one 'progress' frame per interval
+            ProgressAggregator progress = new ProgressAggregator(result, totals, progressIntervalMs, PROGRESS_SAMPLE_SIZE,
+                events::progress);
+            // count folders, files and bytes from metadata alongside the walk so the denominators are right on a
+            // first run or after the tree has grown
+            if (preScanEnabled) {
+                preScan = startPreScan(path.toFile(), new LinkedHashMap<>(totalsSummary), events);
+                progress.usePreScan(preScan);
+            }
+            HotspotTracker hotspots = new HotspotTracker(hotspotCount);
+            analyzeRecursivelyStream(path.toFile(), result, visited, totals, progress, metrics, hotspots, throttle);
+            progress.flush();
+            result.setHotspots(hotspots.toResult());
+            result.setThrottle(finishThrottle(throttle, dirPath));
+            logger.debug("Streamed {} progress frames for {}", progress.frames(), dirPath);
+            closeFileMetrics(metrics);
 
             // send a compact summary result (avoid sending the full object for large runs)
             Map<String, Object> summary = new LinkedHashMap<>();
@@ -634,12 +1139,16 @@ public class FileAnalysisService {
             summary.put("totalCodeLines", result.getTotalCodeLines());
             summary.put("totalDocLines", result.getTotalDocLines());
             summary.put("totalMethods", result.getTotalMethods());
-            boolean sentResult = safeSend(emitter, "result", summary, false);
-            if (sentResult) logger.info("Sent result summary to client for {}", dirPath); else logger.debug("Result summary not delivered to client for {} (likely disconnected)", dirPath);
+            summary.put("hotspots", result.getHotspots());
+            summary.put("throttle", result.getThrottle());
+            publish(events, "result", summary);
 
             // Auto-save results and notify client
             try {
-                Path saved = saveAnalysisResults(dirPath, result);
+                Path saved = saveResults(dirPath, result, null, metrics == null ? null : metrics.file());
+                attachFileMetrics(metrics, saved);
+                writeRollups(dirPath, saved);
+                writeHotspots(hotspots, saved);
                 logger.info("Auto-saved analysis results to {} during stream", saved);
 
                 // optional post-save step (no-op when disabled)
@@ -676,35 +1185,312 @@ public class FileAnalysisService {
                     addLines.accept(codeList, 80);
                     addLines.accept(docList, 40);
                     addLines.accept(otherList, 20);
+                    // binary-only runs have no text lists; take the same sample from results.bin
+                    Path binFile = saved.resolve(BinaryResultsWriter.FILE_NAME);
+                    if (savedFiles.isEmpty() && Files.exists(binFile)) {
+                        BinaryResultsReader bin = BinaryResultsReader.open(binFile);
+                        int[] quota = new int[4];
+                        quota[BinaryResultsWriter.KIND_CODE] = 80;
+                        quota[BinaryResultsWriter.KIND_DOC] = 40;
+                        quota[BinaryResultsWriter.KIND_OTHER] = 20;
+                        bin.forEach((i, p) -> {
+                            byte kind = bin.kind(i);
+                            if (quota[kind] > 0 && savedFiles.size() < MAX_SAVED_FILES) {
+                                quota[kind]--;
+                                savedFiles.add(p);
+                            }
+                        });
+                    }
                     if (!savedFiles.isEmpty()) savedInfo.put("savedFiles", savedFiles);
                 } catch (Exception ex) {
                     logger.debug("Failed to prepare saved file list for client: {}", ex.getMessage());
                 }
-                boolean sentSaved = safeSend(emitter, "saved", savedInfo, false);
-                if (sentSaved) {
-                    logger.info("Notified client of saved results for {}", dirPath);
-                    // best-effort: send a final 'done' event so the client can close deterministically even
-                    // if the controller-level 'done' isn't observed (some clients may close earlier)
-                    safeSend(emitter, "done", "saved", false);
-                } else {
-                    logger.debug("Client did not receive 'saved' event for {} (likely disconnected)", dirPath);
-                }
+                publish(events, "saved", savedInfo);
+                // a final 'done' so clients can close deterministically even if the bus-level 'done' isn't observed
+                publish(events, "done", "saved");
             } catch (Exception e) {
                 // include stack trace for save problems — this is an application-level issue
                 logger.warn("Failed to auto-save analysis results for {} during stream: {}", dirPath, e.getMessage(), e);
             }
         } catch (IOException ioe) {
             logger.error("Error while streaming analysis for {}: {}", dirPath, ioe.getMessage());
-            try { emitter.send(org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event().name("error").data(ioe.getMessage())); } catch (Exception ex) {}
+            events.event("error", ioe.getMessage());
             throw ioe;
         } catch (Exception e) {
             logger.error("Unexpected error during stream analysis: {}", e.getMessage());
-            try { emitter.send(org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event().name("error").data(e.getMessage())); } catch (Exception ex) {}
+            events.event("error", e.getMessage());
             throw new IOException(e);
+        } finally {
+            if (preScan != null) preScan.cancel();
+            discardFileMetrics(metrics);
+            visited.close();
+        }
+    }
+
+    /**
+     * Start a metadata-only pre-scan of {@code root} that republishes {@code baseline} (the totals from the
+     * previous run) with its running folder/file/byte counts as a latest-wins {@code totals} event.
+     */
+    private MetadataPreScan startPreScan(File root, Map<String, Object> baseline, ScanSession events) {
+        MetadataPreScan.Rules rules = new MetadataPreScan.Rules() {
+            @Override
+            public boolean skipFile(File file) {
+                if (isIgnoredFileName(file.getName())) return true;
+                String ext = getFileExtension(file.getName());
+                return IGNORED_FILE_EXTENSIONS.contains(ext);
+            }
+
+            @Override
+            public boolean skipDirectory(File directory) {
+                return isIgnoredDirectoryName(directory.getName());
+            }
+
+            @Override
+            public String classify(File file) {
+                return classifyFile(getFileExtension(file.getName()));
+            }
+        };
+        return MetadataPreScan.start(root, rules, progressIntervalMs, scan -> {
+            if (events == null) return;
+            Map<String, Object> update = new LinkedHashMap<>(baseline);
+            boolean exact = scan.isComplete();
+            update.put("totalFolders", preScanCount(baseline.get("totalFolders"), scan.folders(), exact));
+            update.put("totalFiles", preScanCount(baseline.get("totalFiles"), scan.files(), exact));
+            update.put("totalCodeFiles", preScanCount(baseline.get("totalCodeFiles"), scan.codeFiles(), exact));
+            update.put("totalDocFiles", preScanCount(baseline.get("totalDocFiles"), scan.docFiles(), exact));
+            update.put("totalOtherFiles", preScanCount(baseline.get("totalOtherFiles"), scan.otherFiles(), exact));
+            update.put("totalBytes", scan.bytes());
+            update.put("preScanComplete", exact);
+            events.latest("totals", update);
+        });
+    }
+
+    // a partial count only ever raises the previous run's total; a complete one replaces it
+    private static long preScanCount(Object previous, long counted, boolean exact) {
+        long prev = previous instanceof Number n ? n.longValue() : 0L;
+        return exact ? counted : Math.max(prev, counted);
+    }
+
+    /**
+     * Open the per-file metrics output for a run. Rows are sorted by path and only written when the writer
+     * is closed; until then they are held in memory, spilling sorted runs next to the output once
+     * {@code stinger.results.sort-buffer-mb} is used. The dated results folder is only chosen once the scan
+     * has finished, so the file is written to a temporary path and moved into the run folder by
+     * {@link #attachFileMetrics}. It lives in the system temp directory rather than the results folder, which
+     * may sit inside the tree being scanned.
+     */
+    private FileMetricsWriter openFileMetrics(String dirPath) {
+        try {
+            return FileMetricsWriter.open(Files.createTempFile("stinger-file_metrics-", ".csv.part"), sortBudgetBytes);
+        } catch (IOException e) {
+            logger.warn("Could not open file metrics output for {}: {}", dirPath, e.getMessage());
+            return null;
+        }
+    }
+
+    private void closeFileMetrics(FileMetricsWriter metrics) {
+        if (metrics == null) return;
+        try {
+            metrics.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close file metrics {}: {}", metrics.file(), e.getMessage());
+        }
+    }
+
+    private void attachFileMetrics(FileMetricsWriter metrics, Path saved) {
+        if (metrics == null) return;
+        closeFileMetrics(metrics);
+        try {
+            Path target = saved.resolve(FileMetricsWriter.FILE_NAME);
+            Files.move(metrics.file(), target, StandardCopyOption.REPLACE_EXISTING);
+            // the temp file was created owner-only; give it the mode the other results files were written with
+            Path summary = saved.resolve("summary.txt");
+            if (Files.exists(summary) && Files.getFileAttributeView(target, PosixFileAttributeView.class) != null) {
+                Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(summary));
+            }
+            logger.debug("Saved {} file metrics rows to {}", metrics.rows(), saved);
+        } catch (IOException e) {
+            logger.warn("Failed to move file metrics {} into {}: {}", metrics.file(), saved, e.getMessage());
+        }
+    }
+
+    /**
+     * Build the per-folder rollup index of a saved run from its lists and {@code file_metrics.csv}. Losing the
+     * index only costs subtree queries, so a failure is logged and the run stays as saved.
+     */
+    private void writeRollups(String dirPath, Path saved) {
+        long start = System.currentTimeMillis();
+        try {
+            RollupIndexWriter rollups = RollupIndexWriter.build(saved, ScanHistoryService.normalizeRoot(dirPath), new File(dirPath).getAbsolutePath());
+            logger.debug("Wrote rollups for {} folders to {} in {}ms", rollups.size(), saved, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write rollup index into {}: {}", saved, e.getMessage());
+        }
+    }
+
+    /**
+     * File reads for one analysis, issued in the configured order (walk or inode-sorted batches). The
+     * concurrent read stage has its own controller, so roots on different devices (an NVMe workspace, an NFS
+     * archive) each settle at their own level; there is none (reads run on the walker) when the configured
+     * maximum is 1.
+     */
+    private ReadScheduler openReads(String dirPath) {
+        AdaptiveReadStage stage = null;
+        if (readConcurrencyMax > 1) {
+            AdaptiveConcurrency controller = new AdaptiveConcurrency(readConcurrencyMin, readConcurrencyMax,
+                readConcurrencyInitial, readLatencyTolerance);
+            synchronized (readControllers) {
+                readControllers.put(ScanHistoryService.normalizeRoot(dirPath), controller);
+            }
+            stage = new AdaptiveReadStage(readPool, controller);
+        }
+        return new ReadScheduler(stage, readOrder, readBatchSize);
+    }
+
+    private void awaitReads(ReadScheduler reads, String dirPath) {
+        try {
+            reads.drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for file reads of {}", dirPath);
+        }
+        if (reads.order() == ReadScheduler.Order.INODE) {
+            logger.info("Read {} in {} inode-sorted batches", dirPath, reads.batches());
+        }
+        AdaptiveReadStage stage = reads.stage();
+        if (stage == null) return;
+        Map<String, Object> stats = stage.controller().stats();
+        logger.info("Read concurrency for {}: limit={}, best={}, maxInFlight={}, reads={}", dirPath,
+            stats.get("limit"), stats.get("bestLimit"), stage.maxInFlight(), stats.get("reads"));
+    }
+
+    /**
+     * Read-concurrency controller state of the most recent analyses, by canonical root.
+     */
+    public Map<String, Object> readConcurrencyStats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        synchronized (readControllers) {
+            for (Map.Entry<String, AdaptiveConcurrency> e : readControllers.entrySet()) {
+                out.put(e.getKey(), e.getValue().stats());
+            }
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdownReads() {
+        readPool.shutdownNow();
+        memoryPressure.close();
+    }
+
+    // visited sets spill next to other JVM temp files
+    private static SpillableStringSet openVisited() {
+        return new SpillableStringSet(Path.of(System.getProperty("java.io.tmpdir"), "stinger-spill"));
+    }
+
+    private ThrottleEvents finishThrottle(MemoryThrottle throttle, String dirPath) {
+        ThrottleEvents events = throttle.finish();
+        if (events.getShrinks() + events.getSpills() + events.getPauses() > 0) {
+            logger.info("Memory throttling during scan of {}: shrinks={}, spills={} ({} entries), pauses={} ({}ms), peak heap {}%",
+                dirPath, events.getShrinks(), events.getSpills(), events.getSpilledEntries(), events.getPauses(),
+                events.getPausedMs(), events.getPeakHeapPercent());
         }
+        return events;
     }
 
-    private void analyzeRecursivelyStream(File directory, AnalysisResult result, Set<String> visited, AnalysisResult totals, org.springframework.web.servlet.mvc.method.annotation.SseEmitter emitter) throws IOException {
+    /**
+     * Heap occupancy and throttle level shared by every scan.
+     */
+    public Map<String, Object> memoryPressureStats() {
+        return memoryPressure.stats();
+    }
+
+    private void writeHotspots(HotspotTracker hotspots, Path saved) {
+        try {
+            hotspots.writeTo(saved.resolve(HotspotTracker.FILE_NAME));
+        } catch (IOException e) {
+            logger.warn("Failed to write hotspots into {}: {}", saved, e.getMessage());
+        }
+    }
+
+    /**
+     * Latest saved run folder of {@code dirPath} (by date, then alpha suffix), or null when it has none.
+     */
+    public Path latestRunFolder(String dirPath) throws IOException {
+        Path rootFolder = getPersistentSummaryPath(dirPath).getParent();
+        if (!Files.isDirectory(rootFolder)) return null;
+        try (Stream<Path> runs = Files.list(rootFolder)) {
+            return runs.filter(Files::isDirectory)
+                .filter(p -> RUN_FOLDER.matcher(p.getFileName().toString()).matches())
+                .max(Comparator.comparing((Path p) -> p.getFileName().toString().substring(0, 10))
+                    .thenComparingInt(p -> p.getFileName().toString().length())
+                    .thenComparing(p -> p.getFileName().toString()))
+                .orElse(null);
+        }
+    }
+
+    /**
+     * Rollup index of a saved run ({@code run} null for the latest), or null when the root has no runs.
+     * Runs saved before the index existed get it built on first use. Indexes are memory-mapped and cached,
+     * since a committed run folder never changes.
+     */
+    public RollupIndex rollupIndex(String dirPath, String run) throws IOException {
+        return rollupIndex(dirPath, run, true);
+    }
+
+    /**
+     * Rollups of the latest run of the nearest scanned root at or above {@code dir}, or null when none covers
+     * it. Only runs that already have an index are used, so listing a folder never triggers a build.
+     */
+    private RollupIndex coveringRollups(File dir) {
+        try {
+            // browsing must not create the results directory
+            Path resultsRoot = resultsRootPath();
+            if (!Files.isDirectory(resultsRoot)) return null;
+            for (File root = dir.getCanonicalFile(); root != null; root = root.getParentFile()) {
+                // results are filed under the root's last path segment, so most ancestors are ruled out by one stat
+                String lastName = root.getName().isEmpty() ? root.getPath() : root.getName();
+                if (!Files.isDirectory(resultsRoot.resolve(sanitizePathForFolder(lastName)))) continue;
+                RollupIndex index = rollupIndex(root.getPath(), null, false);
+                if (index != null && index.root().equals(root.getPath())) return index;
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("No rollups for {}: {}", dir, e.getMessage());
+        }
+        return null;
+    }
+
+    private RollupIndex rollupIndex(String dirPath, String run, boolean build) throws IOException {
+        Path folder = run == null || run.isBlank() ? latestRunFolder(dirPath) : resolveRunFolder(dirPath, run);
+        if (folder == null) return null;
+        synchronized (rollupCache) {
+            RollupIndex cached = rollupCache.get(folder);
+            if (cached != null) return cached;
+        }
+        Path file = folder.resolve(RollupIndexWriter.FILE_NAME);
+        if (!Files.exists(file)) {
+            if (!build) return null;
+            logger.info("No rollup index in {}; building it from the saved lists", folder);
+            RollupIndexWriter.build(folder, ScanHistoryService.normalizeRoot(dirPath), new File(dirPath).getAbsolutePath());
+        }
+        RollupIndex index = RollupIndex.open(file);
+        synchronized (rollupCache) {
+            rollupCache.put(folder, index);
+        }
+        return index;
+    }
+
+    private void discardFileMetrics(FileMetricsWriter metrics) {
+        if (metrics == null) return;
+        closeFileMetrics(metrics);
+        try {
+            Files.deleteIfExists(metrics.file());
+        } catch (IOException e) {
+            logger.debug("Failed to delete temporary file metrics {}: {}", metrics.file(), e.getMessage());
+        }
+    }
+
+    private void analyzeRecursivelyStream(File directory, AnalysisResult result, SpillableStringSet visited, AnalysisResult totals, ProgressAggregator progress, FileMetricsWriter metrics, HotspotTracker hotspots, MemoryThrottle throttle) throws IOException {
         long dirStart = System.currentTimeMillis();
         try {
             String realPath = directory.getCanonicalPath();
@@ -718,11 +1504,14 @@ public class FileAnalysisService {
             logger.warn("Could not resolve canonical path for {}: {}", directory.getPath(), e.getMessage());
         }
 
-        File[] files = directory.listFiles();
+        File[] files = listSorted(directory);
         if (files == null) return;
 
+        // analyzed files directly in this folder, for the busiest-folders list
+        int directFiles = 0;
         for (File file : files) {
             if (file.isHidden()) continue;
+            throttle.admit();
             // skip any known-named files (e.g. .gitignore/.gitkeep/.env.example)
             if (file.isFile() && isIgnoredFileName(file.getName())) {
                 logger.debug("Skipping ignored filename during streaming: {}", file.getAbsolutePath());
@@ -738,20 +1527,15 @@ public class FileAnalysisService {
                     totals.setTotalFolders(result.getTotalFolders());
                 }
 
-                // send directory notification to client — abort if client disconnected during control events
-                safeSend(emitter, "directory", file.getAbsolutePath(), true);
-                // send folder progress (processed / total)
-                Map<String,Object> folderProg = new LinkedHashMap<>();
-                folderProg.put("processedFolders", result.getTotalFolders());
-                folderProg.put("totalFolders", totals.getTotalFolders());
-                if (totals.getTotalFolders() > 0) folderProg.put("percent", (int)((result.getTotalFolders()*100L)/totals.getTotalFolders())); else folderProg.put("percent", 0);
-                safeSend(emitter, "folderProgress", folderProg, false);
+                // record the folder for the next progress frame
+                progress.folder(file.getAbsolutePath());
+                progress.tick();
                 // skip descending into any 'target' directories - they are usually build outputs
                 if (file.isDirectory() && isIgnoredDirectoryName(file.getName())) {
                     logger.debug("Skipping ignored subdir during streaming analysis: {}", file.getAbsolutePath());
                     continue;
                 }
-                analyzeRecursivelyStream(file, result, visited, totals, emitter);
+                analyzeRecursivelyStream(file, result, visited, totals, progress, metrics, hotspots, throttle);
             } else {
                 // skip files with ignored extensions (e.g. .idx, .db)
                 String fileExt = getFileExtension(file.getName());
@@ -770,10 +1554,12 @@ public class FileAnalysisService {
                     if (result.getTotalFiles() > totals.getTotalFiles()) totals.setTotalFiles(result.getTotalFiles());
                     if (result.getTotalCodeFiles() > totals.getTotalCodeFiles()) totals.setTotalCodeFiles(result.getTotalCodeFiles());
 
-                    // send file event; abort if sender cannot accept (client disconnected)
-                    safeSend(emitter, "file", file.getAbsolutePath(), true);
-                    // analyze and stream per-file stats and progress
-                    analyzeCodeFile(file, extension, result, emitter, totals);
+                    progress.codeFile(file.getAbsolutePath());
+                    progress.addBytes(file.length());
+                    // analyze; counters land in result/totals and are picked up by the next frame
+                    analyzeCodeFile(file, canonicalOrAbsolute(file), extension, result, progress, totals, metrics, hotspots);
+                    directFiles++;
+                    progress.tick();
                 } else if ("document".equals(fileType)) {
                     result.setTotalFiles(result.getTotalFiles() + 1);
                     result.setTotalDocFiles(result.getTotalDocFiles() + 1);
@@ -782,8 +1568,10 @@ public class FileAnalysisService {
                     if (result.getTotalFiles() > totals.getTotalFiles()) totals.setTotalFiles(result.getTotalFiles());
                     if (result.getTotalDocFiles() > totals.getTotalDocFiles()) totals.setTotalDocFiles(result.getTotalDocFiles());
 
+                    long docStart = System.currentTimeMillis();
+                    long docLines = -1L;
                     try {
-                        long docLines = countLines(file);
+                        docLines = countLines(file);
                         result.setTotalDocLines(result.getTotalDocLines() + docLines);
                         result.setTotalLines(result.getTotalLines() + docLines);
                         
@@ -793,31 +1581,19 @@ public class FileAnalysisService {
                     } catch (IOException ioe) {
                         logger.debug("Failed to count lines for document {}: {}", file.getAbsolutePath(), ioe.getMessage());
                     }
-                    // documents: notify client (abort on failure)
-                    safeSend(emitter, "file", file.getAbsolutePath(), true);
-                    // send per-file stats for documents (lines and processed counts)
-                    Map<String,Object> docStats = new LinkedHashMap<>();
-                    docStats.put("path", file.getAbsolutePath());
-                    docStats.put("type", "document");
-                    // doc lines is accumulated in result.getTotalDocLines() — send this file's lines instead
-                    try {
-                        long docLines = countLines(file);
-                        docStats.put("lines", docLines);
-                    } catch (IOException ioe) {
-                        docStats.put("lines", 0);
-                    }
-                    docStats.put("processedDocFiles", result.getTotalDocFiles());
-                    docStats.put("totalDocFiles", totals.getTotalDocFiles());
-                    if (totals.getTotalDocFiles() > 0) docStats.put("percentDocFiles", (int)((result.getTotalDocFiles()*100L)/totals.getTotalDocFiles())); else docStats.put("percentDocFiles", 0);
-                    // include doc-line running totals so the client can render processed/total counters live
-                    docStats.put("processedDocLines", result.getTotalDocLines());
-                    docStats.put("totalDocLines", totals.getTotalDocLines());
-                    if (totals.getTotalDocLines() > 0) docStats.put("percentDocLines", (int)((result.getTotalDocLines()*100L)/totals.getTotalDocLines())); else docStats.put("percentDocLines", 0);
-                    safeSend(emitter, "file-stats", docStats, false);
+                    long docElapsed = System.currentTimeMillis() - docStart;
+                    String docPath = canonicalOrAbsolute(file);
+                    if (metrics != null) metrics.write(docPath, "document", extension, file.length(), docLines, 0, docElapsed);
+                    hotspots.file(docPath, docLines, 0, docElapsed);
+                    directFiles++;
+                    progress.docFile(file.getAbsolutePath());
+                    progress.addBytes(file.length());
+                    progress.tick();
                 }
                 // else ignore (do not increment totalFiles)
             }
         }
+        hotspots.folder(directory.getAbsolutePath(), directFiles);
         long dirElapsed = System.currentTimeMillis() - dirStart;
         if (dirElapsed > 2000) {
             logger.info("Long streaming processing for directory {} ({}ms) — consider profiling large dirs", directory.getAbsolutePath(), dirElapsed);
@@ -826,13 +1602,18 @@ public class FileAnalysisService {
         }
     }
 
-    private void analyzeRecursively(File directory, AnalysisResult result, Set<String> visited) {
+    /**
+     * @param partition the slice of {@code directory}'s entries to analyze, or null for all of them; only
+     *                  ever set for the root of a partial scan
+     * @return analyzed files directly in {@code directory}
+     */
+    private int analyzeRecursively(File directory, AnalysisResult result, SpillableStringSet visited, FileMetricsWriter metrics, HotspotTracker hotspots, ReadScheduler reads, MemoryThrottle throttle, ScanPartition partition) {
         long dirStart = System.currentTimeMillis();
         try {
             String realPath = directory.getCanonicalPath();
             if (visited.contains(realPath)) {
                 logger.debug("Skipping already visited directory (cycle detected): {}", realPath);
-                return;
+                return 0;
             }
             visited.add(realPath);
             logger.debug("Analyzing directory: {}", realPath);
@@ -840,22 +1621,23 @@ public class FileAnalysisService {
             logger.warn("Could not resolve canonical path for {}: {}", directory.getPath(), e.getMessage());
         }
 
-        File[] files = directory.listFiles();
-        if (files == null) return;
-        
+        File[] files = listSorted(directory);
+        if (files == null) return 0;
+
+        // analyzed files directly in this folder, for the busiest-folders list
+        int directFiles = 0;
         for (File file : files) {
             if (file.isHidden()) continue;
-            
-            try {
-                String filePath = file.getCanonicalPath();
-                // Skip files already counted (protect against hardlinks / symlinks pointing to same file)
-                if (visited.contains(filePath)) {
-                    logger.trace("Skipping already visited file/dir (duplicate): {}", filePath);
-                    continue;
-                }
-            } catch (IOException e) {
-                // if canonicalization fails, fall back to absolute path check
-                logger.debug("Failed to get canonical path for {}: {}", file.getPath(), e.getMessage());
+            if (partition != null && !partition.includes(file.getName())) continue;
+            throttle.admit();
+
+            // metrics and hotspot rows name files by this path, as the path lists do, so a file reached
+            // through a symlink in one partition and directly in another merges into one row
+            String filePath = canonicalOrAbsolute(file);
+            // Skip files already counted (protect against hardlinks / symlinks pointing to same file)
+            if (visited.contains(filePath)) {
+                logger.trace("Skipping already visited file/dir (duplicate): {}", filePath);
+                continue;
             }
 
             if (file.isDirectory()) {
@@ -873,7 +1655,7 @@ public class FileAnalysisService {
                         logger.debug("Skipping nested 'target' directory during analysis: {}", file.getAbsolutePath());
                         continue;
                     }
-                    analyzeRecursively(file, result, visited);
+                    analyzeRecursively(file, result, visited, metrics, hotspots, reads, throttle, null);
                 } catch (StackOverflowError so) {
                     logger.error("Stack overflow while recursing into directory {} — possible cycle", file.getAbsolutePath());
                 }
@@ -896,45 +1678,61 @@ public class FileAnalysisService {
                     result.setTotalFiles(result.getTotalFiles() + 1);
                     result.setTotalCodeFiles(result.getTotalCodeFiles() + 1);
                     logger.trace("Analyzing code file: {} (ext={})", file.getAbsolutePath(), extension);
-                    analyzeCodeFile(file, extension, result);
+                    reads.submit(file, () -> analyzeCodeFile(file, filePath, extension, result, metrics, hotspots));
+                    directFiles++;
                 } else if ("document".equals(fileType)) {
                     result.setTotalFiles(result.getTotalFiles() + 1);
                     result.setTotalDocFiles(result.getTotalDocFiles() + 1);
-                    try {
-                        long lines = countLines(file);
-                        result.setTotalDocLines(result.getTotalDocLines() + lines);
-                        result.setTotalLines(result.getTotalLines() + lines);
-                    } catch (Exception e) {
-                        logger.debug("Failed to count lines for doc file {}: {}", file.getAbsolutePath(), e.getMessage());
-                    }
+                    reads.submit(file, () -> {
+                        long docStart = System.currentTimeMillis();
+                        try {
+                            long lines = countLines(file);
+                            synchronized (result) {
+                                result.setTotalDocLines(result.getTotalDocLines() + lines);
+                                result.setTotalLines(result.getTotalLines() + lines);
+                            }
+                            long docElapsed = System.currentTimeMillis() - docStart;
+                            if (metrics != null) metrics.write(filePath, "document", extension, file.length(), lines, 0, docElapsed);
+                            hotspots.file(filePath, lines, 0, docElapsed);
+                        } catch (Exception e) {
+                            logger.debug("Failed to count lines for doc file {}: {}", file.getAbsolutePath(), e.getMessage());
+                        }
+                    });
+                    directFiles++;
                 }
                 // else ignore (do not increment totalFiles)
             }
         }
+        hotspots.folder(directory.getAbsolutePath(), directFiles);
         long dirElapsed = System.currentTimeMillis() - dirStart;
         if (dirElapsed > 2000) {
             logger.info("Long analysis for directory {} took {}ms — files/folders: files={}, folders={}", directory.getAbsolutePath(), dirElapsed, result.getTotalFiles(), result.getTotalFolders());
         } else {
             logger.trace("Analyzed directory {} in {}ms", directory.getAbsolutePath(), dirElapsed);
         }
+        return directFiles;
     }
 
-    private void analyzeCodeFile(File file, String extension, AnalysisResult result) {
+    private void analyzeCodeFile(File file, String path, String extension, AnalysisResult result, FileMetricsWriter metrics, HotspotTracker hotspots) {
         long fileStart = System.currentTimeMillis();
         try {
             long lineCount = countLines(file);
-            // track code-specific and total line counts
-            result.setTotalCodeLines(result.getTotalCodeLines() + lineCount);
-            result.setTotalLines(result.getTotalLines() + lineCount);
-            
+            int methodCount;
             if ("java".equals(extension)) {
-                int methodCount = countJavaMethods(file);
-                result.setTotalMethods(result.getTotalMethods() + methodCount);
+                methodCount = countJavaMethods(file);
             } else {
-                int methodCount = estimateMethodCount(file, extension);
+                methodCount = estimateMethodCount(file, extension);
+            }
+            // reads may run concurrently (see AdaptiveReadStage); the walker only touches the file/folder counts
+            synchronized (result) {
+                // track code-specific and total line counts
+                result.setTotalCodeLines(result.getTotalCodeLines() + lineCount);
+                result.setTotalLines(result.getTotalLines() + lineCount);
                 result.setTotalMethods(result.getTotalMethods() + methodCount);
             }
             long fileElapsed = System.currentTimeMillis() - fileStart;
+            if (metrics != null) metrics.write(path, "code", extension, file.length(), lineCount, methodCount, fileElapsed);
+            hotspots.file(path, lineCount, methodCount, fileElapsed);
             if (fileElapsed > 500) {
                 logger.info("Slow analyzeCodeFile for {} ({}ms) — lines={}, ext={}", file.getAbsolutePath(), fileElapsed, lineCount, extension);
             } else {
@@ -951,7 +1749,7 @@ public class FileAnalysisService {
     /**
      * Streaming-aware analyzeCodeFile overload: updates result and emits per-file stats and progress events
      */
-    private void analyzeCodeFile(File file, String extension, AnalysisResult result, org.springframework.web.servlet.mvc.method.annotation.SseEmitter emitter, AnalysisResult totals) {
+    private void analyzeCodeFile(File file, String path, String extension, AnalysisResult result, ProgressAggregator progress, AnalysisResult totals, FileMetricsWriter metrics, HotspotTracker hotspots) {
         long fileStart = System.currentTimeMillis();
         try {
             long lineCount = countLines(file);
@@ -967,8 +1765,7 @@ public class FileAnalysisService {
             if ("java".equals(extension)) {
                 // For Java we can stream individual method names as we discover them
                 try {
-                    JavaParser parser = new JavaParser();
-                    CompilationUnit cu = parser.parse(file).getResult().orElse(null);
+                    CompilationUnit cu = JAVA_PARSER.get().parse(file).getResult().orElse(null);
                     if (cu != null) {
                         List<MethodDeclaration> methods = cu.findAll(MethodDeclaration.class);
                         methodCount = methods.size();
@@ -979,13 +1776,7 @@ public class FileAnalysisService {
                             // Update totals if we've exceeded the initial estimate
                             if (result.getTotalMethods() > totals.getTotalMethods()) totals.setTotalMethods(result.getTotalMethods());
 
-                            safeSend(emitter, "method", md.getNameAsString(), false);
-                            // also send a small method progress update
-                            Map<String,Object> mprog = new LinkedHashMap<>();
-                            mprog.put("processedMethods", result.getTotalMethods());
-                            mprog.put("totalMethods", totals.getTotalMethods());
-                            if (totals.getTotalMethods() > 0) mprog.put("percentMethods", (int)((result.getTotalMethods()*100L)/totals.getTotalMethods())); else mprog.put("percentMethods", 0);
-                            safeSend(emitter, "methodProgress", mprog, false);
+                            progress.method(md.getNameAsString());
                         }
                     } else {
                         methodCount = 0;
@@ -1002,43 +1793,9 @@ public class FileAnalysisService {
                 if (result.getTotalMethods() > totals.getTotalMethods()) totals.setTotalMethods(result.getTotalMethods());
             }
 
-            // emit file-level stats for the client UI to show lines and methods for this file
-            Map<String,Object> fileStats = new LinkedHashMap<>();
-            fileStats.put("path", file.getAbsolutePath());
-            fileStats.put("type", "code");
-            fileStats.put("ext", extension);
-            fileStats.put("lines", lineCount);
-            fileStats.put("methods", methodCount);
-            fileStats.put("processedCodeFiles", result.getTotalCodeFiles());
-            fileStats.put("totalCodeFiles", totals.getTotalCodeFiles());
-            if (totals.getTotalCodeFiles() > 0) fileStats.put("percentCodeFiles", (int)((result.getTotalCodeFiles()*100L)/totals.getTotalCodeFiles())); else fileStats.put("percentCodeFiles", 0);
-            if (totals.getTotalCodeLines() > 0) fileStats.put("percentCodeLines", (int)((result.getTotalCodeLines()*100L)/totals.getTotalCodeLines())); else fileStats.put("percentCodeLines", 0);
-            fileStats.put("processedMethods", result.getTotalMethods());
-            fileStats.put("totalMethods", totals.getTotalMethods());
-            if (totals.getTotalMethods() > 0) fileStats.put("percentMethods", (int)((result.getTotalMethods()*100L)/totals.getTotalMethods())); else fileStats.put("percentMethods", 0);
-
-            safeSend(emitter, "file-stats", fileStats, false);
-
-            // emit an overall 'progress' summary to let the UI update multiple bars in one go
-            Map<String,Object> progress = new LinkedHashMap<>();
-            progress.put("processedCodeFiles", result.getTotalCodeFiles());
-            progress.put("totalCodeFiles", totals.getTotalCodeFiles());
-            progress.put("processedCodeLines", result.getTotalCodeLines());
-            progress.put("totalCodeLines", totals.getTotalCodeLines());
-            progress.put("processedMethods", result.getTotalMethods());
-            progress.put("totalMethods", totals.getTotalMethods());
-            progress.put("processedFiles", result.getTotalFiles());
-            progress.put("totalFiles", totals.getTotalFiles());
-            progress.put("processedLines", result.getTotalLines());
-            progress.put("totalLines", totals.getTotalLines());
-            // include document counts in compact progress packet so UI can update doc bars
-            progress.put("processedDocFiles", result.getTotalDocFiles());
-            progress.put("totalDocFiles", totals.getTotalDocFiles());
-            progress.put("processedDocLines", result.getTotalDocLines());
-            progress.put("totalDocLines", totals.getTotalDocLines());
-            safeSend(emitter, "progress", progress, false);
-
             long fileElapsed = System.currentTimeMillis() - fileStart;
+            if (metrics != null) metrics.write(path, "code", extension, file.length(), lineCount, methodCount, fileElapsed);
+            hotspots.file(path, lineCount, methodCount, fileElapsed);
             if (fileElapsed > 500) {
                 logger.info("Slow analyzeCodeFile for {} ({}ms) — lines={}, ext={}", file.getAbsolutePath(), fileElapsed, lineCount, extension);
             } else {
@@ -1154,8 +1911,7 @@ public class FileAnalysisService {
 
     private int countJavaMethods(File file) {
         try {
-            JavaParser parser = new JavaParser();
-            CompilationUnit cu = parser.parse(file).getResult().orElse(null);
+            CompilationUnit cu = JAVA_PARSER.get().parse(file).getResult().orElse(null);
             if (cu != null) {
                 return cu.findAll(MethodDeclaration.class).size();
             }
@@ -1240,28 +1996,11 @@ public class FileAnalysisService {
     }
 
     /**
-     * Helper to send SSE events safely. If abortOnFailure is true, IO/IllegalState exceptions
-     * are propagated to abort the stream. If false, failures are treated as client disconnects
-     * and logged at DEBUG level so auto-save notification doesn't spam WARN when the client dropped.
+     * Helper to publish stream events; the session never blocks and has no client to fail on.
      */
-    private boolean safeSend(org.springframework.web.servlet.mvc.method.annotation.SseEmitter emitter, String eventName, Object data, boolean abortOnFailure) throws IOException {
-        if (emitter == null) return false;
-        try {
-            emitter.send(org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event().name(eventName).data(data));
-            logger.trace("SSE event '{}' sent for data={} (abortOnFailure={})", eventName, data, abortOnFailure);
-            return true;
-        } catch (IOException | IllegalStateException sendEx) {
-            // these are typically because the client disconnected — treat as debug unless requested to abort
-            logger.debug("Emitter send failure for event '{}' data='{}': {} (abort={})", eventName, data, sendEx.getMessage(), abortOnFailure);
-            if (abortOnFailure) {
-                throw sendEx instanceof IOException ? (IOException) sendEx : new IOException(sendEx);
-            }
-            return false;
-        } catch (Exception ex) {
-            // unexpected — log and optionally abort
-            logger.warn("Unexpected error sending SSE event '{}' data='{}': {}", eventName, data, ex.getMessage());
-            if (abortOnFailure) throw new IOException(ex);
-            return false;
-        }
+    private void publish(ScanSession events, String eventName, Object data) {
+        if (events == null) return;
+        events.event(eventName, data);
+        logger.trace("Stream event '{}' published for data={}", eventName, data);
     }
 }
@@ -0,0 +1,118 @@
+package com.codecounter.stinger.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.codecounter.stinger.service.stream.ProgressFrame;
+import com.codecounter.stinger.service.stream.ScanSession;
+
+/**
+ * Runs streaming scans independently of any HTTP connection and keeps them addressable by scan id.
+ * A second request for a root that is already being scanned joins the running scan instead of starting
+ * another walk, and finished scans stay available for a while so late or reconnecting subscribers can
+ * still replay their final events.
+ */
+@Service
+public class ScanEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanEventBus.class);
+
+    // finished sessions are kept this long for Last-Event-ID replay
+    private static final Duration FINISHED_RETENTION = Duration.ofMinutes(10);
+
+    private final FileAnalysisService fileAnalysisService;
+    private final ScanScheduler scanScheduler;
+
+    private final Map<String, ScanSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, ScanSession> runningByRoot = new ConcurrentHashMap<>();
+
+    public ScanEventBus(FileAnalysisService fileAnalysisService, ScanScheduler scanScheduler) {
+        this.fileAnalysisService = fileAnalysisService;
+        this.scanScheduler = scanScheduler;
+    }
+
+    /**
+     * The running scan of {@code path}, or a newly started one.
+     */
+    public ScanSession startOrJoin(String path) {
+        evictExpired();
+        String rootKey = ScanHistoryService.normalizeRoot(path);
+        ScanSession[] created = new ScanSession[1];
+        ScanSession session = runningByRoot.computeIfAbsent(rootKey, k -> {
+            ScanSession s = new ScanSession(UUID.randomUUID().toString(), path);
+            sessions.put(s.id(), s);
+            created[0] = s;
+            return s;
+        });
+        if (created[0] != null) {
+            // admitted by the shared scheduler like every other scan; subscribers see 'start' once it runs
+            scanScheduler.submit("stream", path, ScanScheduler.Priority.INTERACTIVE, () -> {
+                run(session, rootKey);
+                return null;
+            });
+        } else {
+            logger.info("Joining running scan {} for {}", session.id(), path);
+        }
+        return session;
+    }
+
+    /**
+     * A running or recently finished scan, or null.
+     */
+    public ScanSession find(String scanId) {
+        evictExpired();
+        return scanId == null ? null : sessions.get(scanId);
+    }
+
+    public List<Map<String, Object>> describe() {
+        evictExpired();
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (ScanSession s : sessions.values()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("scanId", s.id());
+            m.put("root", s.root());
+            m.put("startedAt", s.startedAt().toString());
+            m.put("finished", s.isFinished());
+            m.put("subscribers", s.subscriberCount());
+            m.put("events", s.lastSeq());
+            // throughput and time remaining from the latest progress frame
+            if (s.latestData("progress") instanceof ProgressFrame frame) {
+                Map<String, Object> f = frame.toMap();
+                for (String key : List.of("processedFiles", "totalFiles", "processedBytes", "totalBytes", "rate", "etaSeconds")) {
+                    m.put(key, f.get(key));
+                }
+            }
+            out.add(m);
+        }
+        return out;
+    }
+
+    private void run(ScanSession session, String rootKey) {
+        try {
+            session.event("start", "Starting analysis of: " + session.root());
+            fileAnalysisService.analyzeDirectoryStream(session.root(), session);
+            session.event("done", "Analysis complete");
+        } catch (Exception e) {
+            logger.error("Streaming analysis failed for {}: {}", session.root(), e.getMessage());
+            session.event("error", e.getMessage());
+        } finally {
+            runningByRoot.remove(rootKey, session);
+            session.finish();
+        }
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(FINISHED_RETENTION);
+        sessions.values().removeIf(s -> s.isFinished() && s.finishedAt() != null && s.finishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,79 @@
+package com.codecounter.stinger.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.codecounter.stinger.model.AnalysisResult;
+import com.codecounter.stinger.service.history.ScanHistoryStore;
+
+/**
+ * Keeps the scan-history table up to date and answers time-series queries from it. The database lives in
+ * {@code <results dir>/.history/} so it follows the results dir (including test overrides).
+ */
+@Service
+public class ScanHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanHistoryService.class);
+
+    static final String HISTORY_FOLDER = ".history";
+    private static final String DB_NAME = "scan_history";
+
+    private final boolean enabled;
+
+    public ScanHistoryService(@Value("${stinger.history.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Record a completed run. Never throws: losing a history row must not fail the scan.
+     */
+    public synchronized void recordRun(Path resultsRoot, String rootPath, Path savedResultsDir, AnalysisResult totals) {
+        if (!enabled) return;
+        try (ScanHistoryStore store = ScanHistoryStore.open(dbPrefix(resultsRoot))) {
+            store.ensureSchema();
+            store.record(normalizeRoot(rootPath), savedResultsDir.getFileName().toString(),
+                savedResultsDir.toAbsolutePath().normalize().toString(), Instant.now(), totals);
+        } catch (Exception e) {
+            logger.warn("Failed to record scan history for {}: {}", savedResultsDir, e.getMessage());
+        }
+    }
+
+    /**
+     * Completed runs of {@code rootPath}, oldest first; limited to the last {@code days} days when given.
+     */
+    public synchronized List<Map<String, Object>> history(Path resultsRoot, String rootPath, Integer days) throws IOException {
+        Instant since = days != null && days > 0 ? Instant.now().minus(Duration.ofDays(days)) : null;
+        try (ScanHistoryStore store = ScanHistoryStore.open(dbPrefix(resultsRoot))) {
+            store.ensureSchema();
+            return store.history(normalizeRoot(rootPath), since);
+        } catch (Exception e) {
+            throw new IOException("Failed to read scan history: " + e.getMessage(), e);
+        }
+    }
+
+    private static Path dbPrefix(Path resultsRoot) {
+        return resultsRoot.resolve(HISTORY_FOLDER).resolve(DB_NAME);
+    }
+
+    /**
+     * Runs are keyed by canonical root path so {@code /a/b}, {@code /a/b/} and {@code /a/./b} share one series.
+     */
+    static String normalizeRoot(String rootPath) {
+        File f = new File(rootPath);
+        try {
+            return f.getCanonicalPath();
+        } catch (IOException e) {
+            return f.getAbsoluteFile().toPath().normalize().toString();
+        }
+    }
+}
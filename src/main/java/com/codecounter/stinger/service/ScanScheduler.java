@@ -0,0 +1,201 @@
+package com.codecounter.stinger.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Admission control for every scan, whatever started it (REST, SSE, batch). At most
+ * {@code stinger.scan.max-concurrent} scans walk the disk at once on a shared worker pool; the rest wait in
+ * a queue ordered by priority and then arrival. A job's priority improves by one level for every
+ * {@code stinger.scan.aging-ms} it has waited, so batch work is delayed by interactive scans but never
+ * starved. A request for a root that already has a queued or running job of the same kind gets that job's
+ * future instead of a second scan.
+ */
+@Service
+public class ScanScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanScheduler.class);
+
+    public enum Priority {
+        /** A user is waiting on the result (REST call, live stream). */
+        INTERACTIVE,
+        /** Batch and background work. */
+        BATCH
+    }
+
+    private final int maxConcurrent;
+    private final long agingNanos;
+    private final ExecutorService workers;
+    private final AtomicInteger workerIds = new AtomicInteger();
+
+    // guarded by 'this'
+    private final List<Job> queued = new ArrayList<>();
+    private final Map<String, Job> byKey = new HashMap<>();
+    private int running;
+    private long submitted;
+    private long deduplicated;
+    private long started;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long sequence;
+
+    public ScanScheduler(@Value("${stinger.scan.max-concurrent:2}") int maxConcurrent,
+                         @Value("${stinger.scan.aging-ms:30000}") long agingMs) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.agingNanos = Math.max(1L, agingMs) * 1_000_000L;
+        this.workers = Executors.newFixedThreadPool(this.maxConcurrent,
+            r -> new Thread(r, "scan-worker-" + workerIds.incrementAndGet()));
+    }
+
+    /**
+     * Queue {@code task} for {@code root}. Jobs are deduplicated by {@code kind} and canonical root: while
+     * one is queued or running, the same request returns its future.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(String kind, String root, Priority priority, Callable<T> task) {
+        String key = kind + ":" + ScanHistoryService.normalizeRoot(root);
+        synchronized (this) {
+            submitted++;
+            Job existing = byKey.get(key);
+            if (existing != null) {
+                deduplicated++;
+                // a more urgent request for a queued job lifts it
+                if (priority.ordinal() < existing.priority.ordinal()) existing.priority = priority;
+                logger.info("Scan of {} ({}) already {}; joining it", root, kind, existing.running ? "running" : "queued");
+                return (CompletableFuture<T>) existing.future;
+            }
+            Job job = new Job(key, kind, root, priority, sequence++, (Callable<Object>) task);
+            byKey.put(key, job);
+            queued.add(job);
+            if (running >= maxConcurrent) {
+                logger.info("Queued scan of {} ({}, {}); {} running, {} waiting", root, kind, priority, running, queued.size());
+            }
+            dispatch();
+            return (CompletableFuture<T>) job.future;
+        }
+    }
+
+    public synchronized int queueDepth() {
+        return queued.size();
+    }
+
+    public synchronized int running() {
+        return running;
+    }
+
+    /**
+     * Queue depth, running jobs, wait-time statistics and the jobs themselves.
+     */
+    public synchronized Map<String, Object> stats() {
+        long now = System.nanoTime();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("maxConcurrent", maxConcurrent);
+        out.put("running", running);
+        out.put("queueDepth", queued.size());
+        out.put("submitted", submitted);
+        out.put("deduplicated", deduplicated);
+        out.put("started", started);
+        out.put("avgWaitMs", started == 0 ? 0L : totalWaitNanos / started / 1_000_000L);
+        out.put("maxWaitMs", maxWaitNanos / 1_000_000L);
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (Job job : byKey.values()) {
+            Map<String, Object> j = new LinkedHashMap<>();
+            j.put("root", job.root);
+            j.put("kind", job.kind);
+            j.put("priority", job.priority.name());
+            j.put("state", job.running ? "running" : "queued");
+            j.put("waitMs", ((job.running ? job.startedAt : now) - job.submittedAt) / 1_000_000L);
+            jobs.add(j);
+        }
+        out.put("jobs", jobs);
+        return out;
+    }
+
+    // start queued jobs while there is capacity; caller holds the lock
+    private void dispatch() {
+        long now = System.nanoTime();
+        while (running < maxConcurrent && !queued.isEmpty()) {
+            Job next = queued.get(0);
+            for (Job job : queued) {
+                long level = job.level(now);
+                long best = next.level(now);
+                if (level < best || (level == best && job.seq < next.seq)) next = job;
+            }
+            queued.remove(next);
+            running++;
+            started++;
+            next.startedAt = now;
+            next.running = true;
+            long waited = now - next.submittedAt;
+            totalWaitNanos += waited;
+            maxWaitNanos = Math.max(maxWaitNanos, waited);
+            Job job = next;
+            workers.execute(() -> run(job));
+        }
+    }
+
+    private void run(Job job) {
+        try {
+            job.future.complete(job.task.call());
+        } catch (Throwable t) {
+            job.future.completeExceptionally(t);
+        } finally {
+            synchronized (this) {
+                running--;
+                byKey.remove(job.key, job);
+                dispatch();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            workers.shutdownNow();
+        } catch (Exception e) {
+            logger.debug("Error shutting down scan workers: {}", e.getMessage());
+        }
+    }
+
+    private final class Job {
+        final String key;
+        final String kind;
+        final String root;
+        final long seq;
+        final long submittedAt = System.nanoTime();
+        final Callable<Object> task;
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        volatile Priority priority;
+        volatile long startedAt;
+        volatile boolean running;
+
+        Job(String key, String kind, String root, Priority priority, long seq, Callable<Object> task) {
+            this.key = key;
+            this.kind = kind;
+            this.root = root;
+            this.priority = priority;
+            this.seq = seq;
+            this.task = task;
+        }
+
+        // lower runs first: the priority level, less one for every aging interval waited
+        long level(long now) {
+            return priority.ordinal() - (now - submittedAt) / agingNanos;
+        }
+    }
+}
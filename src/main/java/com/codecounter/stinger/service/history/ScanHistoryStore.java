@@ -0,0 +1,130 @@
+package com.codecounter.stinger.service.history;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.codecounter.stinger.model.AnalysisResult;
+
+/**
+ * Embedded H2 table with one row per completed run, so trend queries ("LOC over the last 90 days")
+ * are a single indexed range scan instead of listing run folders and parsing each summary.txt.
+ */
+public final class ScanHistoryStore implements AutoCloseable {
+
+    private final Connection connection;
+
+    private ScanHistoryStore(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static ScanHistoryStore open(Path dbPathPrefix) throws Exception {
+        Files.createDirectories(dbPathPrefix.toAbsolutePath().getParent());
+        String url = "jdbc:h2:file:" + dbPathPrefix.toAbsolutePath().normalize();
+        Connection conn = DriverManager.getConnection(url, "sa", "");
+        conn.setAutoCommit(true);
+        return new ScanHistoryStore(conn);
+    }
+
+    public void ensureSchema() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS SCAN_HISTORY (" +
+                "  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY," +
+                "  root_path VARCHAR(4096) NOT NULL," +
+                "  run_folder VARCHAR(128) NOT NULL," +
+                "  results_path VARCHAR(4096) NOT NULL," +
+                "  completed_at TIMESTAMP NOT NULL," +
+                "  total_folders INT NOT NULL," +
+                "  total_files INT NOT NULL," +
+                "  total_code_files INT NOT NULL," +
+                "  total_doc_files INT NOT NULL," +
+                "  total_other_files INT NOT NULL," +
+                "  total_methods INT," +
+                "  total_lines BIGINT NOT NULL," +
+                "  total_code_lines BIGINT NOT NULL," +
+                "  total_doc_lines BIGINT NOT NULL" +
+                ")");
+            st.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS UX_SCAN_HISTORY_RESULTS ON SCAN_HISTORY(results_path)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS IX_SCAN_HISTORY_ROOT_TIME ON SCAN_HISTORY(root_path, completed_at)");
+        }
+    }
+
+    /**
+     * Record a completed run. {@code totalMethods} below zero is stored as NULL (not measured).
+     */
+    public void record(String rootPath, String runFolder, String resultsPath, Instant completedAt, AnalysisResult r) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+            "MERGE INTO SCAN_HISTORY (root_path, run_folder, results_path, completed_at, total_folders, total_files, " +
+                "total_code_files, total_doc_files, total_other_files, total_methods, total_lines, total_code_lines, total_doc_lines) " +
+                "KEY(results_path) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            ps.setString(1, rootPath);
+            ps.setString(2, runFolder);
+            ps.setString(3, resultsPath);
+            ps.setTimestamp(4, Timestamp.from(completedAt));
+            ps.setInt(5, r.getTotalFolders());
+            ps.setInt(6, r.getTotalFiles());
+            ps.setInt(7, r.getTotalCodeFiles());
+            ps.setInt(8, r.getTotalDocFiles());
+            ps.setInt(9, r.getTotalOtherFiles());
+            if (r.getTotalMethods() < 0) {
+                ps.setNull(10, java.sql.Types.INTEGER);
+            } else {
+                ps.setInt(10, r.getTotalMethods());
+            }
+            ps.setLong(11, r.getTotalLines());
+            ps.setLong(12, r.getTotalCodeLines());
+            ps.setLong(13, r.getTotalDocLines());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Runs of {@code rootPath} completed at or after {@code since} (null for all), oldest first.
+     */
+    public List<Map<String, Object>> history(String rootPath, Instant since) throws SQLException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(
+            "SELECT run_folder, results_path, completed_at, total_folders, total_files, total_code_files, total_doc_files, " +
+                "total_other_files, total_methods, total_lines, total_code_lines, total_doc_lines " +
+                "FROM SCAN_HISTORY WHERE root_path = ? AND completed_at >= ? ORDER BY completed_at, id")) {
+            ps.setString(1, rootPath);
+            ps.setTimestamp(2, Timestamp.from(since != null ? since : Instant.EPOCH));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("runFolder", rs.getString(1));
+                    row.put("resultsPath", rs.getString(2));
+                    row.put("completedAt", rs.getTimestamp(3).toInstant().toString());
+                    row.put("totalFolders", rs.getInt(4));
+                    row.put("totalFiles", rs.getInt(5));
+                    row.put("totalCodeFiles", rs.getInt(6));
+                    row.put("totalDocFiles", rs.getInt(7));
+                    row.put("totalOtherFiles", rs.getInt(8));
+                    int methods = rs.getInt(9);
+                    row.put("totalMethods", rs.wasNull() ? null : methods);
+                    row.put("totalLines", rs.getLong(10));
+                    row.put("totalCodeLines", rs.getLong(11));
+                    row.put("totalDocLines", rs.getLong(12));
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
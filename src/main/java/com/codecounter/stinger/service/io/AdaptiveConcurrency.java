@@ -0,0 +1,133 @@
+package com.codecounter.stinger.service.io;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AIMD limit on concurrent file reads, tuned from what the reads themselves observe. Completed reads are
+ * grouped into windows; after each window the average per-read latency is compared with the lowest window
+ * average seen so far (the device's unloaded latency):
+ * <ul>
+ *   <li>latency above {@code tolerance} times that floor means reads are queueing in the device, so the limit
+ *       is cut multiplicatively (x0.75);</li>
+ *   <li>so is a change that moved latency with the limit while throughput stayed put (within
+ *       {@value #MIN_GAIN}) &mdash; an increase that only added queueing, or a decrease that only removed
+ *       it: the device is saturated even if the floor was first learnt at a saturated level;</li>
+ *   <li>a throughput drop of more than 10% right after an increase steps the limit back by one;</li>
+ *   <li>otherwise the limit grows by one.</li>
+ * </ul>
+ * An SSD keeps latency flat as reads are added and climbs to the upper bound; a spinning disk or network
+ * mount shows queueing after one or two reads and settles there. The floor drifts up by 2% per window so a
+ * device that gets slower (a cold cache after a warm one) is re-learnt.
+ *
+ * <p>Thread-safe.
+ */
+public final class AdaptiveConcurrency {
+
+    static final double DECREASE_FACTOR = 0.75;
+    static final double FLOOR_DRIFT = 1.02;
+    static final double THROUGHPUT_DROP = 0.9;
+    static final double MIN_GAIN = 0.05;
+    static final int MIN_WINDOW = 16;
+
+    private final int min;
+    private final int max;
+    private final double tolerance;
+
+    private int limit;
+    private int bestLimit;
+    private double bestThroughput;
+    private double latencyFloor = Double.NaN;
+    private double lastThroughput;
+    private double lastLatency;
+    private boolean lastIncreased;
+    private boolean lastDecreased;
+    private long increases;
+    private long decreases;
+    private long reads;
+    private long bytes;
+
+    // current window
+    private int windowReads;
+    private long windowLatencyNanos;
+    private long windowBytes;
+    private long windowStartNanos = -1L;
+
+    public AdaptiveConcurrency(int min, int max, int initial, double tolerance) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.limit = Math.min(this.max, Math.max(this.min, initial));
+        this.bestLimit = limit;
+        this.tolerance = Math.max(1.0, tolerance);
+    }
+
+    public synchronized int limit() {
+        return limit;
+    }
+
+    /**
+     * Record one completed read that took {@code latencyNanos} and returned {@code readBytes}, finishing at
+     * {@code nowNanos} (System.nanoTime()).
+     */
+    public synchronized void record(long latencyNanos, long readBytes, long nowNanos) {
+        if (windowStartNanos < 0) windowStartNanos = nowNanos - latencyNanos;
+        reads++;
+        bytes += Math.max(0, readBytes);
+        windowReads++;
+        windowLatencyNanos += Math.max(0, latencyNanos);
+        windowBytes += Math.max(0, readBytes);
+        if (windowReads < Math.max(MIN_WINDOW, limit * 4)) return;
+
+        double latency = (double) windowLatencyNanos / windowReads;
+        double seconds = Math.max(1e-9, (nowNanos - windowStartNanos) / 1e9);
+        // bytes when the reads returned any, otherwise reads, per second
+        double throughput = (windowBytes > 0 ? windowBytes : windowReads) / seconds;
+        adjust(latency, throughput);
+        windowReads = 0;
+        windowLatencyNanos = 0;
+        windowBytes = 0;
+        windowStartNanos = nowNanos;
+    }
+
+    private void adjust(double latency, double throughput) {
+        latencyFloor = Double.isNaN(latencyFloor) ? latency : Math.min(latencyFloor * FLOOR_DRIFT, latency);
+        if (throughput > bestThroughput) {
+            bestThroughput = throughput;
+            bestLimit = limit;
+        }
+        int next;
+        boolean saturated = lastIncreased
+            ? throughput < lastThroughput * (1 + MIN_GAIN) && latency > lastLatency * (1 + MIN_GAIN)
+            : lastDecreased && throughput > lastThroughput * (1 - MIN_GAIN) && latency < lastLatency * (1 - MIN_GAIN);
+        if (latency > latencyFloor * tolerance || saturated) {
+            next = Math.max(min, (int) Math.floor(limit * DECREASE_FACTOR));
+        } else if (lastIncreased && throughput < lastThroughput * THROUGHPUT_DROP) {
+            next = Math.max(min, limit - 1);
+        } else {
+            next = Math.min(max, limit + 1);
+        }
+        if (next > limit) increases++;
+        if (next < limit) decreases++;
+        lastIncreased = next > limit;
+        lastDecreased = next < limit;
+        limit = next;
+        lastThroughput = throughput;
+        lastLatency = latency;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("limit", limit);
+        out.put("bestLimit", bestLimit);
+        out.put("min", min);
+        out.put("max", max);
+        out.put("reads", reads);
+        out.put("bytes", bytes);
+        out.put("latencyMs", Math.round(lastLatency / 1e4) / 100.0);
+        out.put("latencyFloorMs", Double.isNaN(latencyFloor) ? null : Math.round(latencyFloor / 1e4) / 100.0);
+        out.put("bytesPerSecond", Math.round(lastThroughput));
+        out.put("increases", increases);
+        out.put("decreases", decreases);
+        return out;
+    }
+}
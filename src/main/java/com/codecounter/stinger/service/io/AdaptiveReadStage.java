@@ -0,0 +1,94 @@
+package com.codecounter.stinger.service.io;
+
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The file-read stage of one scan: the walker hands it reads, which run on a shared pool with at most
+ * {@link AdaptiveConcurrency#limit()} of this scan's reads in flight. When the limit is reached the walker
+ * waits, so a slow device also slows the walk instead of queueing unbounded work. Each read's latency is fed
+ * back to the controller.
+ */
+public final class AdaptiveReadStage {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveReadStage.class);
+
+    private final Executor pool;
+    private final AdaptiveConcurrency controller;
+
+    // guarded by 'this'
+    private int inFlight;
+    private int maxInFlight;
+    // cap below the controller's limit while the heap is under pressure
+    private int ceiling = Integer.MAX_VALUE;
+
+    public AdaptiveReadStage(Executor pool, AdaptiveConcurrency controller) {
+        this.pool = pool;
+        this.controller = controller;
+    }
+
+    public AdaptiveConcurrency controller() {
+        return controller;
+    }
+
+    /**
+     * Run {@code read} (expected to read about {@code bytes}) once a slot is free. Exceptions from the read
+     * are logged; the read itself is expected to record its own failures.
+     */
+    public void submit(long bytes, Runnable read) throws InterruptedException {
+        synchronized (this) {
+            while (inFlight >= Math.min(controller.limit(), ceiling)) wait();
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+        }
+        try {
+            pool.execute(() -> run(bytes, read));
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    private void run(long bytes, Runnable read) {
+        long start = System.nanoTime();
+        try {
+            read.run();
+        } catch (RuntimeException e) {
+            logger.warn("File read failed: {}", e.getMessage());
+        } finally {
+            long end = System.nanoTime();
+            controller.record(end - start, bytes, end);
+            release();
+        }
+    }
+
+    /**
+     * Cap reads in flight at {@code ceiling} regardless of the controller ({@link Integer#MAX_VALUE} lifts it).
+     */
+    public synchronized void setCeiling(int ceiling) {
+        this.ceiling = Math.max(1, ceiling);
+        notifyAll();
+    }
+
+    public synchronized int ceiling() {
+        return ceiling;
+    }
+
+    private synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * Wait until every submitted read has finished.
+     */
+    public synchronized void awaitIdle() throws InterruptedException {
+        while (inFlight > 0) wait();
+    }
+
+    public synchronized int maxInFlight() {
+        return maxInFlight;
+    }
+}
@@ -0,0 +1,183 @@
+package com.codecounter.stinger.service.io;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Heap occupancy as a throttle level shared by every scan. Occupancy is heap used / max from
+ * {@link MemoryMXBean}, sampled at most every {@value #REFRESH_MS} ms. In addition, usage and
+ * collection-usage thresholds are set at the shrink level on the heap pools that support them (the old
+ * generation), so crossing it is noticed by the next caller without waiting for a sample. G1 starts
+ * concurrent marking at 45% occupancy by default, so the heap stays well above 70% only when most of it is
+ * live.
+ *
+ * <p>Thread-safe.
+ */
+public final class MemoryPressure implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryPressure.class);
+
+    public enum Level {
+        NORMAL, SHRINK, SPILL, PAUSE
+    }
+
+    static final long REFRESH_MS = 50;
+    private static final long PAUSE_POLL_MS = 20;
+
+    private final double shrinkAt;
+    private final double spillAt;
+    private final double pauseAt;
+    private final LongSupplier used;
+    private final LongSupplier max;
+    private final AtomicLong thresholdNotifications = new AtomicLong();
+    private final long[] entered = new long[Level.values().length];
+
+    private volatile Level level = Level.NORMAL;
+    private volatile double occupancy;
+    private volatile long refreshedAt;
+    private volatile boolean stale = true;
+
+    private NotificationEmitter emitter;
+    private NotificationListener listener;
+
+    public MemoryPressure(double shrinkAt, double spillAt, double pauseAt, LongSupplier used, LongSupplier max) {
+        this.shrinkAt = shrinkAt;
+        this.spillAt = Math.max(shrinkAt, spillAt);
+        this.pauseAt = Math.max(this.spillAt, pauseAt);
+        this.used = used;
+        this.max = max;
+    }
+
+    /**
+     * Monitor for this JVM's heap, with pool thresholds registered at {@code shrinkAt}.
+     */
+    public static MemoryPressure heap(double shrinkAt, double spillAt, double pauseAt) {
+        MemoryMXBean bean = ManagementFactory.getMemoryMXBean();
+        MemoryPressure pressure = new MemoryPressure(shrinkAt, spillAt, pauseAt,
+            () -> bean.getHeapMemoryUsage().getUsed(),
+            () -> {
+                MemoryUsage heap = bean.getHeapMemoryUsage();
+                return heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+            });
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) continue;
+            long poolMax = pool.getUsage().getMax();
+            if (poolMax <= 0) continue;
+            long threshold = (long) (poolMax * shrinkAt);
+            // don't override thresholds some other component has set
+            if (pool.isUsageThresholdSupported() && pool.getUsageThreshold() == 0) pool.setUsageThreshold(threshold);
+            if (pool.isCollectionUsageThresholdSupported() && pool.getCollectionUsageThreshold() == 0) {
+                pool.setCollectionUsageThreshold(threshold);
+            }
+        }
+        if (bean instanceof NotificationEmitter emitter) {
+            pressure.emitter = emitter;
+            pressure.listener = (notification, handback) -> {
+                String type = notification.getType();
+                if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                        || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+                    pressure.thresholdNotifications.incrementAndGet();
+                    pressure.stale = true;
+                }
+            };
+            emitter.addNotificationListener(pressure.listener, null, null);
+        }
+        return pressure;
+    }
+
+    /**
+     * Current level, re-sampled when the last sample is older than {@value #REFRESH_MS} ms or a pool
+     * threshold was crossed since.
+     */
+    public Level level() {
+        long now = System.nanoTime();
+        if (stale || now - refreshedAt > REFRESH_MS * 1_000_000L) refresh(now);
+        return level;
+    }
+
+    // force a re-sample on the next level() call
+    void invalidate() {
+        stale = true;
+    }
+
+    public double occupancy() {
+        level();
+        return occupancy;
+    }
+
+    private synchronized void refresh(long now) {
+        stale = false;
+        refreshedAt = now;
+        long limit = max.getAsLong();
+        double current = limit > 0 ? (double) used.getAsLong() / limit : 0.0;
+        occupancy = current;
+        Level next = current >= pauseAt ? Level.PAUSE
+            : current >= spillAt ? Level.SPILL
+            : current >= shrinkAt ? Level.SHRINK
+            : Level.NORMAL;
+        if (next != level) {
+            entered[next.ordinal()]++;
+            if (next.compareTo(level) > 0) {
+                logger.info("Heap at {}% of max: scan throttle level {}", Math.round(current * 100), next);
+            } else {
+                logger.debug("Heap at {}% of max: scan throttle level {}", Math.round(current * 100), next);
+            }
+            level = next;
+        }
+    }
+
+    /**
+     * Wait until the level is below {@code level}, at most {@code maxWaitMs}.
+     *
+     * @return milliseconds waited
+     */
+    public long awaitBelow(Level level, long maxWaitMs) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + maxWaitMs * 1_000_000L;
+        while (level().compareTo(level) >= 0 && System.nanoTime() < deadline) {
+            Thread.sleep(PAUSE_POLL_MS);
+        }
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        level();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("level", level.name());
+        out.put("heapPercent", Math.round(occupancy * 1000) / 10.0);
+        out.put("shrinkAt", shrinkAt);
+        out.put("spillAt", spillAt);
+        out.put("pauseAt", pauseAt);
+        out.put("shrinkEntered", entered[Level.SHRINK.ordinal()]);
+        out.put("spillEntered", entered[Level.SPILL.ordinal()]);
+        out.put("pauseEntered", entered[Level.PAUSE.ordinal()]);
+        out.put("thresholdNotifications", thresholdNotifications.get());
+        return out;
+    }
+
+    @Override
+    public void close() {
+        if (emitter == null) return;
+        try {
+            emitter.removeNotificationListener(listener);
+        } catch (ListenerNotFoundException e) {
+            // already removed
+        }
+        emitter = null;
+    }
+}
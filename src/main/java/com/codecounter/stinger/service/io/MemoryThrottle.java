@@ -0,0 +1,103 @@
+package com.codecounter.stinger.service.io;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codecounter.stinger.model.ThrottleEvents;
+
+/**
+ * One scan's response to {@link MemoryPressure}, checked by the walker before each entry it admits. The
+ * steps are cumulative:
+ * <ol>
+ *   <li>{@link MemoryPressure.Level#SHRINK}: cap the read stage at half its current limit, so fewer parse
+ *       trees are alive at once (lifted when the heap is back to normal);</li>
+ *   <li>{@link MemoryPressure.Level#SPILL}: issue the pending read batch and move the visited set to disk,
+ *       again whenever {@value #RESPILL_ENTRIES} more entries have accumulated at this level;</li>
+ *   <li>{@link MemoryPressure.Level#PAUSE}: on entering the level, stop admitting entries until it drops,
+ *       at most {@code maxPauseMs}; a scan still at the level after that goes on without pausing again
+ *       until the level has dropped, so a heap held by something else can't stall the scan forever.</li>
+ * </ol>
+ * Called from the walker thread only.
+ */
+public final class MemoryThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryThrottle.class);
+
+    static final int RESPILL_ENTRIES = 10_000;
+
+    private final MemoryPressure pressure;
+    private final ReadScheduler reads;
+    private final SpillableStringSet visited;
+    private final long maxPauseMs;
+    private final ThrottleEvents events = new ThrottleEvents();
+    private boolean shrunk;
+    private MemoryPressure.Level last = MemoryPressure.Level.NORMAL;
+
+    /**
+     * @param reads the scan's reads, or null when files are read on the walker
+     * @param visited the walker's visited set, or null when it has none to spill
+     */
+    public MemoryThrottle(MemoryPressure pressure, ReadScheduler reads, SpillableStringSet visited, long maxPauseMs) {
+        this.pressure = pressure;
+        this.reads = reads;
+        this.visited = visited;
+        this.maxPauseMs = maxPauseMs;
+    }
+
+    public void admit() {
+        MemoryPressure.Level level = pressure.level();
+        double heapPercent = Math.round(pressure.occupancy() * 1000) / 10.0;
+        if (heapPercent > events.getPeakHeapPercent()) events.setPeakHeapPercent(heapPercent);
+
+        AdaptiveReadStage stage = reads == null ? null : reads.stage();
+        if (level.compareTo(MemoryPressure.Level.SHRINK) >= 0 && !shrunk) {
+            shrunk = true;
+            events.setShrinks(events.getShrinks() + 1);
+            if (stage != null) stage.setCeiling(Math.max(1, stage.controller().limit() / 2));
+        } else if (level == MemoryPressure.Level.NORMAL && shrunk) {
+            shrunk = false;
+            if (stage != null) stage.setCeiling(Integer.MAX_VALUE);
+        }
+
+        boolean spilling = level.compareTo(MemoryPressure.Level.SPILL) >= 0;
+        boolean entering = spilling && last.compareTo(MemoryPressure.Level.SPILL) < 0;
+        if (entering || (spilling && visited != null && visited.inMemory() >= RESPILL_ENTRIES)) spill();
+
+        if (level == MemoryPressure.Level.PAUSE && last != MemoryPressure.Level.PAUSE) {
+            try {
+                long waited = pressure.awaitBelow(MemoryPressure.Level.PAUSE, maxPauseMs);
+                events.setPauses(events.getPauses() + 1);
+                events.setPausedMs(events.getPausedMs() + waited);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            level = pressure.level();
+        }
+        last = level;
+    }
+
+    private void spill() {
+        if (reads != null) reads.flush();
+        if (visited == null) return;
+        long before = visited.spilled();
+        try {
+            visited.spill();
+        } catch (IOException e) {
+            logger.warn("Failed to spill visited set to disk: {}", e.getMessage());
+            return;
+        }
+        events.setSpills(events.getSpills() + 1);
+        events.setSpilledEntries(events.getSpilledEntries() + visited.spilled() - before);
+    }
+
+    /**
+     * Counts so far. The read-stage cap is lifted when called, as the scan is over.
+     */
+    public ThrottleEvents finish() {
+        if (shrunk && reads != null && reads.stage() != null) reads.stage().setCeiling(Integer.MAX_VALUE);
+        shrunk = false;
+        return events;
+    }
+}
@@ -0,0 +1,132 @@
+package com.codecounter.stinger.service.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order in which one scan's file reads are issued. In {@link Order#WALK} order each read is handed to the
+ * read stage as the walker finds it. In {@link Order#INODE} order the walker's reads are collected into
+ * batches of {@code batchSize}, and each batch is issued sorted by (device, inode). On ext4/xfs inodes are
+ * allocated near their directory and data near its inode, so on a cold page cache this turns the
+ * directory-order random reads of a rotating disk into mostly forward seeks. Files without an inode number
+ * (no "unix" attribute view, e.g. Windows) keep their walk order after the numbered ones.
+ *
+ * <p>{@link #submit} and {@link #flush} are called from the walker thread only.
+ */
+public final class ReadScheduler {
+
+    public enum Order {
+        WALK, INODE;
+
+        public static Order parse(String value) {
+            return value != null && "inode".equalsIgnoreCase(value.trim()) ? INODE : WALK;
+        }
+    }
+
+    private static final boolean UNIX_ATTRIBUTES = FileSystems.getDefault().supportedFileAttributeViews().contains("unix");
+    private static final Comparator<Pending> PHYSICAL = Comparator.comparingLong((Pending p) -> p.device)
+        .thenComparingLong(p -> p.inode)
+        .thenComparingLong(p -> p.seq);
+
+    private record Pending(long device, long inode, long seq, File file, Runnable task) {
+    }
+
+    private final AdaptiveReadStage stage;
+    private final Order order;
+    private final int batchSize;
+    private final List<Pending> batch = new ArrayList<>();
+    private long seq;
+    private long batches;
+
+    /**
+     * @param stage concurrent read stage, or null to run reads on the walker thread
+     */
+    public ReadScheduler(AdaptiveReadStage stage, Order order, int batchSize) {
+        this.stage = stage;
+        this.order = order == null ? Order.WALK : order;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public AdaptiveReadStage stage() {
+        return stage;
+    }
+
+    public Order order() {
+        return order;
+    }
+
+    /**
+     * Sorted batches issued so far (0 in walk order).
+     */
+    public long batches() {
+        return batches;
+    }
+
+    public void submit(File file, Runnable task) {
+        if (order == Order.WALK || batchSize == 1) {
+            dispatch(file, task);
+            return;
+        }
+        long n = seq++;
+        long[] key = inode(file.toPath());
+        batch.add(key == null
+            ? new Pending(Long.MAX_VALUE, n, n, file, task)
+            : new Pending(key[0], key[1], n, file, task));
+        if (batch.size() >= batchSize) flush();
+    }
+
+    /**
+     * Issue the pending batch now.
+     */
+    public void flush() {
+        if (batch.isEmpty()) return;
+        batch.sort(PHYSICAL);
+        batches++;
+        for (Pending p : batch) dispatch(p.file, p.task);
+        batch.clear();
+    }
+
+    /**
+     * Issue the pending batch and wait for every read to finish.
+     */
+    public void drain() throws InterruptedException {
+        flush();
+        if (stage != null) stage.awaitIdle();
+    }
+
+    private void dispatch(File file, Runnable task) {
+        if (stage == null) {
+            task.run();
+            return;
+        }
+        try {
+            stage.submit(file.length(), task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.run();
+        }
+    }
+
+    /**
+     * (device, inode) of a file, or null where the file system doesn't expose them.
+     */
+    static long[] inode(Path path) {
+        if (!UNIX_ATTRIBUTES) return null;
+        try {
+            Map<String, Object> attrs = Files.readAttributes(path, "unix:dev,ino");
+            Object dev = attrs.get("dev");
+            Object ino = attrs.get("ino");
+            if (!(dev instanceof Number) || !(ino instanceof Number)) return null;
+            return new long[] { ((Number) dev).longValue(), ((Number) ino).longValue() };
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.codecounter.stinger.service.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * A walker's visited set that can move its contents out of the heap. Entries live in a {@link HashSet}
+ * until {@link #spill()} is called; the spill writes them as sorted 128-bit fingerprints to a run file
+ * (16 bytes per entry instead of a String, its char array and a hash node) and maps it back read-only,
+ * so lookups binary-search page-cache memory. Runs are merged into one once there are more than
+ * {@value #MAX_RUNS}. Fingerprint collisions are possible in principle (about 2^-64 per pair) and would
+ * make an unvisited folder look visited; this is only used where that is acceptable.
+ *
+ * <p>Not thread-safe; one set belongs to one walk.
+ */
+public final class SpillableStringSet implements Closeable {
+
+    static final int MAX_RUNS = 8;
+    private static final int INSERTION_SORT_PAIRS = 16;
+
+    private final Path spillDir;
+    private Set<String> memory = new HashSet<>();
+    private final List<Run> runs = new ArrayList<>();
+    private long spilled;
+    private int spills;
+
+    private record Run(Path file, FileChannel channel, LongBuffer data, int size) {
+    }
+
+    /**
+     * @param spillDir directory for run files (created when first needed)
+     */
+    public SpillableStringSet(Path spillDir) {
+        this.spillDir = spillDir;
+    }
+
+    /**
+     * @return true when the value was not in the set yet
+     */
+    public boolean add(String value) {
+        if (!runs.isEmpty() && inRuns(value)) return false;
+        return memory.add(value);
+    }
+
+    public boolean contains(String value) {
+        return memory.contains(value) || (!runs.isEmpty() && inRuns(value));
+    }
+
+    public long size() {
+        return memory.size() + spilled;
+    }
+
+    public int inMemory() {
+        return memory.size();
+    }
+
+    /**
+     * Entries moved to disk so far.
+     */
+    public long spilled() {
+        return spilled;
+    }
+
+    public int spills() {
+        return spills;
+    }
+
+    /**
+     * Write the in-memory entries to a new run and drop them from the heap. No-op when there are none.
+     */
+    public void spill() throws IOException {
+        if (memory.isEmpty()) return;
+        long[] keys = new long[memory.size() * 2];
+        int n = 0;
+        for (String value : memory) {
+            keys[n++] = hi(value);
+            keys[n++] = lo(value);
+        }
+        // sorted in place: spills happen when the heap is short, so no index array or second copy
+        sortPairs(keys, 0, keys.length / 2);
+        int[] next = { 0 };
+        runs.add(writeRun(keys.length / 2, () -> keys[next[0]++]));
+        spilled += memory.size();
+        spills++;
+        // a fresh set rather than clear(): clear() keeps the grown table
+        memory = new HashSet<>();
+        if (runs.size() > MAX_RUNS) mergeRuns();
+    }
+
+    private boolean inRuns(String value) {
+        long hi = hi(value);
+        long lo = lo(value);
+        for (Run run : runs) {
+            int low = 0;
+            int high = run.size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(run.data.get(mid * 2), run.data.get(mid * 2 + 1), hi, lo);
+                if (cmp == 0) return true;
+                if (cmp < 0) low = mid + 1;
+                else high = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    // writes 'entries' (hi, lo) pairs taken in order from 'keys'
+    private Run writeRun(int entries, LongSupplier keys) throws IOException {
+        Files.createDirectories(spillDir);
+        Path file = Files.createTempFile(spillDir, "visited-", ".run");
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            for (long i = 0; i < entries * 2L; i++) {
+                long key = keys.getAsLong();
+                if (buf.remaining() < Long.BYTES) {
+                    buf.flip();
+                    while (buf.hasRemaining()) out.write(buf);
+                    buf.clear();
+                }
+                buf.putLong(key);
+            }
+            buf.flip();
+            while (buf.hasRemaining()) out.write(buf);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        LongBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, entries * 2L * Long.BYTES).asLongBuffer();
+        return new Run(file, channel, data, entries);
+    }
+
+    // k-way merge of every run into a new one, streamed from the mapped runs; runs hold distinct entries
+    private void mergeRuns() throws IOException {
+        int total = 0;
+        for (Run run : runs) total += run.size;
+        List<Run> inputs = new ArrayList<>(runs);
+        int[] pos = new int[inputs.size()];
+        int[] word = { 0 };
+        int[] from = { -1 };
+        Run merged = writeRun(total, () -> {
+            if (word[0]++ % 2 == 1) {
+                // second word of the pair picked on the previous call
+                Run run = inputs.get(from[0]);
+                return run.data.get(pos[from[0]]++ * 2 + 1);
+            }
+            int best = -1;
+            for (int r = 0; r < inputs.size(); r++) {
+                Run run = inputs.get(r);
+                if (pos[r] >= run.size) continue;
+                if (best < 0 || compare(run.data.get(pos[r] * 2), run.data.get(pos[r] * 2 + 1),
+                        inputs.get(best).data.get(pos[best] * 2), inputs.get(best).data.get(pos[best] * 2 + 1)) < 0) {
+                    best = r;
+                }
+            }
+            from[0] = best;
+            return inputs.get(best).data.get(pos[best] * 2);
+        });
+        closeRuns();
+        runs.add(merged);
+    }
+
+    // quicksort of the (hi, lo) pairs [from, to); the keys are hashes, so a middle pivot stays balanced
+    private static void sortPairs(long[] keys, int from, int to) {
+        while (to - from > INSERTION_SORT_PAIRS) {
+            int mid = (from + to) >>> 1;
+            long pivotHi = keys[mid * 2];
+            long pivotLo = keys[mid * 2 + 1];
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (compare(keys[i * 2], keys[i * 2 + 1], pivotHi, pivotLo) < 0) i++;
+                while (compare(keys[j * 2], keys[j * 2 + 1], pivotHi, pivotLo) > 0) j--;
+                if (i <= j) swapPairs(keys, i++, j--);
+            }
+            // recurse into the smaller side so the stack stays logarithmic
+            if (j + 1 - from < to - i) {
+                sortPairs(keys, from, j + 1);
+                from = i;
+            } else {
+                sortPairs(keys, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            long hi = keys[i * 2];
+            long lo = keys[i * 2 + 1];
+            int j = i - 1;
+            while (j >= from && compare(keys[j * 2], keys[j * 2 + 1], hi, lo) > 0) {
+                keys[j * 2 + 2] = keys[j * 2];
+                keys[j * 2 + 3] = keys[j * 2 + 1];
+                j--;
+            }
+            keys[j * 2 + 2] = hi;
+            keys[j * 2 + 3] = lo;
+        }
+    }
+
+    private static void swapPairs(long[] keys, int a, int b) {
+        long hi = keys[a * 2];
+        long lo = keys[a * 2 + 1];
+        keys[a * 2] = keys[b * 2];
+        keys[a * 2 + 1] = keys[b * 2 + 1];
+        keys[b * 2] = hi;
+        keys[b * 2 + 1] = lo;
+    }
+
+    private static int compare(long hiA, long loA, long hiB, long loB) {
+        int c = Long.compare(hiA, hiB);
+        return c != 0 ? c : Long.compare(loA, loB);
+    }
+
+    // two independent 64-bit FNV-1a variants over the UTF-16 chars
+    static long hi(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    static long lo(String value) {
+        long h = 0x84222325cbf29ce4L;
+        for (int i = value.length() - 1; i >= 0; i--) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h ^ value.length());
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private void closeRuns() {
+        for (Run run : runs) {
+            try {
+                run.channel.close();
+                Files.deleteIfExists(run.file);
+            } catch (IOException e) {
+                // best effort: a leftover run file in the temp directory is harmless
+            }
+        }
+        runs.clear();
+    }
+
+    @Override
+    public void close() {
+        closeRuns();
+        memory = new HashSet<>();
+    }
+}
@@ -0,0 +1,175 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Memory-mapped reader for {@code results.bin} (see {@link BinaryResultsWriter} for the layout).
+ * Columns are read straight from the mapping; paths are decoded on demand, either by seeking to the
+ * owning block or sequentially via {@link #forEach(BiConsumer)}.
+ */
+public final class BinaryResultsReader {
+
+    private final MappedByteBuffer buf;
+    private final int count;
+    private final int blockSize;
+    private final String root;
+    private final int blockIndexOffset;
+    private final int sizesOffset;
+    private final int linesOffset;
+    private final int methodsOffset;
+    private final int kindsOffset;
+    private final int pathDataOffset;
+
+    private BinaryResultsReader(MappedByteBuffer buf) throws IOException {
+        this.buf = buf;
+        if (buf.limit() < BinaryResultsWriter.HEADER_SIZE || buf.getInt(0) != BinaryResultsWriter.MAGIC) {
+            throw new IOException("Not a Stinger binary results file");
+        }
+        int version = buf.getInt(4);
+        if (version != BinaryResultsWriter.VERSION) {
+            throw new IOException("Unsupported binary results version: " + version);
+        }
+        this.count = buf.getInt(8);
+        this.blockSize = buf.getInt(12);
+        int rootOffset = (int) buf.getLong(16);
+        this.blockIndexOffset = (int) buf.getLong(24);
+        this.sizesOffset = (int) buf.getLong(32);
+        this.linesOffset = (int) buf.getLong(40);
+        this.methodsOffset = (int) buf.getLong(48);
+        this.kindsOffset = (int) buf.getLong(56);
+        this.pathDataOffset = (int) buf.getLong(64);
+
+        byte[] rootBytes = new byte[buf.getInt(rootOffset)];
+        buf.get(rootOffset + Integer.BYTES, rootBytes);
+        this.root = new String(rootBytes, StandardCharsets.UTF_8);
+    }
+
+    public static BinaryResultsReader open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary results file too large to map: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            return new BinaryResultsReader(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public String root() {
+        return root;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public byte kind(int i) {
+        return buf.get(kindsOffset + i);
+    }
+
+    public long fileSize(int i) {
+        return buf.getLong(sizesOffset + i * Long.BYTES);
+    }
+
+    public long lines(int i) {
+        return buf.getLong(linesOffset + i * Long.BYTES);
+    }
+
+    public int methods(int i) {
+        return buf.getInt(methodsOffset + i * Integer.BYTES);
+    }
+
+    public int count(byte kind) {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (kind(i) == kind) n++;
+        }
+        return n;
+    }
+
+    public String path(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException(i);
+        int block = i / blockSize;
+        int[] pos = { pathDataOffset + buf.getInt(blockIndexOffset + block * Integer.BYTES) };
+        byte[] current = new byte[0];
+        for (int k = block * blockSize; k <= i; k++) {
+            current = nextPath(pos, current);
+        }
+        return new String(current, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode every path sequentially (one pass over the path table) and hand it to the consumer with its index.
+     */
+    public void forEach(BiConsumer<Integer, String> consumer) {
+        int[] pos = { pathDataOffset };
+        byte[] current = new byte[0];
+        for (int i = 0; i < count; i++) {
+            current = nextPath(pos, current);
+            consumer.accept(i, new String(current, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Sequential path iterator (same single pass as {@link #forEach(BiConsumer)}, but pull-based so two
+     * files can be walked side by side).
+     */
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private final int[] pos = { pathDataOffset };
+            private byte[] current = new byte[0];
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public String next() {
+                if (next >= count) throw new NoSuchElementException();
+                current = nextPath(pos, current);
+                next++;
+                return new String(current, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    public List<String> paths(byte kind) {
+        List<String> out = new ArrayList<>();
+        forEach((i, p) -> {
+            if (kind(i) == kind) out.add(p);
+        });
+        return out;
+    }
+
+    private byte[] nextPath(int[] pos, byte[] previous) {
+        int shared = readVarInt(pos);
+        int suffix = readVarInt(pos);
+        byte[] next = Arrays.copyOf(previous, shared + suffix);
+        buf.get(pos[0], next, shared, suffix);
+        pos[0] += suffix;
+        return next;
+    }
+
+    private int readVarInt(int[] pos) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = buf.get(pos[0]++);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+            shift += 7;
+        }
+    }
+}
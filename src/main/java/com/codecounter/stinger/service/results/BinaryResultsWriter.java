@@ -0,0 +1,146 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes the compact {@code results.bin} file: a small header index, a front-coded path table and
+ * one column per metric. Paths are front-coded against the previous entry, so the depth-first order
+ * produced by the walker compresses well without sorting. Every {@link #BLOCK_SIZE} entries a path
+ * is stored in full so {@link BinaryResultsReader} can seek to any entry.
+ *
+ * <pre>
+ * header   magic, version, entryCount, blockSize, then one offset per section (root, blockIndex,
+ *          sizes, lines, methods, kinds, pathData)
+ * root     int length + UTF-8 bytes
+ * blocks   int offset into pathData for each block
+ * sizes    long per entry (bytes on disk)
+ * lines    long per entry (-1 when not measured)
+ * methods  int per entry (-1 when not measured)
+ * kinds    byte per entry (KIND_FOLDER, KIND_CODE, KIND_DOC, KIND_OTHER)
+ * pathData varint sharedPrefix, varint suffixLength, suffix bytes
+ * </pre>
+ */
+public final class BinaryResultsWriter {
+
+    public static final String FILE_NAME = "results.bin";
+
+    public static final int MAGIC = 0x53544752; // "STGR"
+    public static final int VERSION = 1;
+    public static final int BLOCK_SIZE = 16;
+    public static final int HEADER_SIZE = 16 + 7 * Long.BYTES;
+
+    public static final byte KIND_FOLDER = 0;
+    public static final byte KIND_CODE = 1;
+    public static final byte KIND_DOC = 2;
+    public static final byte KIND_OTHER = 3;
+
+    private final String root;
+    private final ByteArrayOutputStream pathData = new ByteArrayOutputStream(1 << 16);
+    private byte[] previous = new byte[0];
+
+    private int count;
+    private int[] blockOffsets = new int[64];
+    private byte[] kinds = new byte[1024];
+    private long[] sizes = new long[1024];
+    private long[] lines = new long[1024];
+    private int[] methods = new int[1024];
+
+    public BinaryResultsWriter(String root) {
+        this.root = root == null ? "" : root;
+    }
+
+    public void add(byte kind, String path, long size, long lineCount, int methodCount) {
+        ensureCapacity(count + 1);
+        byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+        int shared = 0;
+        if (count % BLOCK_SIZE == 0) {
+            blockOffsets[count / BLOCK_SIZE] = pathData.size();
+        } else {
+            int max = Math.min(previous.length, bytes.length);
+            while (shared < max && previous[shared] == bytes[shared]) shared++;
+        }
+        writeVarInt(pathData, shared);
+        writeVarInt(pathData, bytes.length - shared);
+        pathData.write(bytes, shared, bytes.length - shared);
+        previous = bytes;
+
+        kinds[count] = kind;
+        sizes[count] = size;
+        lines[count] = lineCount;
+        methods[count] = methodCount;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        byte[] rootBytes = root.getBytes(StandardCharsets.UTF_8);
+        int blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        long rootOffset = HEADER_SIZE;
+        long blockIndexOffset = rootOffset + Integer.BYTES + rootBytes.length;
+        long sizesOffset = blockIndexOffset + (long) blocks * Integer.BYTES;
+        long linesOffset = sizesOffset + (long) count * Long.BYTES;
+        long methodsOffset = linesOffset + (long) count * Long.BYTES;
+        long kindsOffset = methodsOffset + (long) count * Integer.BYTES;
+        long pathDataOffset = kindsOffset + count;
+        if (pathDataOffset + pathData.size() > Integer.MAX_VALUE) {
+            throw new IOException("Binary results too large to map (" + (pathDataOffset + pathData.size()) + " bytes)");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(BLOCK_SIZE);
+            out.writeLong(rootOffset);
+            out.writeLong(blockIndexOffset);
+            out.writeLong(sizesOffset);
+            out.writeLong(linesOffset);
+            out.writeLong(methodsOffset);
+            out.writeLong(kindsOffset);
+            out.writeLong(pathDataOffset);
+
+            out.writeInt(rootBytes.length);
+            out.write(rootBytes);
+            for (int b = 0; b < blocks; b++) out.writeInt(blockOffsets[b]);
+            for (int i = 0; i < count; i++) out.writeLong(sizes[i]);
+            for (int i = 0; i < count; i++) out.writeLong(lines[i]);
+            for (int i = 0; i < count; i++) out.writeInt(methods[i]);
+            out.write(kinds, 0, count);
+            pathData.writeTo(out);
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > kinds.length) {
+            int cap = Math.max(needed, kinds.length * 2);
+            kinds = Arrays.copyOf(kinds, cap);
+            sizes = Arrays.copyOf(sizes, cap);
+            lines = Arrays.copyOf(lines, cap);
+            methods = Arrays.copyOf(methods, cap);
+        }
+        int neededBlocks = (needed + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (neededBlocks > blockOffsets.length) {
+            blockOffsets = Arrays.copyOf(blockOffsets, Math.max(neededBlocks, blockOffsets.length * 2));
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            out.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+}
@@ -0,0 +1,177 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * External merge sort for the records a scan writes out. Records are buffered until their estimated
+ * size passes the memory budget; the buffer is then sorted and spilled as a run file into a temporary
+ * directory (created on the first spill). {@link #finish} merges the runs and the buffer through a heap
+ * and hands every record to the sink in order, so output order never depends on walk or read order and
+ * memory stays bounded at any tree size. Input that is already in order (the usual case for a walker that
+ * lists directories by name) costs one linear TimSort pass per run.
+ *
+ * <p>Records that compare equal keep no particular order, so the comparator should be total.
+ *
+ * <p>Not thread-safe.
+ */
+public final class ExternalSorter<T> implements Closeable {
+
+    /**
+     * Binary form of one record in a run file.
+     */
+    public interface Codec<T> {
+        void write(DataOutputStream out, T record) throws IOException;
+
+        T read(DataInputStream in) throws IOException;
+
+        /** Rough heap footprint of a buffered record, in bytes. */
+        long size(T record);
+    }
+
+    public interface Sink<T> {
+        void accept(T record) throws IOException;
+    }
+
+    private final Comparator<? super T> order;
+    private final Codec<T> codec;
+    private final long memoryBudget;
+    private final Path spillParent;
+
+    private List<T> buffer = new ArrayList<>();
+    private long buffered;
+    private Path spillDir;
+    private final List<Path> runs = new ArrayList<>();
+    private long records;
+
+    /**
+     * @param spillParent directory in which the temporary run directory is created
+     */
+    public ExternalSorter(Comparator<? super T> order, Codec<T> codec, long memoryBudget, Path spillParent) {
+        this.order = order;
+        this.codec = codec;
+        this.memoryBudget = Math.max(1, memoryBudget);
+        this.spillParent = spillParent;
+    }
+
+    public void add(T record) throws IOException {
+        buffer.add(record);
+        buffered += codec.size(record);
+        records++;
+        if (buffered >= memoryBudget) spill();
+    }
+
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Run files written so far.
+     */
+    public int runs() {
+        return runs.size();
+    }
+
+    private void spill() throws IOException {
+        if (buffer.isEmpty()) return;
+        buffer.sort(order);
+        if (spillDir == null) spillDir = Files.createTempDirectory(spillParent, ".sort-");
+        Path run = spillDir.resolve("run-" + runs.size() + ".bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            for (T record : buffer) codec.write(out, record);
+        }
+        runs.add(run);
+        buffer = new ArrayList<>();
+        buffered = 0;
+    }
+
+    private final class Cursor {
+        final DataInputStream in;
+        T head;
+
+        Cursor(DataInputStream in) {
+            this.in = in;
+        }
+
+        boolean advance() throws IOException {
+            try {
+                head = codec.read(in);
+                return true;
+            } catch (EOFException e) {
+                head = null;
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Emit every record in order, then delete the run files. The sorter is empty afterwards.
+     */
+    public void finish(Sink<? super T> sink) throws IOException {
+        if (runs.isEmpty()) {
+            buffer.sort(order);
+            for (T record : buffer) sink.accept(record);
+            buffer = new ArrayList<>();
+            buffered = 0;
+            return;
+        }
+        spill();
+        List<Cursor> cursors = new ArrayList<>();
+        try {
+            PriorityQueue<Cursor> heap = new PriorityQueue<>(runs.size(), (a, b) -> order.compare(a.head, b.head));
+            for (Path run : runs) {
+                Cursor c = new Cursor(new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16)));
+                cursors.add(c);
+                if (c.advance()) heap.add(c);
+            }
+            while (!heap.isEmpty()) {
+                Cursor c = heap.poll();
+                sink.accept(c.head);
+                if (c.advance()) heap.add(c);
+            }
+        } finally {
+            for (Cursor c : cursors) c.in.close();
+            close();
+        }
+    }
+
+    /**
+     * Drop buffered records and delete any run files.
+     */
+    @Override
+    public void close() throws IOException {
+        buffer = new ArrayList<>();
+        buffered = 0;
+        runs.clear();
+        if (spillDir == null) return;
+        try (Stream<Path> s = Files.walk(spillDir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+        spillDir = null;
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
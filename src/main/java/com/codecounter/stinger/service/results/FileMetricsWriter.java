@@ -0,0 +1,129 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes one CSV row per analyzed file ({@code path,type,ext,size,lines,methods,elapsedMs}). Rows arrive
+ * in whatever order concurrent reads finish; they go through an {@link ExternalSorter} (spilling sorted
+ * runs next to the file past its memory budget) and are written in {@link RunEntries#PATH_ORDER} on
+ * {@link #close()}, so the file is deterministic and {@link RunEntries} can stream it. Write failures are
+ * logged once and then ignored: losing the metrics file must never fail the scan itself.
+ */
+public final class FileMetricsWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileMetricsWriter.class);
+
+    public static final String FILE_NAME = "file_metrics.csv";
+    public static final String HEADER = "path,type,ext,size,lines,methods,elapsedMs";
+    public static final long DEFAULT_SORT_BUDGET = 16L * 1024 * 1024;
+
+    // the path, and the rest of the CSV row from the comma after it
+    private record Row(String path, String rest) {}
+
+    private static final Comparator<Row> ORDER = Comparator.comparing(Row::path, RunEntries.PATH_ORDER)
+        .thenComparing(Row::rest);
+
+    private static final ExternalSorter.Codec<Row> CODEC = new ExternalSorter.Codec<>() {
+        @Override
+        public void write(DataOutputStream out, Row row) throws IOException {
+            ExternalSorter.writeString(out, row.path());
+            ExternalSorter.writeString(out, row.rest());
+        }
+
+        @Override
+        public Row read(DataInputStream in) throws IOException {
+            return new Row(ExternalSorter.readString(in), ExternalSorter.readString(in));
+        }
+
+        @Override
+        public long size(Row row) {
+            return 96L + 2L * (row.path().length() + row.rest().length());
+        }
+    };
+
+    private final Path file;
+    private final BufferedWriter out;
+    private final ExternalSorter<Row> sorter;
+    private long rows;
+    private boolean failed;
+    private boolean closed;
+
+    private FileMetricsWriter(Path file, BufferedWriter out, long sortBudget) {
+        this.file = file;
+        this.out = out;
+        Path parent = file.toAbsolutePath().getParent();
+        this.sorter = new ExternalSorter<>(ORDER, CODEC, sortBudget, parent);
+    }
+
+    public static FileMetricsWriter open(Path file) throws IOException {
+        return open(file, DEFAULT_SORT_BUDGET);
+    }
+
+    public static FileMetricsWriter open(Path file, long sortBudget) throws IOException {
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        out.write(HEADER);
+        out.newLine();
+        return new FileMetricsWriter(file, out, sortBudget);
+    }
+
+    public synchronized void write(String path, String type, String ext, long size, long lines, int methods, long elapsedMs) {
+        if (failed || closed) return;
+        String rest = ',' + type + ',' + csv(ext == null ? "" : ext) + ',' + size + ',' + lines + ',' + methods + ',' + elapsedMs;
+        try {
+            sorter.add(new Row(path, rest));
+            rows++;
+        } catch (IOException e) {
+            failed = true;
+            logger.warn("Failed to spill file metrics for {} — further rows skipped: {}", file, e.getMessage());
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public synchronized long rows() {
+        return rows;
+    }
+
+    /**
+     * Write the sorted rows and close the file. Later calls do nothing.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (!failed) {
+                sorter.finish(row -> {
+                    out.write(csv(row.path()));
+                    out.write(row.rest());
+                    out.newLine();
+                });
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write file metrics to {}: {}", file, e.getMessage());
+        } finally {
+            sorter.close();
+            out.close();
+        }
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
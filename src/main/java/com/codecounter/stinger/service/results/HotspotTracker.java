@@ -0,0 +1,109 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.codecounter.stinger.model.Hotspot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Top-N files and folders of a scan, kept while the analysis loop walks: the files with the most lines,
+ * the most methods and the longest analysis time, and the folders holding the most files directly. Each
+ * list is a min-heap capped at N, so an entry costs one comparison against the smallest kept value and
+ * the tracker's memory does not grow with the tree.
+ */
+public final class HotspotTracker {
+
+    public static final String FILE_NAME = "hotspots.json";
+
+    public static final String LARGEST_FILES = "largestFiles";
+    public static final String MOST_METHODS = "mostMethods";
+    public static final String SLOWEST_FILES = "slowestFiles";
+    public static final String BUSIEST_FOLDERS = "busiestFolders";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final TopN largestFiles;
+    private final TopN mostMethods;
+    private final TopN slowestFiles;
+    private final TopN busiestFolders;
+
+    public HotspotTracker(int n) {
+        int limit = Math.max(1, n);
+        this.largestFiles = new TopN(limit);
+        this.mostMethods = new TopN(limit);
+        this.slowestFiles = new TopN(limit);
+        this.busiestFolders = new TopN(limit);
+    }
+
+    /**
+     * An analyzed file. Zero and negative values (nothing to rank, or not measured) are skipped.
+     */
+    public synchronized void file(String path, long lines, long methods, long elapsedMs) {
+        largestFiles.offer(path, lines);
+        mostMethods.offer(path, methods);
+        slowestFiles.offer(path, elapsedMs);
+    }
+
+    /**
+     * A folder and the number of analyzed files directly inside it.
+     */
+    public synchronized void folder(String path, long files) {
+        busiestFolders.offer(path, files);
+    }
+
+    /**
+     * Every list, largest value first.
+     */
+    public synchronized Map<String, List<Hotspot>> toResult() {
+        Map<String, List<Hotspot>> out = new LinkedHashMap<>();
+        out.put(LARGEST_FILES, largestFiles.sorted());
+        out.put(MOST_METHODS, mostMethods.sorted());
+        out.put(SLOWEST_FILES, slowestFiles.sorted());
+        out.put(BUSIEST_FOLDERS, busiestFolders.sorted());
+        return out;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toResult());
+    }
+
+    private static final class TopN {
+        // smallest value at the head, and of equal values the later path, so ties always keep the same entries
+        private static final Comparator<Hotspot> ORDER = Comparator.comparingLong(Hotspot::getValue)
+            .thenComparing(Hotspot::getPath, Comparator.reverseOrder());
+
+        private final int limit;
+        private final PriorityQueue<Hotspot> heap;
+
+        TopN(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1, ORDER);
+        }
+
+        void offer(String path, long value) {
+            if (value <= 0) return;
+            if (heap.size() == limit) {
+                Hotspot smallest = heap.peek();
+                if (value < smallest.getValue()
+                        || (value == smallest.getValue() && path.compareTo(smallest.getPath()) >= 0)) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(new Hotspot(path, value));
+        }
+
+        List<Hotspot> sorted() {
+            List<Hotspot> out = new ArrayList<>(heap);
+            out.sort(ORDER.reversed());
+            return out;
+        }
+    }
+}
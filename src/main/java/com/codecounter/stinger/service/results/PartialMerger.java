@@ -0,0 +1,340 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codecounter.stinger.model.Hotspot;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Combines the partial results folders of one root, one per {@link ScanPartition}, into the lists,
+ * {@code file_metrics.csv}, {@code results.bin} and {@code hotspots.json} a single scan of the root would
+ * have written. Every partial keeps its files in {@link RunEntries#PATH_ORDER}, so each file is a k-way
+ * merge that streams the inputs once. An entry listed by more than one partial is written once: the root
+ * folder is in every partial, and so is a file reached through a symlink into another partition's subtree
+ * (which a single walk lists once, under its canonical path).
+ *
+ * <p>The hotspot lists are exact as long as the partials were written with at least as many entries as
+ * the merge asks for: a file or folder belongs to one partition, so the overall top N is among the
+ * partials' top N. The root folder is the exception and is ranked by the sum of the partials' direct file
+ * counts from their manifests.
+ *
+ * <p>{@code summary.txt} is left to the caller, which owns its format; {@link Totals} are counted from the
+ * merged files, so an entry reached through a symlink from another partition is counted once, as a single
+ * scan counts it.
+ */
+public final class PartialMerger {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartialMerger.class);
+
+    private static final String[] LISTS = { "folders.txt", "total_files.txt", "code_files.txt", "document_files.txt", "other_files.txt" };
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private PartialMerger() {
+    }
+
+    private interface Next<T> {
+        /** Next record, or null at the end. */
+        T read() throws IOException;
+    }
+
+    private interface Sink<T> {
+        void accept(T record) throws IOException;
+    }
+
+    private static final class Cursor<T> {
+        final int source;
+        final Next<T> next;
+        T head;
+
+        Cursor(int source, Next<T> next) {
+            this.source = source;
+            this.next = next;
+        }
+
+        boolean advance() throws IOException {
+            head = next.read();
+            return head != null;
+        }
+    }
+
+    /**
+     * Counts of the merged run, as a single scan's {@code summary.txt} has them. Folder and file counts are
+     * rows of the merged lists (or entries of {@code results.bin} when the text lists were off); lines and
+     * methods are sums over the merged {@code file_metrics.csv}. A count is -1 when no merged file has it.
+     */
+    public record Totals(long folders, long codeFiles, long docFiles, long otherFiles,
+                         long codeLines, long docLines, long methods) {}
+
+    private record MetricsRow(String path, String rest, String line) {}
+
+    private record BinaryEntry(byte kind, String path, long size, long lines, int methods) {}
+
+    // by path only: a file measured by two partials differs in its timing, and is written once
+    private static final Comparator<MetricsRow> METRICS_ORDER = Comparator.comparing(MetricsRow::path, RunEntries.PATH_ORDER);
+
+    private static final Comparator<BinaryEntry> BINARY_ORDER = Comparator.comparing(BinaryEntry::path, RunEntries.PATH_ORDER)
+        .thenComparingInt(BinaryEntry::kind);
+
+    /**
+     * Check that {@code partials} are the complete set of partitions of one root and write their merged
+     * files into {@code target}.
+     *
+     * @return counts of the merged run
+     * @throws IOException when a partial is missing, duplicated, of another root or split, or unreadable
+     */
+    public static Totals merge(List<Path> partials, Path target, int hotspotCount) throws IOException {
+        List<Map<String, String>> manifests = validate(partials);
+        long[] listRows = { -1, -1, -1, -1, -1 };
+        for (int i = 0; i < LISTS.length; i++) {
+            List<Path> inputs = inputs(partials, LISTS[i]);
+            if (inputs != null) listRows[i] = mergeLines(inputs, target.resolve(LISTS[i]));
+        }
+        long[] sums = { -1, -1, -1 };
+        List<Path> metrics = inputs(partials, FileMetricsWriter.FILE_NAME);
+        if (metrics != null) sums = mergeMetrics(metrics, target.resolve(FileMetricsWriter.FILE_NAME));
+        long[] kinds = { -1, -1, -1, -1 };
+        List<Path> binary = inputs(partials, BinaryResultsWriter.FILE_NAME);
+        if (binary != null) kinds = mergeBinary(binary, target.resolve(BinaryResultsWriter.FILE_NAME));
+        mergeHotspots(partials, manifests, target.resolve(HotspotTracker.FILE_NAME), hotspotCount);
+        return new Totals(
+            listRows[0] >= 0 ? listRows[0] : kinds[BinaryResultsWriter.KIND_FOLDER],
+            listRows[2] >= 0 ? listRows[2] : kinds[BinaryResultsWriter.KIND_CODE],
+            listRows[3] >= 0 ? listRows[3] : kinds[BinaryResultsWriter.KIND_DOC],
+            listRows[4] >= 0 ? listRows[4] : kinds[BinaryResultsWriter.KIND_OTHER],
+            sums[0], sums[1], sums[2]);
+    }
+
+    private static List<Map<String, String>> validate(List<Path> partials) throws IOException {
+        if (partials.isEmpty()) throw new IOException("No partial results to merge");
+        List<Map<String, String>> manifests = new ArrayList<>();
+        String root = null;
+        boolean[] seen = null;
+        for (Path partial : partials) {
+            Map<String, String> manifest = ScanPartition.readManifest(partial);
+            ScanPartition partition = ScanPartition.of(manifest);
+            if (root == null) {
+                root = manifest.get("root");
+                seen = new boolean[partition.parts()];
+            } else if (!root.equals(manifest.get("root"))) {
+                throw new IOException("Partial " + partial + " is a scan of " + manifest.get("root") + ", not " + root);
+            } else if (partition.parts() != seen.length) {
+                throw new IOException("Partial " + partial + " is one of " + partition.parts() + " parts, not " + seen.length);
+            }
+            if (seen[partition.part()]) {
+                throw new IOException("Partition " + partition.part() + " of " + seen.length + " given more than once");
+            }
+            seen[partition.part()] = true;
+            manifests.add(manifest);
+        }
+        for (int i = 0; i < seen.length; i++) {
+            if (!seen[i]) throw new IOException("Partition " + i + " of " + seen.length + " is missing");
+        }
+        return manifests;
+    }
+
+    // the file in every partial, or null when no partial has it (a format that was off)
+    private static List<Path> inputs(List<Path> partials, String name) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        for (Path partial : partials) {
+            Path file = partial.resolve(name);
+            if (Files.exists(file)) inputs.add(file);
+        }
+        if (inputs.isEmpty()) return null;
+        if (inputs.size() < partials.size()) {
+            throw new IOException("Only " + inputs.size() + " of " + partials.size() + " partials have " + name);
+        }
+        return inputs;
+    }
+
+    // returns the rows written
+    private static long mergeLines(List<Path> inputs, Path out) throws IOException {
+        List<BufferedReader> readers = new ArrayList<>();
+        long[] rows = { 0 };
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            List<Cursor<String>> cursors = new ArrayList<>();
+            for (int i = 0; i < inputs.size(); i++) {
+                BufferedReader r = Files.newBufferedReader(inputs.get(i), StandardCharsets.UTF_8);
+                readers.add(r);
+                cursors.add(new Cursor<>(i, r::readLine));
+            }
+            merge(cursors, RunEntries.PATH_ORDER, line -> {
+                w.write(line);
+                w.newLine();
+                rows[0]++;
+            });
+        } finally {
+            for (BufferedReader r : readers) r.close();
+        }
+        return rows[0];
+    }
+
+    // returns code lines, document lines and methods of the rows written
+    private static long[] mergeMetrics(List<Path> inputs, Path out) throws IOException {
+        List<BufferedReader> readers = new ArrayList<>();
+        long[] sums = new long[3];
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write(FileMetricsWriter.HEADER);
+            w.newLine();
+            List<Cursor<MetricsRow>> cursors = new ArrayList<>();
+            for (int i = 0; i < inputs.size(); i++) {
+                BufferedReader r = Files.newBufferedReader(inputs.get(i), StandardCharsets.UTF_8);
+                readers.add(r);
+                r.readLine(); // header
+                cursors.add(new Cursor<>(i, () -> {
+                    String line = r.readLine();
+                    return line == null ? null : metricsRow(line);
+                }));
+            }
+            merge(cursors, METRICS_ORDER, row -> {
+                w.write(row.line());
+                w.newLine();
+                addMetrics(row.rest(), sums);
+            });
+        } finally {
+            for (BufferedReader r : readers) r.close();
+        }
+        return sums;
+    }
+
+    // rest is ",type,ext,size,lines,methods,elapsedMs"; ext may be quoted, so the numbers are read from the end
+    private static void addMetrics(String rest, long[] sums) {
+        int elapsed = rest.lastIndexOf(',');
+        int methods = elapsed <= 0 ? -1 : rest.lastIndexOf(',', elapsed - 1);
+        int lines = methods <= 0 ? -1 : rest.lastIndexOf(',', methods - 1);
+        if (lines < 0) return;
+        long lineCount = Math.max(0, parseLong(rest.substring(lines + 1, methods)));
+        String type = rest.substring(1, Math.max(1, rest.indexOf(',', 1)));
+        if ("code".equals(type)) sums[0] += lineCount;
+        else if ("document".equals(type)) sums[1] += lineCount;
+        sums[2] += Math.max(0, parseLong(rest.substring(methods + 1, elapsed)));
+    }
+
+    // the path (unquoted) and the rest of the row from the comma after it, as FileMetricsWriter sorts them
+    private static MetricsRow metricsRow(String line) {
+        if (!line.startsWith("\"")) {
+            int comma = line.indexOf(',');
+            if (comma < 0) return new MetricsRow(line, "", line);
+            return new MetricsRow(line.substring(0, comma), line.substring(comma), line);
+        }
+        StringBuilder path = new StringBuilder();
+        int i = 1;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    path.append('"');
+                    i += 2;
+                    continue;
+                }
+                break;
+            }
+            path.append(c);
+            i++;
+        }
+        return new MetricsRow(path.toString(), line.substring(Math.min(i + 1, line.length())), line);
+    }
+
+    // returns the entries written per kind
+    private static long[] mergeBinary(List<Path> inputs, Path out) throws IOException {
+        List<Cursor<BinaryEntry>> cursors = new ArrayList<>();
+        BinaryResultsWriter writer = null;
+        for (int i = 0; i < inputs.size(); i++) {
+            BinaryResultsReader reader = BinaryResultsReader.open(inputs.get(i));
+            if (writer == null) writer = new BinaryResultsWriter(reader.root());
+            Iterator<String> paths = reader.iterator();
+            int[] index = { 0 };
+            cursors.add(new Cursor<>(i, () -> {
+                if (!paths.hasNext()) return null;
+                int k = index[0]++;
+                return new BinaryEntry(reader.kind(k), paths.next(), reader.fileSize(k), reader.lines(k), reader.methods(k));
+            }));
+        }
+        BinaryResultsWriter binary = writer;
+        long[] kinds = new long[BinaryResultsWriter.KIND_OTHER + 1];
+        merge(cursors, BINARY_ORDER, e -> {
+            binary.add(e.kind(), e.path(), e.size(), e.lines(), e.methods());
+            if (e.kind() >= 0 && e.kind() < kinds.length) kinds[e.kind()]++;
+        });
+        binary.writeTo(out);
+        return kinds;
+    }
+
+    // k-way merge; equal records from different partials are written once
+    private static <T> void merge(List<Cursor<T>> cursors, Comparator<? super T> order, Sink<T> sink) throws IOException {
+        PriorityQueue<Cursor<T>> heap = new PriorityQueue<>(Math.max(1, cursors.size()),
+            Comparator.<Cursor<T>, T>comparing(c -> c.head, order).thenComparingInt(c -> c.source));
+        for (Cursor<T> c : cursors) {
+            if (c.advance()) heap.add(c);
+        }
+        T last = null;
+        int lastSource = -1;
+        while (!heap.isEmpty()) {
+            Cursor<T> c = heap.poll();
+            if (last == null || c.source == lastSource || order.compare(last, c.head) != 0) {
+                sink.accept(c.head);
+                last = c.head;
+                lastSource = c.source;
+            }
+            if (c.advance()) heap.add(c);
+        }
+    }
+
+    private static void mergeHotspots(List<Path> partials, List<Map<String, String>> manifests, Path out, int hotspotCount) throws IOException {
+        HotspotTracker merged = new HotspotTracker(hotspotCount);
+        // a file reached through a symlink can be listed by more than one partial; feed it once per list
+        Set<String> largest = new HashSet<>(), methods = new HashSet<>(), slowest = new HashSet<>();
+        long rootFiles = 0;
+        for (int i = 0; i < partials.size(); i++) {
+            Map<String, String> manifest = manifests.get(i);
+            rootFiles += parseLong(manifest.get("rootFiles"));
+            Path file = partials.get(i).resolve(HotspotTracker.FILE_NAME);
+            if (!Files.exists(file)) {
+                logger.warn("Partial {} has no {}; merged hotspots leave it out", partials.get(i), HotspotTracker.FILE_NAME);
+                continue;
+            }
+            Map<String, List<Hotspot>> lists = MAPPER.readValue(file.toFile(), new TypeReference<Map<String, List<Hotspot>>>() {});
+            // file() skips zero values, so each list can be fed on its own
+            for (Hotspot h : lists.getOrDefault(HotspotTracker.LARGEST_FILES, List.of())) {
+                if (largest.add(h.getPath())) merged.file(h.getPath(), h.getValue(), 0, 0);
+            }
+            for (Hotspot h : lists.getOrDefault(HotspotTracker.MOST_METHODS, List.of())) {
+                if (methods.add(h.getPath())) merged.file(h.getPath(), 0, h.getValue(), 0);
+            }
+            for (Hotspot h : lists.getOrDefault(HotspotTracker.SLOWEST_FILES, List.of())) {
+                if (slowest.add(h.getPath())) merged.file(h.getPath(), 0, 0, h.getValue());
+            }
+            String rootPath = manifest.get("rootPath");
+            for (Hotspot h : lists.getOrDefault(HotspotTracker.BUSIEST_FOLDERS, List.of())) {
+                if (!h.getPath().equals(rootPath)) merged.folder(h.getPath(), h.getValue());
+            }
+        }
+        merged.folder(manifests.get(0).get("rootPath"), rootFiles);
+        merged.writeTo(out);
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memory-mapped reader for {@code rollups.bin} (see {@link RollupIndexWriter} for the layout). A lookup
+ * hashes the relative path, probes the table and compares the stored path bytes, so answering a subtree
+ * query costs the same for the root as for a folder twenty levels down and never touches the file lists.
+ */
+public final class RollupIndex {
+
+    /**
+     * Cumulative counters of one folder's subtree. {@code folders} counts descendants, not the folder itself;
+     * lines and methods are 0 when the run did not measure them.
+     */
+    public record Rollup(String path, long folders, long files, long codeFiles, long docFiles, long otherFiles,
+                         long bytes, long codeLines, long docLines, long methods) {
+
+        public long lines() {
+            return codeLines + docLines;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("path", path);
+            out.put("folders", folders);
+            out.put("files", files);
+            out.put("codeFiles", codeFiles);
+            out.put("docFiles", docFiles);
+            out.put("otherFiles", otherFiles);
+            out.put("bytes", bytes);
+            out.put("lines", lines());
+            out.put("codeLines", codeLines);
+            out.put("docLines", docLines);
+            out.put("methods", methods);
+            return out;
+        }
+    }
+
+    private final MappedByteBuffer buf;
+    private final int count;
+    private final int mask;
+    private final String root;
+    private final int tableOffset;
+    private final int recordsOffset;
+    private final int pathsOffset;
+
+    private RollupIndex(MappedByteBuffer buf) throws IOException {
+        this.buf = buf;
+        if (buf.limit() < RollupIndexWriter.HEADER_SIZE || buf.getInt(0) != RollupIndexWriter.MAGIC) {
+            throw new IOException("Not a Stinger rollup index");
+        }
+        int version = buf.getInt(4);
+        if (version != RollupIndexWriter.VERSION) {
+            throw new IOException("Unsupported rollup index version: " + version);
+        }
+        this.count = buf.getInt(8);
+        this.mask = buf.getInt(12) - 1;
+        int rootOffset = (int) buf.getLong(16);
+        this.tableOffset = (int) buf.getLong(24);
+        this.recordsOffset = (int) buf.getLong(32);
+        this.pathsOffset = (int) buf.getLong(40);
+
+        byte[] rootBytes = new byte[buf.getInt(rootOffset)];
+        buf.get(rootOffset + Integer.BYTES, rootBytes);
+        this.root = new String(rootBytes, StandardCharsets.UTF_8);
+    }
+
+    public static RollupIndex open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Rollup index too large to map: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            return new RollupIndex(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /**
+     * Canonical root path of the run.
+     */
+    public String root() {
+        return root;
+    }
+
+    /**
+     * Number of folders in the index, the root included.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Counters for {@code subpath}: relative to the root ({@code ""}, {@code "."} or null for the root itself,
+     * either separator), or an absolute path under the root. Null when the run has no such folder.
+     */
+    public Rollup get(String subpath) {
+        String rel = normalize(subpath);
+        if (rel == null) return null;
+        byte[] key = rel.getBytes(StandardCharsets.UTF_8);
+        int slot = hash(key, 0, key.length) & mask;
+        while (true) {
+            int entry = buf.getInt(tableOffset + slot * Integer.BYTES);
+            if (entry == 0) return null;
+            int record = recordsOffset + (entry - 1) * RollupIndexWriter.RECORD_SIZE;
+            if (pathEquals(record, key)) return read(rel, record);
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean pathEquals(int record, byte[] key) {
+        int length = buf.getInt(record + Integer.BYTES);
+        if (length != key.length) return false;
+        int offset = pathsOffset + buf.getInt(record);
+        for (int i = 0; i < length; i++) {
+            if (buf.get(offset + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private Rollup read(String path, int record) {
+        int at = record + 2 * Integer.BYTES;
+        long[] c = new long[RollupIndexWriter.COUNTERS];
+        for (int i = 0; i < c.length; i++) c[i] = buf.getLong(at + i * Long.BYTES);
+        return new Rollup(path,
+            c[RollupIndexWriter.FOLDERS], c[RollupIndexWriter.FILES],
+            c[RollupIndexWriter.CODE_FILES], c[RollupIndexWriter.DOC_FILES], c[RollupIndexWriter.OTHER_FILES],
+            c[RollupIndexWriter.BYTES], c[RollupIndexWriter.CODE_LINES], c[RollupIndexWriter.DOC_LINES],
+            c[RollupIndexWriter.METHODS]);
+    }
+
+    // root-relative and '/'-separated with no leading, trailing or repeated separators; null if outside the root,
+    // including any absolute path that is not under it
+    private String normalize(String subpath) {
+        if (subpath == null) return "";
+        String p = subpath.replace('\\', '/');
+        String r = root.replace('\\', '/');
+        if (!r.isEmpty() && p.startsWith(r) && (p.length() == r.length() || p.charAt(r.length()) == '/' || r.endsWith("/"))) {
+            p = p.substring(r.length());
+        } else if (new File(subpath).isAbsolute()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(p.length());
+        for (String part : p.split("/")) {
+            if (part.isEmpty() || part.equals(".")) continue;
+            if (part.equals("..")) return null;
+            if (sb.length() > 0) sb.append('/');
+            sb.append(part);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * FNV-1a over the UTF-8 path bytes; shared with the writer so the table layout is part of the format.
+     */
+    static int hash(byte[] bytes, int offset, int length) {
+        int h = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            h ^= bytes[i] & 0xFF;
+            h *= 0x01000193;
+        }
+        // spread the high bits into the low ones the table mask keeps
+        return h ^ (h >>> 16);
+    }
+}
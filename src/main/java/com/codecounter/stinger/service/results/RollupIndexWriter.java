@@ -0,0 +1,217 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@code rollups.bin}: one record per folder of a run holding the cumulative counters of its
+ * whole subtree, plus an open-addressing hash table over the folders' relative paths so
+ * {@link RollupIndex} can answer any subtree query with one hash, a few probes and one record read.
+ *
+ * <pre>
+ * header   magic, version, recordCount, tableSize, then one offset per section (root, table, records, paths)
+ * root     int length + UTF-8 bytes (canonical root path)
+ * table    int per slot: record index + 1, 0 when empty (tableSize is a power of two, at least 2 x records)
+ * records  int pathOffset, int pathLength, then one long per counter (see {@link RollupIndex.Rollup})
+ * paths    UTF-8 relative paths, '/'-separated, "" for the root
+ * </pre>
+ */
+public final class RollupIndexWriter {
+
+    public static final String FILE_NAME = "rollups.bin";
+
+    public static final int MAGIC = 0x53545255; // "STRU"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16 + 4 * Long.BYTES;
+
+    static final int COUNTERS = 9;
+    static final int RECORD_SIZE = 2 * Integer.BYTES + COUNTERS * Long.BYTES;
+
+    // counter slots, in record order
+    static final int FOLDERS = 0;
+    static final int FILES = 1;
+    static final int CODE_FILES = 2;
+    static final int DOC_FILES = 3;
+    static final int OTHER_FILES = 4;
+    static final int BYTES = 5;
+    static final int CODE_LINES = 6;
+    static final int DOC_LINES = 7;
+    static final int METHODS = 8;
+
+    private final String root;
+    private final List<String> prefixes = new ArrayList<>();
+    // insertion order is walk order, parents before children
+    private final Map<String, long[]> folders = new HashMap<>();
+    private final List<String> order = new ArrayList<>();
+
+    /**
+     * @param root      canonical root path; stored in the index so a path can be mapped back to its run
+     * @param aliases   other spellings of the root that entry paths may start with (e.g. the absolute,
+     *                  non-canonical path the analysis loop writes to {@code file_metrics.csv})
+     */
+    public RollupIndexWriter(String root, String... aliases) {
+        this.root = root;
+        prefixes.add(root);
+        for (String alias : aliases) {
+            if (alias != null && !alias.equals(root)) prefixes.add(alias);
+        }
+        folders.put("", new long[COUNTERS]);
+        order.add("");
+    }
+
+    /**
+     * Build the index for a saved run from its folder list and {@link RunEntries}, and write it into the run folder.
+     */
+    public static RollupIndexWriter build(Path runFolder, String root, String... aliases) throws IOException {
+        RollupIndexWriter writer = new RollupIndexWriter(root, aliases);
+        Path bin = runFolder.resolve(BinaryResultsWriter.FILE_NAME);
+        Path folderList = runFolder.resolve("folders.txt");
+        if (Files.exists(bin)) {
+            BinaryResultsReader reader = BinaryResultsReader.open(bin);
+            reader.forEach((i, p) -> {
+                if (reader.kind(i) == BinaryResultsWriter.KIND_FOLDER) writer.addFolder(p);
+            });
+        } else if (Files.exists(folderList)) {
+            try (BufferedReader r = Files.newBufferedReader(folderList, StandardCharsets.UTF_8)) {
+                for (String line = r.readLine(); line != null; line = r.readLine()) {
+                    if (!line.isEmpty()) writer.addFolder(line);
+                }
+            }
+        }
+        try (RunEntries entries = RunEntries.open(runFolder)) {
+            while (entries.hasNext()) {
+                RunEntries.Entry e = entries.next();
+                writer.addFile(e.path(), e.type(), e.size(), e.lines(), e.methods());
+            }
+        }
+        writer.writeTo(runFolder.resolve(FILE_NAME));
+        return writer;
+    }
+
+    public void addFolder(String path) {
+        String rel = relativize(path);
+        if (rel != null) addRelative(rel);
+    }
+
+    public void addFile(String path, String type, long size, long lines, int methods) {
+        String rel = relativize(path);
+        // entries outside the root (reached through symlinks) only count towards the root's totals
+        String dir = rel == null || rel.isEmpty() ? "" : parent(rel);
+        addRelative(dir);
+        for (String p = dir; p != null; p = parent(p)) {
+            long[] c = folders.get(p);
+            c[FILES]++;
+            if (size > 0) c[BYTES] += size;
+            if (methods > 0) c[METHODS] += methods;
+            switch (type) {
+                case "code" -> {
+                    c[CODE_FILES]++;
+                    if (lines > 0) c[CODE_LINES] += lines;
+                }
+                case "document" -> {
+                    c[DOC_FILES]++;
+                    if (lines > 0) c[DOC_LINES] += lines;
+                }
+                case "other" -> c[OTHER_FILES]++;
+                default -> { }
+            }
+        }
+    }
+
+    public int size() {
+        return order.size();
+    }
+
+    public String root() {
+        return root;
+    }
+
+    public void writeTo(Path file) throws IOException {
+        int count = order.size();
+        int tableSize = Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1;
+        int[] table = new int[tableSize];
+        ByteArrayOutputStream paths = new ByteArrayOutputStream(count * 16);
+        int[] pathOffsets = new int[count];
+        int[] pathLengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = order.get(i).getBytes(StandardCharsets.UTF_8);
+            pathOffsets[i] = paths.size();
+            pathLengths[i] = bytes.length;
+            paths.write(bytes, 0, bytes.length);
+            int slot = RollupIndex.hash(bytes, 0, bytes.length) & (tableSize - 1);
+            while (table[slot] != 0) slot = (slot + 1) & (tableSize - 1);
+            table[slot] = i + 1;
+        }
+
+        byte[] rootBytes = root.getBytes(StandardCharsets.UTF_8);
+        long rootOffset = HEADER_SIZE;
+        long tableOffset = rootOffset + Integer.BYTES + rootBytes.length;
+        long recordsOffset = tableOffset + (long) tableSize * Integer.BYTES;
+        long pathsOffset = recordsOffset + (long) count * RECORD_SIZE;
+        if (pathsOffset + paths.size() > Integer.MAX_VALUE) {
+            throw new IOException("Rollup index too large to map (" + (pathsOffset + paths.size()) + " bytes)");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(count);
+            out.writeInt(tableSize);
+            out.writeLong(rootOffset);
+            out.writeLong(tableOffset);
+            out.writeLong(recordsOffset);
+            out.writeLong(pathsOffset);
+
+            out.writeInt(rootBytes.length);
+            out.write(rootBytes);
+            for (int slot : table) out.writeInt(slot);
+            for (int i = 0; i < count; i++) {
+                out.writeInt(pathOffsets[i]);
+                out.writeInt(pathLengths[i]);
+                for (long v : folders.get(order.get(i))) out.writeLong(v);
+            }
+            paths.writeTo(out);
+        }
+    }
+
+    // a folder counts once in every ancestor; ancestors the lists skipped are created on the way
+    private void addRelative(String rel) {
+        if (folders.containsKey(rel)) return;
+        String parent = parent(rel);
+        addRelative(parent);
+        folders.put(rel, new long[COUNTERS]);
+        order.add(rel);
+        for (String p = parent; p != null; p = parent(p)) folders.get(p)[FOLDERS]++;
+    }
+
+    // root-relative, '/'-separated; "" for the root itself and null for paths outside it
+    private String relativize(String path) {
+        for (String prefix : prefixes) {
+            if (!path.startsWith(prefix)) continue;
+            if (path.length() == prefix.length()) return "";
+            int start = prefix.length();
+            if (path.charAt(start) == File.separatorChar) start++;
+            else if (!prefix.endsWith(File.separator)) continue;
+            String rel = path.substring(start);
+            return File.separatorChar == '/' ? rel : rel.replace(File.separatorChar, '/');
+        }
+        return null;
+    }
+
+    private static String parent(String rel) {
+        if (rel.isEmpty()) return null;
+        int slash = rel.lastIndexOf('/');
+        return slash < 0 ? "" : rel.substring(0, slash);
+    }
+}
@@ -0,0 +1,156 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two runs with a single merge-join over their path-ordered entries ({@link RunEntries}): no
+ * path set is built, only the (capped) lists being returned and the per-folder deltas.
+ *
+ * <p>A file is "changed" when it is in both runs and a metric known on both sides differs (size, lines or
+ * methods). Folder deltas are cumulative: a file added in {@code a/b} counts towards {@code a/b} and {@code a}.
+ */
+public final class RunDiff {
+
+    private static final char SEP = File.separatorChar;
+
+    private final String rootPath;
+    private final int limit;
+
+    private final List<String> added = new ArrayList<>();
+    private final List<String> removed = new ArrayList<>();
+    private final List<Map<String, Object>> changed = new ArrayList<>();
+    private long addedCount;
+    private long removedCount;
+    private long changedCount;
+    private long unchangedCount;
+
+    // folder -> {files, bytes, lines}
+    private final TreeMap<String, long[]> folders = new TreeMap<>(RunEntries.PATH_ORDER);
+
+    private RunDiff(String rootPath, int limit) {
+        this.rootPath = rootPath;
+        this.limit = limit;
+    }
+
+    /**
+     * Diff {@code from} against {@code to}. At most {@code limit} paths are listed per category; the counts
+     * and folder deltas always cover every entry.
+     */
+    public static Map<String, Object> compute(String rootPath, RunEntries from, RunEntries to, int limit) {
+        RunDiff diff = new RunDiff(rootPath, limit);
+        diff.mergeJoin(from, to);
+        return diff.toMap(from.source(), to.source());
+    }
+
+    private void mergeJoin(RunEntries from, RunEntries to) {
+        RunEntries.Entry a = from.hasNext() ? from.next() : null;
+        RunEntries.Entry b = to.hasNext() ? to.next() : null;
+        while (a != null || b != null) {
+            int cmp = a == null ? 1 : b == null ? -1 : RunEntries.PATH_ORDER.compare(a.path(), b.path());
+            if (cmp < 0) {
+                removed(a);
+                a = from.hasNext() ? from.next() : null;
+            } else if (cmp > 0) {
+                added(b);
+                b = to.hasNext() ? to.next() : null;
+            } else {
+                compare(a, b);
+                a = from.hasNext() ? from.next() : null;
+                b = to.hasNext() ? to.next() : null;
+            }
+        }
+    }
+
+    private void added(RunEntries.Entry e) {
+        addedCount++;
+        if (added.size() < limit) added.add(e.path());
+        apply(e.path(), 1, known(e.size()), known(e.lines()));
+    }
+
+    private void removed(RunEntries.Entry e) {
+        removedCount++;
+        if (removed.size() < limit) removed.add(e.path());
+        apply(e.path(), -1, -known(e.size()), -known(e.lines()));
+    }
+
+    private void compare(RunEntries.Entry a, RunEntries.Entry b) {
+        boolean sizeDiffers = a.size() >= 0 && b.size() >= 0 && a.size() != b.size();
+        boolean linesDiffer = a.lines() >= 0 && b.lines() >= 0 && a.lines() != b.lines();
+        boolean methodsDiffer = a.methods() >= 0 && b.methods() >= 0 && a.methods() != b.methods();
+        if (!sizeDiffers && !linesDiffer && !methodsDiffer) {
+            unchangedCount++;
+            return;
+        }
+        changedCount++;
+        if (changed.size() < limit) {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("path", a.path());
+            c.put("sizeFrom", a.size());
+            c.put("sizeTo", b.size());
+            c.put("linesFrom", a.lines());
+            c.put("linesTo", b.lines());
+            c.put("methodsFrom", a.methods());
+            c.put("methodsTo", b.methods());
+            changed.add(c);
+        }
+        long bytes = a.size() >= 0 && b.size() >= 0 ? b.size() - a.size() : 0L;
+        long lines = a.lines() >= 0 && b.lines() >= 0 ? b.lines() - a.lines() : 0L;
+        apply(a.path(), 0, bytes, lines);
+    }
+
+    private void apply(String filePath, int files, long bytes, long lines) {
+        if (files == 0 && bytes == 0 && lines == 0) return;
+        String folder = parent(filePath);
+        while (folder != null) {
+            long[] d = folders.computeIfAbsent(folder, k -> new long[3]);
+            d[0] += files;
+            d[1] += bytes;
+            d[2] += lines;
+            // stop at the scan root; entries outside it only update their own folder
+            if (folder.length() <= rootPath.length() || !folder.startsWith(rootPath)) break;
+            folder = parent(folder);
+        }
+    }
+
+    private static String parent(String path) {
+        int cut = path.lastIndexOf(SEP);
+        if (cut < 0) return null;
+        return cut == 0 ? path.substring(0, 1) : path.substring(0, cut);
+    }
+
+    private static long known(long v) {
+        return v < 0 ? 0L : v;
+    }
+
+    private Map<String, Object> toMap(String fromSource, String toSource) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("fromSource", fromSource);
+        out.put("toSource", toSource);
+        out.put("addedCount", addedCount);
+        out.put("removedCount", removedCount);
+        out.put("changedCount", changedCount);
+        out.put("unchangedCount", unchangedCount);
+        out.put("truncated", addedCount > added.size() || removedCount > removed.size() || changedCount > changed.size());
+        out.put("added", added);
+        out.put("removed", removed);
+        out.put("changed", changed);
+        List<Map<String, Object>> folderDeltas = new ArrayList<>(folders.size());
+        for (Map.Entry<String, long[]> e : folders.entrySet()) {
+            long[] d = e.getValue();
+            if (d[0] == 0 && d[1] == 0 && d[2] == 0) continue;
+            Map<String, Object> f = new LinkedHashMap<>();
+            f.put("path", e.getKey());
+            f.put("files", d[0]);
+            f.put("bytes", d[1]);
+            f.put("lines", d[2]);
+            folderDeltas.add(f);
+        }
+        out.put("folders", folderDeltas);
+        return out;
+    }
+}
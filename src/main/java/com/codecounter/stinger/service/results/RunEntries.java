@@ -0,0 +1,255 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sequential view of the files recorded by one saved run, in {@link #PATH_ORDER}. The richest available
+ * source is used: {@code file_metrics.csv} (size, lines, methods), then {@code results.bin} (size, lines
+ * when measured), then {@code total_files.txt} (paths only). Unknown metrics are -1.
+ *
+ * <p>The results writers sort what they write into path order, so entries are streamed straight from disk.
+ * Runs saved before that (whose order followed the walk, and symlinked entries outside the root) are
+ * detected by a pre-pass and sorted in memory instead.
+ */
+public final class RunEntries implements Iterator<RunEntries.Entry>, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunEntries.class);
+
+    public record Entry(String path, String type, long size, long lines, int methods) {}
+
+    private static final char SEP = File.separatorChar;
+
+    /**
+     * Tree order: compares path components left to right, so every folder's contents sort directly after
+     * it. This is the order a depth-first walk produces when it visits each directory's entries by name.
+     */
+    public static final Comparator<String> PATH_ORDER = RunEntries::comparePaths;
+
+    private interface Source extends Closeable {
+        /** Next entry, or null at the end. */
+        Entry read() throws IOException;
+    }
+
+    private final Source source;
+    private final String sourceName;
+    private Entry next;
+
+    private RunEntries(Source source, String sourceName) throws IOException {
+        this.source = source;
+        this.sourceName = sourceName;
+        this.next = source.read();
+    }
+
+    /**
+     * Entries of the run folder in {@link #PATH_ORDER}.
+     */
+    public static RunEntries open(Path runFolder) throws IOException {
+        String name = sourceName(runFolder);
+        if (isSorted(runFolder, name)) {
+            return new RunEntries(openSource(runFolder, name), name);
+        }
+        List<Entry> all = new ArrayList<>();
+        try (Source s = openSource(runFolder, name)) {
+            for (Entry e = s.read(); e != null; e = s.read()) all.add(e);
+        }
+        logger.info("{} in {} is not in path order; sorting {} entries in memory", name, runFolder, all.size());
+        all.sort(Comparator.comparing(Entry::path, PATH_ORDER));
+        Iterator<Entry> it = all.iterator();
+        return new RunEntries(new Source() {
+            @Override
+            public Entry read() {
+                return it.hasNext() ? it.next() : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, name);
+    }
+
+    /**
+     * Entries of a {@code file_metrics.csv} written by {@link FileMetricsWriter}, which is already in
+     * {@link #PATH_ORDER}; unlike {@link #open} the file need not sit in a run folder yet.
+     */
+    public static RunEntries metrics(Path file) throws IOException {
+        return new RunEntries(openMetrics(file), FileMetricsWriter.FILE_NAME);
+    }
+
+    /**
+     * The file the entries come from (e.g. {@code file_metrics.csv}).
+     */
+    public String source() {
+        return sourceName;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Entry next() {
+        if (next == null) throw new NoSuchElementException();
+        Entry current = next;
+        try {
+            next = source.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    static int comparePaths(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        for (int i = 0; i < n; i++) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(i);
+            if (ca == cb) continue;
+            // a separator ends a component, so it sorts before any other character
+            if (ca == SEP) return -1;
+            if (cb == SEP) return 1;
+            return Character.compare(ca, cb);
+        }
+        return Integer.compare(a.length(), b.length());
+    }
+
+    private static String sourceName(Path runFolder) throws IOException {
+        for (String candidate : new String[] { FileMetricsWriter.FILE_NAME, BinaryResultsWriter.FILE_NAME, "total_files.txt" }) {
+            if (Files.exists(runFolder.resolve(candidate))) return candidate;
+        }
+        throw new IOException("No file list found in " + runFolder);
+    }
+
+    private static boolean isSorted(Path runFolder, String name) throws IOException {
+        try (Source s = openSource(runFolder, name)) {
+            String previous = null;
+            for (Entry e = s.read(); e != null; e = s.read()) {
+                if (previous != null && comparePaths(previous, e.path()) > 0) return false;
+                previous = e.path();
+            }
+            return true;
+        }
+    }
+
+    private static Source openSource(Path runFolder, String name) throws IOException {
+        Path file = runFolder.resolve(name);
+        if (name.equals(BinaryResultsWriter.FILE_NAME)) {
+            BinaryResultsReader bin = BinaryResultsReader.open(file);
+            Iterator<String> paths = bin.iterator();
+            return new Source() {
+                private int i;
+
+                @Override
+                public Entry read() {
+                    while (paths.hasNext()) {
+                        String p = paths.next();
+                        int idx = i++;
+                        byte kind = bin.kind(idx);
+                        if (kind == BinaryResultsWriter.KIND_FOLDER) continue;
+                        String type = kind == BinaryResultsWriter.KIND_CODE ? "code" : kind == BinaryResultsWriter.KIND_DOC ? "document" : "other";
+                        return new Entry(p, type, bin.fileSize(idx), bin.lines(idx), bin.methods(idx));
+                    }
+                    return null;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+
+        if (name.equals(FileMetricsWriter.FILE_NAME)) return openMetrics(file);
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return new Source() {
+            @Override
+            public Entry read() throws IOException {
+                String line = reader.readLine();
+                while (line != null && line.isEmpty()) line = reader.readLine();
+                return line == null ? null : new Entry(line, "file", -1L, -1L, -1);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    private static Source openMetrics(Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        reader.readLine(); // header
+        return new Source() {
+            @Override
+            public Entry read() throws IOException {
+                String line = reader.readLine();
+                return line == null ? null : parseMetricsRow(line);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    // path,type,ext,size,lines,methods,elapsedMs — only the path (and in theory ext) may be quoted
+    private static Entry parseMetricsRow(String line) {
+        String path;
+        int rest;
+        if (line.startsWith("\"")) {
+            StringBuilder sb = new StringBuilder();
+            int i = 1;
+            while (i < line.length()) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        sb.append('"');
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                sb.append(c);
+                i++;
+            }
+            path = sb.toString();
+            rest = i + 2; // closing quote and comma
+        } else {
+            int comma = line.indexOf(',');
+            path = line.substring(0, comma);
+            rest = comma + 1;
+        }
+        String[] cols = line.substring(rest).split(",");
+        int n = cols.length;
+        // read from the end so a quoted ext containing commas cannot shift the numeric columns
+        return new Entry(path, cols[0], parseLong(cols[n - 4]), parseLong(cols[n - 3]), (int) parseLong(cols[n - 2]));
+    }
+
+    private static long parseLong(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
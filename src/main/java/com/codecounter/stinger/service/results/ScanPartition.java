@@ -0,0 +1,88 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One slice of a root for a multi-node scan: a scan of partition {@code part} of {@code parts} covers the
+ * root's top-level entries (folders and files) whose name hashes to {@code part}, and everything below
+ * them. The assignment depends only on the name ({@link String#hashCode()} is fixed by the language), so
+ * nodes agree on it without coordinating and every entry lands in exactly one partition.
+ *
+ * <p>A partial results folder carries a {@value #MANIFEST} naming the root and the partition, which
+ * {@link PartialMerger} checks before combining partials.
+ */
+public record ScanPartition(int part, int parts) {
+
+    public static final String MANIFEST = "partial.txt";
+
+    public ScanPartition {
+        if (parts < 1 || part < 0 || part >= parts) {
+            throw new IllegalArgumentException("Invalid partition " + part + " of " + parts);
+        }
+    }
+
+    /**
+     * Whether the root's top-level entry {@code name} belongs to this partition.
+     */
+    public boolean includes(String name) {
+        return Math.floorMod(name.hashCode(), parts) == part;
+    }
+
+    /**
+     * Folder name for this partition's partial runs, e.g. {@code part0of3}.
+     */
+    public String folderName() {
+        return "part" + part + "of" + parts;
+    }
+
+    /**
+     * @param root the root as given to the scan
+     * @param rootPath the root's absolute path, as hotspot lists name it
+     * @param rootFiles analyzed files directly in the root that belong to this partition
+     */
+    public void writeManifest(Path folder, String root, String rootPath, long rootFiles) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(folder.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+            w.write("root: " + root);
+            w.newLine();
+            w.write("rootPath: " + rootPath);
+            w.newLine();
+            w.write("part: " + part);
+            w.newLine();
+            w.write("parts: " + parts);
+            w.newLine();
+            w.write("rootFiles: " + rootFiles);
+            w.newLine();
+        }
+    }
+
+    /**
+     * The keys of a partial results folder's manifest ({@code root}, {@code rootPath}, {@code part},
+     * {@code parts}, {@code rootFiles}).
+     */
+    public static Map<String, String> readManifest(Path folder) throws IOException {
+        Path file = folder.resolve(MANIFEST);
+        if (!Files.exists(file)) throw new IOException("Not a partial results folder (no " + MANIFEST + "): " + folder);
+        Map<String, String> map = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            String[] kv = line.split(":", 2);
+            if (kv.length == 2) map.put(kv[0].trim(), kv[1].trim());
+        }
+        return map;
+    }
+
+    public static ScanPartition of(Map<String, String> manifest) throws IOException {
+        try {
+            return new ScanPartition(Integer.parseInt(manifest.get("part")), Integer.parseInt(manifest.get("parts")));
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid partition in " + MANIFEST + ": " + manifest, e);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+/**
+ * Compact in-memory store for the paths collected by a scan. Each entry keeps only its parent id and
+ * its own name (UTF-8 in a shared byte arena), so directory prefixes are stored once no matter how
+ * many files sit below them. Categories are kept as one {@link BitSet} per category instead of one
+ * list per category, so a file that is both in "all files" and "code files" is stored once.
+ *
+ * <p>The store also acts as the walker's visited set: {@link #child(int, String)} and
+ * {@link #find(String)} use an open-addressing (parentId, name) index.
+ *
+ * <p>Not thread-safe; one store belongs to one walk.
+ */
+public final class ScanPathStore {
+
+    public static final int FOLDER = 0;
+    public static final int CODE = 1;
+    public static final int DOC = 2;
+    public static final int OTHER = 3;
+
+    private static final String SEP = File.separator;
+
+    private final String rootPath;
+    private final BitSet[] categories = { new BitSet(), new BitSet(), new BitSet(), new BitSet() };
+
+    private int size;
+    private int[] parents = new int[1024];
+    private int[] nameStarts = new int[1025];
+    private byte[] names = new byte[16 * 1024];
+
+    // open-addressing index of (parent, name) -> id + 1; 0 marks an empty slot
+    private int[] table = new int[2048];
+
+    private int cachedParent = -1;
+    private String cachedParentPath;
+
+    public ScanPathStore(String rootPath) {
+        this.rootPath = rootPath;
+        add(-1, rootPath);
+    }
+
+    public int root() {
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add a new entry below {@code parentId} (use -1 for an entry whose name is an absolute path).
+     */
+    public int add(int parentId, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if ((size + 1) * 2 > table.length) rehash(table.length * 2);
+        int id = size;
+        if (id + 1 >= parents.length) {
+            int cap = parents.length * 2;
+            parents = Arrays.copyOf(parents, cap);
+            nameStarts = Arrays.copyOf(nameStarts, cap + 1);
+        }
+        int start = nameStarts[id];
+        if (start + bytes.length > names.length) {
+            names = Arrays.copyOf(names, Math.max(start + bytes.length, names.length * 2));
+        }
+        System.arraycopy(bytes, 0, names, start, bytes.length);
+        nameStarts[id + 1] = start + bytes.length;
+        parents[id] = parentId;
+        size++;
+        insert(id, hash(parentId, bytes, 0, bytes.length));
+        return id;
+    }
+
+    public void mark(int id, int category) {
+        categories[category].set(id);
+    }
+
+    public boolean has(int id, int category) {
+        return categories[category].get(id);
+    }
+
+    /**
+     * True when the entry was recorded by the walker in any category (as opposed to an entry that
+     * only exists to give a symlink target a parent).
+     */
+    public boolean isCollected(int id) {
+        for (BitSet b : categories) {
+            if (b.get(id)) return true;
+        }
+        return false;
+    }
+
+    public int count(int category) {
+        return categories[category].cardinality();
+    }
+
+    /**
+     * Id of the entry called {@code name} directly below {@code parentId}, or -1.
+     */
+    public int child(int parentId, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int mask = table.length - 1;
+        int slot = hash(parentId, bytes, 0, bytes.length) & mask;
+        while (table[slot] != 0) {
+            int id = table[slot] - 1;
+            if (parents[id] == parentId
+                && Arrays.equals(names, nameStarts[id], nameStarts[id + 1], bytes, 0, bytes.length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Locate an absolute path, or -1 if it has not been stored.
+     */
+    public int find(String absolutePath) {
+        return locate(absolutePath, false);
+    }
+
+    /**
+     * Locate an absolute path, creating uncategorised entries for it and any missing parents. Paths
+     * outside the root hang off a detached entry named by their absolute parent path.
+     */
+    public int resolve(String absolutePath) {
+        return locate(absolutePath, true);
+    }
+
+    public String name(int id) {
+        return new String(names, nameStarts[id], nameStarts[id + 1] - nameStarts[id], StandardCharsets.UTF_8);
+    }
+
+    public String path(int id) {
+        int parent = parents[id];
+        if (parent < 0) return name(id);
+        String parentPath;
+        if (parent == cachedParent) {
+            parentPath = cachedParentPath;
+        } else {
+            parentPath = path(parent);
+            cachedParent = parent;
+            cachedParentPath = parentPath;
+        }
+        return join(parentPath, name(id));
+    }
+
+    /**
+     * Paths of every entry in the given category, in the order they were added.
+     */
+    public Iterable<String> paths(int category) {
+        return paths(category, category);
+    }
+
+    /**
+     * Paths of every entry in either category (e.g. CODE and DOC for "all files"), in the order they were added.
+     */
+    public Iterable<String> paths(int category, int other) {
+        BitSet bits = (BitSet) categories[category].clone();
+        bits.or(categories[other]);
+        return () -> new Iterator<>() {
+            private int next = bits.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (next < 0) throw new NoSuchElementException();
+                String p = path(next);
+                next = bits.nextSetBit(next + 1);
+                return p;
+            }
+        };
+    }
+
+    public static String join(String parentPath, String name) {
+        return parentPath.endsWith(SEP) ? parentPath + name : parentPath + SEP + name;
+    }
+
+    private int locate(String absolutePath, boolean create) {
+        if (absolutePath.equals(rootPath)) return 0;
+        String rootPrefix = rootPath.endsWith(SEP) ? rootPath : rootPath + SEP;
+        int parent;
+        String rest;
+        if (absolutePath.startsWith(rootPrefix)) {
+            parent = 0;
+            rest = absolutePath.substring(rootPrefix.length());
+        } else {
+            int cut = absolutePath.lastIndexOf(SEP);
+            if (cut <= 0) return -1;
+            String dir = absolutePath.substring(0, cut);
+            parent = child(-1, dir);
+            if (parent < 0) {
+                if (!create) return -1;
+                parent = add(-1, dir);
+            }
+            rest = absolutePath.substring(cut + SEP.length());
+        }
+        for (String part : rest.split(Pattern.quote(SEP))) {
+            if (part.isEmpty()) continue;
+            int next = child(parent, part);
+            if (next < 0) {
+                if (!create) return -1;
+                next = add(parent, part);
+            }
+            parent = next;
+        }
+        return parent;
+    }
+
+    private void insert(int id, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) slot = (slot + 1) & mask;
+        table[slot] = id + 1;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            insert(id, hash(parents[id], names, nameStarts[id], nameStarts[id + 1]));
+        }
+    }
+
+    private static int hash(int parent, byte[] bytes, int from, int to) {
+        int h = parent * 0x9E3779B9;
+        for (int i = from; i < to; i++) h = 31 * h + bytes[i];
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,143 @@
+package com.codecounter.stinger.service.results;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Stratified random sample of a population streamed past it once, and population totals extrapolated
+ * from measurements of the sample. Every stratum keeps a uniform reservoir of at most {@code perStratum}
+ * items (Algorithm R), so memory is bounded by the number of strata, not the population. Totals are the
+ * classic stratified estimator {@code sum(N_h * mean_h)}; the standard error applies the finite population
+ * correction, so a stratum measured in full contributes no uncertainty.
+ *
+ * <p>A stratum none of whose sampled items could be measured has no mean to extrapolate, so it is left out
+ * of the totals and their intervals and counted by {@link #unmeasuredStrata()} and
+ * {@link #unmeasuredPopulation()} instead; callers must report it. A stratum with one measured item has no
+ * spread to estimate its variance from and is charged a standard deviation as large as that item's value.
+ *
+ * <p>Not thread-safe.
+ */
+public final class StratifiedEstimator<T> {
+
+    /** z for a two-sided 95% normal interval. */
+    public static final double Z_95 = 1.959964;
+
+    /**
+     * Extrapolated total with its standard error and 95% interval (clamped at the measured lower bound:
+     * the total can't be less than what the sample itself contained).
+     */
+    public record Interval(double estimate, double standardError, double low, double high) {}
+
+    private final int perStratum;
+    private final Random random;
+    private final Map<String, Stratum<T>> strata = new LinkedHashMap<>();
+    private long population;
+    private int unmeasuredStrata;
+    private long unmeasuredPopulation;
+
+    public StratifiedEstimator(int perStratum, long seed) {
+        this.perStratum = Math.max(2, perStratum);
+        this.random = new Random(seed);
+    }
+
+    public void offer(String stratum, T item) {
+        population++;
+        Stratum<T> s = strata.computeIfAbsent(stratum, k -> new Stratum<>());
+        s.population++;
+        if (s.sample.size() < perStratum) {
+            s.sample.add(item);
+        } else {
+            long j = (long) (random.nextDouble() * s.population);
+            if (j < perStratum) s.sample.set((int) j, item);
+        }
+    }
+
+    public long population() {
+        return population;
+    }
+
+    public int strata() {
+        return strata.size();
+    }
+
+    public int sampleSize() {
+        int n = 0;
+        for (Stratum<T> s : strata.values()) n += s.sample.size();
+        return n;
+    }
+
+    /**
+     * Strata left out of the last {@link #estimate} because none of their sampled items could be measured.
+     */
+    public int unmeasuredStrata() {
+        return unmeasuredStrata;
+    }
+
+    /**
+     * Items in the {@link #unmeasuredStrata()}: the part of the population the last estimate does not cover.
+     */
+    public long unmeasuredPopulation() {
+        return unmeasuredPopulation;
+    }
+
+    /**
+     * Measure every sampled item once ({@code measure} returns {@code metrics} values, or null when the item
+     * could not be measured) and extrapolate one interval per metric. Items that fail are left out of their
+     * stratum's mean, which still stands for the whole stratum, unless they all fail (see
+     * {@link #unmeasuredStrata()}).
+     */
+    public Interval[] estimate(int metrics, Function<T, long[]> measure) {
+        unmeasuredStrata = 0;
+        unmeasuredPopulation = 0;
+        double[] totals = new double[metrics];
+        double[] variances = new double[metrics];
+        double[] measured = new double[metrics];
+        for (Stratum<T> s : strata.values()) {
+            List<long[]> values = new ArrayList<>(s.sample.size());
+            for (T item : s.sample) {
+                long[] v = measure.apply(item);
+                if (v != null) values.add(v);
+            }
+            int n = values.size();
+            if (n == 0) {
+                unmeasuredStrata++;
+                unmeasuredPopulation += s.population;
+                continue;
+            }
+            double bigN = s.population;
+            for (int m = 0; m < metrics; m++) {
+                double sum = 0;
+                for (long[] v : values) sum += v[m];
+                double mean = sum / n;
+                totals[m] += bigN * mean;
+                measured[m] += sum;
+                if (n < bigN) {
+                    double sampleVariance;
+                    if (n > 1) {
+                        double ss = 0;
+                        for (long[] v : values) ss += (v[m] - mean) * (v[m] - mean);
+                        sampleVariance = ss / (n - 1);
+                    } else {
+                        sampleVariance = mean * mean;
+                    }
+                    variances[m] += bigN * bigN * (1 - n / bigN) * sampleVariance / n;
+                }
+            }
+        }
+        Interval[] out = new Interval[metrics];
+        for (int m = 0; m < metrics; m++) {
+            double se = Math.sqrt(variances[m]);
+            out[m] = new Interval(totals[m], se, Math.max(measured[m], totals[m] - Z_95 * se), totals[m] + Z_95 * se);
+        }
+        return out;
+    }
+
+    private static final class Stratum<T> {
+        long population;
+        final List<T> sample = new ArrayList<>();
+    }
+}
@@ -0,0 +1,319 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a run's path lists in {@link RunEntries#PATH_ORDER}, whatever order the walker produces them in.
+ * The walker hands entries to {@link #accept} which places them on a bounded queue; a single writer thread
+ * drains the queue into an {@link ExternalSorter}, which spills sorted runs into the temporary folder once
+ * its memory budget is used up. {@link #close()} merges them into {@code folders.txt},
+ * {@code total_files.txt}, {@code code_files.txt}, {@code document_files.txt} and {@code other_files.txt}
+ * (and feeds {@link BinaryResultsWriter} when the binary format is on). When the queue is full the walker
+ * blocks, so memory stays bounded, and the same tree gives byte-identical lists on every run.
+ *
+ * <p>Everything is written into a temporary folder next to the final one, so readers never see a
+ * half-written run folder: {@link #commitTo(Path)} renames the temporary folder into place once the caller
+ * has added {@code summary.txt}.
+ *
+ * <p>Categories are the {@link ScanPathStore} constants, which double as the binary format's kinds.
+ *
+ * <p>When the run was analyzed, {@link #measuredBy} names its {@code file_metrics.csv}; being in the same path
+ * order, it is read alongside the sorted entries at {@link #close()} to give each file's results.bin record
+ * the lines and methods measured for it.
+ */
+public final class StreamingResultsWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingResultsWriter.class);
+
+    private static final int QUEUE_CAPACITY = 4096;
+    public static final long DEFAULT_SORT_BUDGET = 32L * 1024 * 1024;
+    private static final String[] LIST_FILES = { "folders.txt", "code_files.txt", "document_files.txt", "other_files.txt" };
+    private static final String TOTAL_FILES = "total_files.txt";
+
+    private record Entry(int category, String path, long size, long lines) {}
+
+    private static final Entry END = new Entry(-1, "", 0L, 0L);
+
+    // path order, then category: a symlinked file can be listed under the same path in two categories
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::path, RunEntries.PATH_ORDER)
+        .thenComparingInt(Entry::category);
+
+    private static final ExternalSorter.Codec<Entry> CODEC = new ExternalSorter.Codec<>() {
+        @Override
+        public void write(DataOutputStream out, Entry e) throws IOException {
+            out.writeByte(e.category());
+            ExternalSorter.writeString(out, e.path());
+            out.writeLong(e.size());
+            out.writeLong(e.lines());
+        }
+
+        @Override
+        public Entry read(DataInputStream in) throws IOException {
+            int category = in.readByte();
+            return new Entry(category, ExternalSorter.readString(in), in.readLong(), in.readLong());
+        }
+
+        @Override
+        public long size(Entry e) {
+            return 64L + 2L * e.path().length();
+        }
+    };
+
+    private final Path folder;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BufferedWriter[] lists;
+    private final BufferedWriter totalFiles;
+    private final BinaryResultsWriter binary;
+    private final Thread writer;
+    // touched by the writer thread until it has been joined in close()
+    private final ExternalSorter<Entry> sorter;
+
+    // producer-side tallies; only the walker thread touches these
+    private final long[] counts = new long[4];
+    private final long[] lines = new long[4];
+
+    private volatile IOException failure;
+    private boolean closed;
+    private Path metricsFile;
+    // read only while close() writes the sorted entries
+    private RunEntries measurements;
+    private RunEntries.Entry measured;
+
+    private StreamingResultsWriter(Path folder, String root, boolean text, boolean binary, long sortBudget) throws IOException {
+        this.folder = folder;
+        this.sorter = new ExternalSorter<>(ORDER, CODEC, sortBudget, folder);
+        if (text) {
+            this.lists = new BufferedWriter[LIST_FILES.length];
+            for (int i = 0; i < LIST_FILES.length; i++) {
+                lists[i] = Files.newBufferedWriter(folder.resolve(LIST_FILES[i]), StandardCharsets.UTF_8);
+            }
+            this.totalFiles = Files.newBufferedWriter(folder.resolve(TOTAL_FILES), StandardCharsets.UTF_8);
+        } else {
+            this.lists = null;
+            this.totalFiles = null;
+        }
+        this.binary = binary ? new BinaryResultsWriter(root) : null;
+        this.writer = new Thread(this::drain, "results-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Start writing into {@code folder} (normally a fresh temporary directory inside the root's results folder).
+     */
+    public static StreamingResultsWriter start(Path folder, String root, boolean text, boolean binary) throws IOException {
+        return start(folder, root, text, binary, DEFAULT_SORT_BUDGET);
+    }
+
+    /**
+     * As {@link #start(Path, String, boolean, boolean)}, spilling sorted runs once buffered entries pass
+     * roughly {@code sortBudget} bytes of heap.
+     */
+    public static StreamingResultsWriter start(Path folder, String root, boolean text, boolean binary, long sortBudget) throws IOException {
+        return new StreamingResultsWriter(folder, root, text, binary, sortBudget);
+    }
+
+    public Path folder() {
+        return folder;
+    }
+
+    /**
+     * Queue one entry. {@code lines} is -1 when not measured. Blocks while the writer is behind.
+     */
+    public void accept(int category, String path, long size, long lineCount) {
+        counts[category]++;
+        if (lineCount > 0) lines[category] += lineCount;
+        if (failure != null) return;
+        try {
+            queue.put(new Entry(category, path, size, lineCount));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new InterruptedIOException("Interrupted while queueing results for " + folder);
+        }
+    }
+
+    /**
+     * Fill results.bin's lines and methods from {@code metricsFile}, a path-sorted {@code file_metrics.csv}
+     * with rows named by the same paths as the entries. Files without a row keep the lines they were queued
+     * with and no method count.
+     */
+    public void measuredBy(Path metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    public long count(int category) {
+        return counts[category];
+    }
+
+    public long lines(int category) {
+        return lines[category];
+    }
+
+    /**
+     * Drain the queue, write the sorted lists and close them. Rethrows the first write failure.
+     */
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            queue.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.interrupt();
+            closeLists();
+            throw new InterruptedIOException("Interrupted while flushing results to " + folder);
+        }
+        try {
+            if (failure == null) {
+                if (sorter.runs() > 0) {
+                    logger.debug("Merging {} sorted runs of {} entries into {}", sorter.runs(), sorter.records(), folder);
+                }
+                if (binary != null && metricsFile != null) measurements = RunEntries.metrics(metricsFile);
+                sorter.finish(this::write);
+            }
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+        } catch (UncheckedIOException e) {
+            // a metrics row that could not be read
+            if (failure == null) failure = e.getCause();
+        } finally {
+            closeLists();
+            sorter.close();
+            if (measurements != null) measurements.close();
+        }
+        if (failure != null) throw failure;
+        if (binary != null) {
+            binary.writeTo(folder.resolve(BinaryResultsWriter.FILE_NAME));
+        }
+    }
+
+    /**
+     * Rename the temporary folder to {@code target}; atomic when the filesystem supports it.
+     * Fails with {@link FileAlreadyExistsException} if {@code target} already exists.
+     */
+    public void commitTo(Path target) throws IOException {
+        if (Files.exists(target)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        try {
+            Files.move(folder, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(folder, target);
+        }
+    }
+
+    /**
+     * Stop the writer and delete the temporary folder.
+     */
+    public void abort() {
+        if (!closed) {
+            closed = true;
+            writer.interrupt();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try (Stream<Path> s = Files.walk(folder)) {
+            s.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException e) {
+                    logger.debug("Failed to delete {}: {}", p, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.debug("Failed to clean up temporary results folder {}: {}", folder, e.getMessage());
+        }
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(256);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, 255);
+                for (Entry e : batch) {
+                    if (e == END) return;
+                    if (failure == null) sort(e);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeLists();
+        }
+    }
+
+    private void sort(Entry e) {
+        try {
+            sorter.add(e);
+        } catch (IOException ex) {
+            failure = ex;
+            logger.warn("Failed to spill sorted results into {}: {}", folder, ex.getMessage());
+        }
+    }
+
+    private void write(Entry e) throws IOException {
+        if (lists != null) {
+            BufferedWriter w = lists[e.category()];
+            w.write(e.path());
+            w.newLine();
+            if (e.category() == ScanPathStore.CODE || e.category() == ScanPathStore.DOC) {
+                totalFiles.write(e.path());
+                totalFiles.newLine();
+            }
+        }
+        if (binary != null) {
+            RunEntries.Entry m = e.category() == ScanPathStore.FOLDER ? null : measurement(e.path());
+            if (m != null) binary.add((byte) e.category(), e.path(), e.size(), m.lines(), m.methods());
+            else binary.add((byte) e.category(), e.path(), e.size(), e.lines(), -1);
+        }
+    }
+
+    // the metrics row for path, if any; both sides are in path order so the cursor only moves forward
+    private RunEntries.Entry measurement(String path) {
+        if (measurements == null) return null;
+        while (measured == null || RunEntries.comparePaths(measured.path(), path) < 0) {
+            if (!measurements.hasNext()) return null;
+            measured = measurements.next();
+        }
+        return measured.path().equals(path) ? measured : null;
+    }
+
+    private void closeLists() {
+        if (lists == null) return;
+        for (BufferedWriter w : lists) closeQuietly(w);
+        closeQuietly(totalFiles);
+    }
+
+    private void closeQuietly(BufferedWriter w) {
+        try {
+            w.close();
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+        }
+    }
+}
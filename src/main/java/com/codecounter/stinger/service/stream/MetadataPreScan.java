@@ -0,0 +1,231 @@
+package com.codecounter.stinger.service.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codecounter.stinger.model.AnalysisResult;
+
+/**
+ * Counts folders, files and bytes of a tree from directory listings and file lengths only — no file is
+ * opened — so it gets well ahead of the real scan that runs at the same time and gives the streaming
+ * progress bars accurate denominators on the first run and after the tree has grown.
+ *
+ * <p>Directories are listed in parallel on a small shared fork/join pool. Counting follows the streaming
+ * walker: every visible directory counts as a folder (ignored ones are not descended), and only code and
+ * document files count as files and bytes.
+ */
+public final class MetadataPreScan {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetadataPreScan.class);
+
+    // listing is latency-bound, so a few threads beyond the core count still help; shared by all scans
+    private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors())));
+
+    /**
+     * The walker's ignore and classification rules.
+     */
+    public interface Rules {
+        /** A file that the walker skips (ignored name or extension). */
+        boolean skipFile(File file);
+
+        /** A directory that is counted but not descended into. */
+        boolean skipDirectory(File directory);
+
+        /** "code", "document" or "other". */
+        String classify(File file);
+    }
+
+    /**
+     * Called with the running counts at most once per interval, and once more when the pre-scan completes.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void update(MetadataPreScan scan);
+    }
+
+    private final Rules rules;
+    private final long intervalNanos;
+    private final Listener listener;
+
+    private final LongAdder folders = new LongAdder();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder codeFiles = new LongAdder();
+    private final LongAdder docFiles = new LongAdder();
+    private final LongAdder otherFiles = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final Set<String> visited = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastUpdate = new AtomicLong(System.nanoTime());
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile boolean complete;
+    private volatile boolean cancelled;
+
+    private MetadataPreScan(Rules rules, long intervalMs, Listener listener) {
+        this.rules = rules;
+        this.intervalNanos = Math.max(0L, intervalMs) * 1_000_000L;
+        this.listener = listener;
+    }
+
+    /**
+     * Start pre-scanning {@code root} in the background.
+     */
+    public static MetadataPreScan start(File root, Rules rules, long intervalMs, Listener listener) {
+        MetadataPreScan scan = new MetadataPreScan(rules, intervalMs, listener);
+        Thread.ofVirtual().name("prescan-" + root.getName()).start(() -> scan.run(root));
+        return scan;
+    }
+
+    /**
+     * Stop early (the real scan has finished); no further updates are sent.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    public long folders() {
+        return folders.sum();
+    }
+
+    public long files() {
+        return files.sum();
+    }
+
+    public long codeFiles() {
+        return codeFiles.sum();
+    }
+
+    public long docFiles() {
+        return docFiles.sum();
+    }
+
+    public long otherFiles() {
+        return otherFiles.sum();
+    }
+
+    public long bytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * Raise the progress denominators in {@code totals} to the pre-scan's counts. Once the pre-scan is
+     * complete its counts are exact and replace estimates from an older run, but never drop below what
+     * the walk in {@code processed} has already seen.
+     */
+    public void mergeInto(AnalysisResult totals, AnalysisResult processed) {
+        boolean exact = complete;
+        totals.setTotalFolders(merge(totals.getTotalFolders(), folders(), processed.getTotalFolders(), exact));
+        totals.setTotalFiles(merge(totals.getTotalFiles(), files(), processed.getTotalFiles(), exact));
+        totals.setTotalCodeFiles(merge(totals.getTotalCodeFiles(), codeFiles(), processed.getTotalCodeFiles(), exact));
+        totals.setTotalDocFiles(merge(totals.getTotalDocFiles(), docFiles(), processed.getTotalDocFiles(), exact));
+    }
+
+    private static int merge(int current, long counted, int processed, boolean exact) {
+        long value = exact ? Math.max(counted, processed) : Math.max(current, counted);
+        return (int) Math.min(Integer.MAX_VALUE, value);
+    }
+
+    private void run(File root) {
+        long start = System.currentTimeMillis();
+        try {
+            markVisited(root);
+            POOL.invoke(new ListDirectory(root));
+            if (!cancelled) {
+                complete = true;
+                logger.info("Pre-scan of {} finished: folders={}, files={}, bytes={} ({}ms)",
+                    root, folders(), files(), bytes(), System.currentTimeMillis() - start);
+                notifyListener();
+            }
+        } catch (Exception e) {
+            logger.warn("Pre-scan of {} failed: {}", root, e.getMessage());
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    private boolean markVisited(File directory) {
+        try {
+            return visited.add(directory.getCanonicalPath());
+        } catch (IOException e) {
+            return visited.add(directory.getAbsolutePath());
+        }
+    }
+
+    private void maybeNotify() {
+        long last = lastUpdate.get();
+        long now = System.nanoTime();
+        if (now - last >= intervalNanos && lastUpdate.compareAndSet(last, now)) {
+            notifyListener();
+        }
+    }
+
+    private void notifyListener() {
+        try {
+            listener.update(this);
+        } catch (Exception e) {
+            logger.debug("Pre-scan listener failed: {}", e.getMessage());
+        }
+    }
+
+    private final class ListDirectory extends RecursiveAction {
+        private final File directory;
+
+        ListDirectory(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled) return;
+            File[] entries = directory.listFiles();
+            if (entries == null) return;
+            List<ListDirectory> children = new ArrayList<>();
+            for (File entry : entries) {
+                if (entry.isHidden()) continue;
+                if (entry.isDirectory()) {
+                    folders.increment();
+                    if (!rules.skipDirectory(entry) && markVisited(entry)) {
+                        children.add(new ListDirectory(entry));
+                    }
+                } else {
+                    if (rules.skipFile(entry)) continue;
+                    switch (rules.classify(entry)) {
+                        case "code" -> {
+                            files.increment();
+                            codeFiles.increment();
+                            bytes.add(entry.length());
+                        }
+                        case "document" -> {
+                            files.increment();
+                            docFiles.increment();
+                            bytes.add(entry.length());
+                        }
+                        default -> otherFiles.increment();
+                    }
+                }
+            }
+            maybeNotify();
+            invokeAll(children);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.codecounter.stinger.service.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.codecounter.stinger.model.AnalysisResult;
+
+/**
+ * Coalesces the streaming walk's per-folder, per-file and per-method notifications into one
+ * {@code progress} frame per interval. Between frames the walker only updates a few fields here; the
+ * running counters are read from the live {@code result}/{@code totals} objects when a frame is built,
+ * and only a small sample of the most recent folder and file names is kept.
+ *
+ * <p>Frames are sent from the walker thread when it calls {@link #tick()} after the interval has
+ * elapsed, so there is no timer thread. Not thread-safe; one aggregator belongs to one stream.
+ *
+ * <p>Each frame also carries the smoothed {@code rate} (bytes and files per second, see
+ * {@link ThroughputMeter}) and {@code etaSeconds}, so a slow disk (low bytes/s) can be told apart from a
+ * large tree (normal rate, long ETA).
+ */
+public final class ProgressAggregator {
+
+    /**
+     * Receives a built frame; failures propagate to the walker.
+     */
+    @FunctionalInterface
+    public interface FrameSink {
+        void send(ProgressFrame frame) throws IOException;
+    }
+
+    private final AnalysisResult result;
+    private final AnalysisResult totals;
+    private final long intervalNanos;
+    private final FrameSink sink;
+
+    private final String[] recentFiles;
+    private final String[] recentFolders;
+    private int fileCursor;
+    private int fileCount;
+    private int folderCursor;
+    private int folderCount;
+
+    private String currentFolder;
+    private String currentCodeFile;
+    private String currentDocFile;
+    private String currentMethod;
+    private long processedBytes;
+    private final ThroughputMeter meter = new ThroughputMeter();
+    private MetadataPreScan preScan;
+    private long eventsSinceFrame;
+    private long frames;
+    private long lastFrame = System.nanoTime();
+
+    public ProgressAggregator(AnalysisResult result, AnalysisResult totals, long intervalMs, int sampleSize, FrameSink sink) {
+        this.result = result;
+        this.totals = totals;
+        this.intervalNanos = Math.max(0L, intervalMs) * 1_000_000L;
+        this.sink = sink;
+        this.recentFiles = new String[Math.max(1, sampleSize)];
+        this.recentFolders = new String[Math.max(1, sampleSize)];
+        meter.sample(lastFrame, 0L, 0L);
+    }
+
+    public void folder(String path) {
+        currentFolder = path;
+        recentFolders[folderCursor] = path;
+        folderCursor = (folderCursor + 1) % recentFolders.length;
+        if (folderCount < recentFolders.length) folderCount++;
+        eventsSinceFrame++;
+    }
+
+    public void codeFile(String path) {
+        currentCodeFile = path;
+        addFile(path);
+    }
+
+    public void docFile(String path) {
+        currentDocFile = path;
+        addFile(path);
+    }
+
+    /**
+     * Bytes of code and document files read so far, for the bytes-based progress.
+     */
+    public void addBytes(long bytes) {
+        if (bytes > 0) processedBytes += bytes;
+    }
+
+    /**
+     * Take folder/file denominators and total bytes from a running pre-scan; each frame raises
+     * {@code totals} to its latest counts.
+     */
+    public void usePreScan(MetadataPreScan preScan) {
+        this.preScan = preScan;
+    }
+
+    public void method(String name) {
+        currentMethod = name;
+        eventsSinceFrame++;
+    }
+
+    /**
+     * Send a frame if the interval has elapsed since the last one.
+     */
+    public void tick() throws IOException {
+        if (System.nanoTime() - lastFrame >= intervalNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * Send a frame now if anything happened since the last one (used once the walk has finished).
+     */
+    public void flush() throws IOException {
+        if (eventsSinceFrame == 0 && frames > 0) return;
+        ProgressFrame frame = buildFrame();
+        lastFrame = System.nanoTime();
+        eventsSinceFrame = 0;
+        fileCount = 0;
+        folderCount = 0;
+        frames++;
+        sink.send(frame);
+    }
+
+    /**
+     * The smoothed throughput behind each frame's {@code rate} and {@code etaSeconds}.
+     */
+    public ThroughputMeter meter() {
+        return meter;
+    }
+
+    public long frames() {
+        return frames;
+    }
+
+    private void addFile(String path) {
+        recentFiles[fileCursor] = path;
+        fileCursor = (fileCursor + 1) % recentFiles.length;
+        if (fileCount < recentFiles.length) fileCount++;
+        eventsSinceFrame++;
+    }
+
+    private ProgressFrame buildFrame() {
+        if (preScan != null) preScan.mergeInto(totals, result);
+        long totalBytes = preScan == null ? 0L : Math.max(preScan.bytes(), processedBytes);
+        meter.sample(System.nanoTime(), processedBytes, result.getTotalFiles());
+        return new ProgressFrame(
+            result.getTotalFolders(), totals.getTotalFolders(),
+            result.getTotalFiles(), totals.getTotalFiles(),
+            result.getTotalCodeFiles(), totals.getTotalCodeFiles(),
+            result.getTotalDocFiles(), totals.getTotalDocFiles(),
+            result.getTotalLines(), totals.getTotalLines(),
+            result.getTotalCodeLines(), totals.getTotalCodeLines(),
+            result.getTotalDocLines(), totals.getTotalDocLines(),
+            result.getTotalMethods(), totals.getTotalMethods(),
+            processedBytes, totalBytes,
+            preScan != null && preScan.isComplete(),
+            Math.round(meter.bytesPerSecond()), Math.round(meter.filesPerSecond() * 10) / 10.0,
+            meter.etaSeconds(totalBytes, totals.getTotalFiles()),
+            currentFolder, currentCodeFile, currentDocFile, currentMethod,
+            eventsSinceFrame,
+            drain(recentFolders, folderCursor, folderCount),
+            drain(recentFiles, fileCursor, fileCount));
+    }
+
+    // oldest first
+    private static List<String> drain(String[] ring, int cursor, int count) {
+        List<String> out = new ArrayList<>(count);
+        for (int i = count; i > 0; i--) {
+            out.add(ring[(cursor - i + ring.length) % ring.length]);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,65 @@
+package com.codecounter.stinger.service.stream;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One coalesced {@code progress} event. The shape is fixed so {@link ProgressFrameEncoder} can write it as
+ * an SSE frame without a map or Jackson; {@link #toMap()} gives the same fields for anything else.
+ *
+ * @param etaSeconds seconds remaining, or -1 when unknown (sent as {@code null})
+ */
+public record ProgressFrame(
+        long processedFolders, long totalFolders,
+        long processedFiles, long totalFiles,
+        long processedCodeFiles, long totalCodeFiles,
+        long processedDocFiles, long totalDocFiles,
+        long processedLines, long totalLines,
+        long processedCodeLines, long totalCodeLines,
+        long processedDocLines, long totalDocLines,
+        long processedMethods, long totalMethods,
+        long processedBytes, long totalBytes,
+        boolean preScanComplete,
+        long bytesPerSecond, double filesPerSecond,
+        long etaSeconds,
+        String currentFolder, String currentCodeFile, String currentDocFile, String currentMethod,
+        long events,
+        List<String> recentFolders, List<String> recentFiles) {
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("processedFolders", processedFolders);
+        frame.put("totalFolders", totalFolders);
+        frame.put("processedFiles", processedFiles);
+        frame.put("totalFiles", totalFiles);
+        frame.put("processedCodeFiles", processedCodeFiles);
+        frame.put("totalCodeFiles", totalCodeFiles);
+        frame.put("processedDocFiles", processedDocFiles);
+        frame.put("totalDocFiles", totalDocFiles);
+        frame.put("processedLines", processedLines);
+        frame.put("totalLines", totalLines);
+        frame.put("processedCodeLines", processedCodeLines);
+        frame.put("totalCodeLines", totalCodeLines);
+        frame.put("processedDocLines", processedDocLines);
+        frame.put("totalDocLines", totalDocLines);
+        frame.put("processedMethods", processedMethods);
+        frame.put("totalMethods", totalMethods);
+        frame.put("processedBytes", processedBytes);
+        frame.put("totalBytes", totalBytes);
+        frame.put("preScanComplete", preScanComplete);
+        Map<String, Object> rate = new LinkedHashMap<>();
+        rate.put("bytesPerSecond", bytesPerSecond);
+        rate.put("filesPerSecond", filesPerSecond);
+        frame.put("rate", rate);
+        frame.put("etaSeconds", etaSeconds < 0 ? null : etaSeconds);
+        frame.put("currentFolder", currentFolder);
+        frame.put("currentCodeFile", currentCodeFile);
+        frame.put("currentDocFile", currentDocFile);
+        frame.put("currentMethod", currentMethod);
+        frame.put("events", events);
+        frame.put("recentFolders", recentFolders);
+        frame.put("recentFiles", recentFiles);
+        return frame;
+    }
+}
@@ -0,0 +1,255 @@
+package com.codecounter.stinger.service.stream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a {@link ProgressFrame} as a complete SSE frame ({@code id:}, {@code event:progress}, one
+ * {@code data:} line of JSON, blank line) into a reusable byte buffer. Field names are pre-encoded and
+ * numbers are written digit by digit, so a frame costs one exact-size copy of the buffer instead of a
+ * map, its boxed values and a Jackson pass over them.
+ *
+ * <p>Not thread-safe; each SSE sender thread owns one encoder.
+ */
+public final class ProgressFrameEncoder {
+
+    private static final byte[] ID = ascii("id:");
+    private static final byte[] EVENT = ascii("\nevent:progress\ndata:");
+    private static final byte[] END = ascii("\n\n");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+
+    private static final byte[] PROCESSED_FOLDERS = key("{", "processedFolders");
+    private static final byte[] TOTAL_FOLDERS = key(",", "totalFolders");
+    private static final byte[] PROCESSED_FILES = key(",", "processedFiles");
+    private static final byte[] TOTAL_FILES = key(",", "totalFiles");
+    private static final byte[] PROCESSED_CODE_FILES = key(",", "processedCodeFiles");
+    private static final byte[] TOTAL_CODE_FILES = key(",", "totalCodeFiles");
+    private static final byte[] PROCESSED_DOC_FILES = key(",", "processedDocFiles");
+    private static final byte[] TOTAL_DOC_FILES = key(",", "totalDocFiles");
+    private static final byte[] PROCESSED_LINES = key(",", "processedLines");
+    private static final byte[] TOTAL_LINES = key(",", "totalLines");
+    private static final byte[] PROCESSED_CODE_LINES = key(",", "processedCodeLines");
+    private static final byte[] TOTAL_CODE_LINES = key(",", "totalCodeLines");
+    private static final byte[] PROCESSED_DOC_LINES = key(",", "processedDocLines");
+    private static final byte[] TOTAL_DOC_LINES = key(",", "totalDocLines");
+    private static final byte[] PROCESSED_METHODS = key(",", "processedMethods");
+    private static final byte[] TOTAL_METHODS = key(",", "totalMethods");
+    private static final byte[] PROCESSED_BYTES = key(",", "processedBytes");
+    private static final byte[] TOTAL_BYTES = key(",", "totalBytes");
+    private static final byte[] PRE_SCAN_COMPLETE = key(",", "preScanComplete");
+    private static final byte[] RATE_BYTES = ascii(",\"rate\":{\"bytesPerSecond\":");
+    private static final byte[] RATE_FILES = key(",", "filesPerSecond");
+    private static final byte[] ETA_SECONDS = key("},", "etaSeconds");
+    private static final byte[] CURRENT_FOLDER = key(",", "currentFolder");
+    private static final byte[] CURRENT_CODE_FILE = key(",", "currentCodeFile");
+    private static final byte[] CURRENT_DOC_FILE = key(",", "currentDocFile");
+    private static final byte[] CURRENT_METHOD = key(",", "currentMethod");
+    private static final byte[] EVENTS = key(",", "events");
+    private static final byte[] RECENT_FOLDERS = key(",", "recentFolders");
+    private static final byte[] RECENT_FILES = key(",", "recentFiles");
+
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private byte[] buf = new byte[1024];
+    private int len;
+
+    /**
+     * Encode {@code frame} with SSE id {@code id}; returns the frame bytes (a copy, so the caller may keep it).
+     */
+    public byte[] encode(String id, ProgressFrame frame) {
+        len = 0;
+        put(ID);
+        putAscii(id);
+        put(EVENT);
+        field(PROCESSED_FOLDERS, frame.processedFolders());
+        field(TOTAL_FOLDERS, frame.totalFolders());
+        field(PROCESSED_FILES, frame.processedFiles());
+        field(TOTAL_FILES, frame.totalFiles());
+        field(PROCESSED_CODE_FILES, frame.processedCodeFiles());
+        field(TOTAL_CODE_FILES, frame.totalCodeFiles());
+        field(PROCESSED_DOC_FILES, frame.processedDocFiles());
+        field(TOTAL_DOC_FILES, frame.totalDocFiles());
+        field(PROCESSED_LINES, frame.processedLines());
+        field(TOTAL_LINES, frame.totalLines());
+        field(PROCESSED_CODE_LINES, frame.processedCodeLines());
+        field(TOTAL_CODE_LINES, frame.totalCodeLines());
+        field(PROCESSED_DOC_LINES, frame.processedDocLines());
+        field(TOTAL_DOC_LINES, frame.totalDocLines());
+        field(PROCESSED_METHODS, frame.processedMethods());
+        field(TOTAL_METHODS, frame.totalMethods());
+        field(PROCESSED_BYTES, frame.processedBytes());
+        field(TOTAL_BYTES, frame.totalBytes());
+        put(PRE_SCAN_COMPLETE);
+        put(frame.preScanComplete() ? TRUE : FALSE);
+        field(RATE_BYTES, frame.bytesPerSecond());
+        put(RATE_FILES);
+        putTenths(frame.filesPerSecond());
+        put(ETA_SECONDS);
+        if (frame.etaSeconds() < 0) put(NULL); else putLong(frame.etaSeconds());
+        stringField(CURRENT_FOLDER, frame.currentFolder());
+        stringField(CURRENT_CODE_FILE, frame.currentCodeFile());
+        stringField(CURRENT_DOC_FILE, frame.currentDocFile());
+        stringField(CURRENT_METHOD, frame.currentMethod());
+        field(EVENTS, frame.events());
+        put(RECENT_FOLDERS);
+        putList(frame.recentFolders());
+        put(RECENT_FILES);
+        putList(frame.recentFiles());
+        ensure(1);
+        buf[len++] = '}';
+        put(END);
+        return Arrays.copyOf(buf, len);
+    }
+
+    /**
+     * Capacity of the reusable buffer (grows to the largest frame seen).
+     */
+    int capacity() {
+        return buf.length;
+    }
+
+    private void field(byte[] key, long value) {
+        put(key);
+        putLong(value);
+    }
+
+    private void stringField(byte[] key, String value) {
+        put(key);
+        putString(value);
+    }
+
+    private void putList(List<String> values) {
+        if (values == null) {
+            put(NULL);
+            return;
+        }
+        ensure(1);
+        buf[len++] = '[';
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                ensure(1);
+                buf[len++] = ',';
+            }
+            putString(values.get(i));
+        }
+        ensure(1);
+        buf[len++] = ']';
+    }
+
+    private void putLong(long v) {
+        ensure(20);
+        if (v == Long.MIN_VALUE) {
+            putAscii(Long.toString(v));
+            return;
+        }
+        if (v < 0) {
+            buf[len++] = '-';
+            v = -v;
+        }
+        int start = len;
+        do {
+            buf[len++] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        // digits were written backwards
+        for (int i = start, j = len - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+    }
+
+    // one decimal, as the aggregator rounds files/s; matches Jackson's output for such doubles
+    private void putTenths(double v) {
+        long tenths = Math.round(v * 10);
+        if (tenths < 0) {
+            ensure(1);
+            buf[len++] = '-';
+            tenths = -tenths;
+        }
+        putLong(tenths / 10);
+        ensure(2);
+        buf[len++] = '.';
+        buf[len++] = (byte) ('0' + tenths % 10);
+    }
+
+    private void putString(String s) {
+        if (s == null) {
+            put(NULL);
+            return;
+        }
+        // worst case per char: 6 bytes (\\u00XX) or 3 bytes of UTF-8
+        ensure(s.length() * 6 + 2);
+        buf[len++] = '"';
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                buf[len++] = '\\';
+                buf[len++] = (byte) c;
+            } else if (c < 0x20) {
+                switch (c) {
+                    case '\n' -> { buf[len++] = '\\'; buf[len++] = 'n'; }
+                    case '\r' -> { buf[len++] = '\\'; buf[len++] = 'r'; }
+                    case '\t' -> { buf[len++] = '\\'; buf[len++] = 't'; }
+                    default -> {
+                        buf[len++] = '\\';
+                        buf[len++] = 'u';
+                        buf[len++] = '0';
+                        buf[len++] = '0';
+                        buf[len++] = HEX[c >> 4];
+                        buf[len++] = HEX[c & 0xF];
+                    }
+                }
+            } else if (c < 0x80) {
+                buf[len++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[len++] = (byte) (0xC0 | (c >> 6));
+                buf[len++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[len++] = (byte) (0xF0 | (cp >> 18));
+                buf[len++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[len++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[len++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate: same replacement as String.getBytes(UTF_8)
+                buf[len++] = '?';
+            } else {
+                buf[len++] = (byte) (0xE0 | (c >> 12));
+                buf[len++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[len++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buf[len++] = '"';
+    }
+
+    private void putAscii(String s) {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buf[len++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, len, bytes.length);
+        len += bytes.length;
+    }
+
+    private void ensure(int extra) {
+        if (len + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+        }
+    }
+
+    private static byte[] key(String prefix, String name) {
+        return ascii(prefix + "\"" + name + "\":");
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
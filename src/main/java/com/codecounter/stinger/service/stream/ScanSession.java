@@ -0,0 +1,195 @@
+package com.codecounter.stinger.service.stream;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * One running (or recently finished) streaming scan, published on the scan event bus. The scan thread
+ * publishes into the session without knowing who is listening; any number of {@link SseEventPublisher}
+ * subscribers read from it at their own pace.
+ *
+ * <p>Every event gets a sequence number, sent to clients as the SSE id {@code <scanId>:<seq>}, so a
+ * reconnecting EventSource can resume after its {@code Last-Event-ID}. The replay buffer keeps every
+ * regular event (there are only a handful per scan, capped at {@link #MAX_EVENTS}) plus only the latest
+ * {@code progress} frame and {@code totals} update: those carry cumulative counters, so older ones are
+ * never worth replaying.
+ */
+public final class ScanSession {
+
+    static final int MAX_EVENTS = 1024;
+
+    /**
+     * One published event. Subscribers all send the same id and bytes for it, so the first one to encode a
+     * progress frame leaves the bytes here for the others.
+     */
+    public static final class Event {
+        private final long seq;
+        private final String name;
+        private final Object data;
+        private volatile byte[] encoded;
+
+        Event(long seq, String name, Object data) {
+            this.seq = seq;
+            this.name = name;
+            this.data = data;
+        }
+
+        public long seq() {
+            return seq;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Object data() {
+            return data;
+        }
+
+        byte[] encoded() {
+            return encoded;
+        }
+
+        void encoded(byte[] bytes) {
+            encoded = bytes;
+        }
+    }
+
+    private final String id;
+    private final String root;
+    private final Instant startedAt = Instant.now();
+    private final List<Event> events = new ArrayList<>();
+    private final Set<SseEventPublisher> subscribers = new CopyOnWriteArraySet<>();
+
+    // latest-wins events by name
+    private final Map<String, Event> latest = new LinkedHashMap<>();
+
+    private long nextSeq = 1;
+    private volatile boolean finished;
+    private volatile Instant finishedAt;
+
+    public ScanSession(String id, String root) {
+        this.id = id;
+        this.root = root;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String root() {
+        return root;
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    public Instant finishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Replace the latest progress frame.
+     */
+    public void progress(Object frame) {
+        latest("progress", frame);
+    }
+
+    /**
+     * Publish an event that supersedes the previous one of the same name; a lagging subscriber only gets
+     * the newest.
+     */
+    public void latest(String name, Object data) {
+        synchronized (this) {
+            latest.put(name, new Event(nextSeq++, name, data));
+        }
+        wakeSubscribers();
+    }
+
+    /**
+     * Append an event that every subscriber will receive.
+     */
+    public void event(String name, Object data) {
+        synchronized (this) {
+            if (events.size() >= MAX_EVENTS) {
+                events.remove(0);
+            }
+            events.add(new Event(nextSeq++, name, data));
+        }
+        wakeSubscribers();
+    }
+
+    /**
+     * Mark the scan finished; subscribers complete once they have sent everything.
+     */
+    public void finish() {
+        finishedAt = Instant.now();
+        finished = true;
+        wakeSubscribers();
+    }
+
+    /**
+     * Data of the latest event of a latest-wins kind (e.g. the current progress frame), or null.
+     */
+    public synchronized Object latestData(String name) {
+        Event e = latest.get(name);
+        return e == null ? null : e.data();
+    }
+
+    public synchronized long lastSeq() {
+        return nextSeq - 1;
+    }
+
+    /**
+     * The next event after {@code afterSeq} in sequence order, where only the latest of each latest-wins
+     * event is considered; null when the subscriber is up to date.
+     */
+    synchronized Event nextAfter(long afterSeq) {
+        Event next = null;
+        for (Event e : events) {
+            if (e.seq() > afterSeq) {
+                next = e;
+                break;
+            }
+        }
+        for (Event e : latest.values()) {
+            if (e.seq() > afterSeq && (next == null || e.seq() < next.seq())) {
+                next = e;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Whether {@code e} is a latest-wins event, i.e. older ones of the same name may have been skipped.
+     */
+    synchronized boolean supersedes(Event e) {
+        return latest.containsKey(e.name());
+    }
+
+    void subscribe(SseEventPublisher subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    void unsubscribe(SseEventPublisher subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private void wakeSubscribers() {
+        for (SseEventPublisher s : subscribers) s.wake();
+    }
+}
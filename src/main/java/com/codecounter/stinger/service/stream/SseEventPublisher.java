@@ -0,0 +1,151 @@
+package com.codecounter.stinger.service.stream;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One SSE subscriber of a {@link ScanSession}. A dedicated sender thread walks the session's events from
+ * the subscriber's own cursor and writes them to the {@link SseEmitter}, so a slow client never stalls the
+ * scan or other subscribers. While a client lags, progress frames and totals updates it has not received yet
+ * are superseded by the session's latest one; every other event (start, result, saved, done, error) is delivered.
+ *
+ * <p>Each event is sent with the id {@code <scanId>:<seq>}; a reconnecting EventSource passes that back as
+ * {@code Last-Event-ID} and resumes after it.
+ */
+public final class SseEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseEventPublisher.class);
+
+    private final ScanSession session;
+    private final SseEmitter emitter;
+    private final AtomicLong skippedProgress = new AtomicLong();
+    // owned by the sender thread
+    private final ProgressFrameEncoder encoder = new ProgressFrameEncoder();
+    private final CountDownLatch drained = new CountDownLatch(1);
+    private final Thread sender;
+
+    private volatile boolean open = true;
+    private long cursor;
+
+    /**
+     * Subscribe {@code emitter} to {@code session}, starting after sequence number {@code afterSeq} (0 for everything).
+     */
+    public SseEventPublisher(ScanSession session, SseEmitter emitter, long afterSeq) {
+        this.session = session;
+        this.emitter = emitter;
+        this.cursor = afterSeq;
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(e -> close());
+        session.subscribe(this);
+        this.sender = Thread.ofVirtual().name("sse-sender-" + session.id()).start(this::run);
+    }
+
+    /**
+     * Parse a {@code Last-Event-ID} of the form {@code <scanId>:<seq>}; returns null when it is absent or malformed.
+     */
+    public static String[] parseLastEventId(String lastEventId) {
+        if (lastEventId == null) return null;
+        int colon = lastEventId.lastIndexOf(':');
+        if (colon <= 0 || colon == lastEventId.length() - 1) return null;
+        String seq = lastEventId.substring(colon + 1);
+        for (int i = 0; i < seq.length(); i++) {
+            if (!Character.isDigit(seq.charAt(i))) return null;
+        }
+        return new String[] { lastEventId.substring(0, colon), seq };
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Progress frames (and totals updates) this subscriber never saw because a newer one replaced them.
+     */
+    public long skippedProgress() {
+        return skippedProgress.get();
+    }
+
+    /**
+     * Wait until the sender has delivered everything and completed the emitter (or the client has gone).
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        return drained.await(timeout, unit);
+    }
+
+    void wake() {
+        LockSupport.unpark(sender);
+    }
+
+    private void close() {
+        open = false;
+        wake();
+    }
+
+    private void run() {
+        try {
+            while (open) {
+                // read 'finished' before looking for events so the last events published before finish() are not missed
+                boolean finished = session.isFinished();
+                ScanSession.Event e = session.nextAfter(cursor);
+                if (e != null) {
+                    if (e.seq() > cursor + 1 && session.supersedes(e)) {
+                        skippedProgress.addAndGet(e.seq() - cursor - 1);
+                    }
+                    send(e);
+                    cursor = e.seq();
+                } else if (finished) {
+                    complete();
+                    return;
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        } finally {
+            session.unsubscribe(this);
+            drained.countDown();
+        }
+    }
+
+    private void send(ScanSession.Event e) {
+        try {
+            String id = session.id() + ":" + e.seq();
+            if (e.data() instanceof ProgressFrame frame) {
+                // the hot path: written straight to bytes, no map or Jackson conversion, and encoded once
+                // per frame however many clients are watching (a race only means encoding it twice)
+                byte[] bytes = e.encoded();
+                if (bytes == null) {
+                    bytes = encoder.encode(id, frame);
+                    e.encoded(bytes);
+                }
+                // a complete SSE frame, sent as the one item SseEmitter would have built from an event builder
+                emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(bytes, MediaType.TEXT_PLAIN)));
+            } else {
+                emitter.send(SseEmitter.event().id(id).name(e.name()).data(e.data()));
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // client went away; the scan itself carries on for other (or future) subscribers
+            open = false;
+            logger.debug("SSE send of '{}' for scan {} failed — dropping subscriber: {}", e.name(), session.id(), ex.getMessage());
+        }
+    }
+
+    private void complete() {
+        open = false;
+        try {
+            emitter.complete();
+        } catch (Exception ex) {
+            logger.debug("Failed to complete emitter for scan {}: {}", session.id(), ex.getMessage());
+        }
+    }
+}
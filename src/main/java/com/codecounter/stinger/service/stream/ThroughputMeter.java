@@ -0,0 +1,84 @@
+package com.codecounter.stinger.service.stream;
+
+/**
+ * Bytes and files per second as exponentially weighted moving averages of the rate between samples,
+ * plus the time remaining at that rate. The weight of a sample grows with the time it covers
+ * ({@code 1 - e^(-dt/tau)}), so irregular frame intervals don't skew the average, and a change of pace
+ * (a slow disk, a folder of huge files) shows up within a few {@code tau}.
+ *
+ * <p>Not thread-safe; fed by the walker thread when a progress frame is built.
+ */
+public final class ThroughputMeter {
+
+    static final double DEFAULT_TAU_SECONDS = 5.0;
+
+    private final double tauSeconds;
+
+    private long lastNanos;
+    private long lastBytes;
+    private long lastFiles;
+    private boolean started;
+    private boolean primed;
+    private double bytesPerSecond;
+    private double filesPerSecond;
+
+    public ThroughputMeter() {
+        this(DEFAULT_TAU_SECONDS);
+    }
+
+    public ThroughputMeter(double tauSeconds) {
+        this.tauSeconds = tauSeconds;
+    }
+
+    /**
+     * Record the cumulative {@code bytes} and {@code files} processed at {@code nanos} (System.nanoTime()).
+     */
+    public void sample(long nanos, long bytes, long files) {
+        if (!started) {
+            started = true;
+            lastNanos = nanos;
+            lastBytes = bytes;
+            lastFiles = files;
+            return;
+        }
+        double dt = (nanos - lastNanos) / 1e9;
+        if (dt <= 0) return;
+        double byteRate = (bytes - lastBytes) / dt;
+        double fileRate = (files - lastFiles) / dt;
+        if (!primed) {
+            // the first interval seeds the average instead of being pulled up from zero
+            bytesPerSecond = byteRate;
+            filesPerSecond = fileRate;
+            primed = true;
+        } else {
+            double alpha = 1 - Math.exp(-dt / tauSeconds);
+            bytesPerSecond += alpha * (byteRate - bytesPerSecond);
+            filesPerSecond += alpha * (fileRate - filesPerSecond);
+        }
+        lastNanos = nanos;
+        lastBytes = bytes;
+        lastFiles = files;
+    }
+
+    public double bytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public double filesPerSecond() {
+        return filesPerSecond;
+    }
+
+    /**
+     * Seconds left at the current rate, by bytes when the total is known and otherwise by files; -1 when
+     * there is no rate or total yet.
+     */
+    public long etaSeconds(long totalBytes, long totalFiles) {
+        if (totalBytes > 0 && bytesPerSecond > 0) {
+            return Math.round(Math.max(0, totalBytes - lastBytes) / bytesPerSecond);
+        }
+        if (totalFiles > 0 && filesPerSecond > 0) {
+            return Math.round(Math.max(0, totalFiles - lastFiles) / filesPerSecond);
+        }
+        return -1L;
+    }
+}
@@ -9,6 +9,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.codecounter.stinger.service.results.BinaryResultsReader;
+import com.codecounter.stinger.service.results.BinaryResultsWriter;
+
 public final class ScanResultsReader {
 
     private ScanResultsReader() {
@@ -27,6 +30,11 @@ public final class ScanResultsReader {
         }
         Path rootPath = Path.of(root).toAbsolutePath().normalize();
 
+        Path bin = savedResultsDir.resolve(BinaryResultsWriter.FILE_NAME);
+        if (Files.exists(bin)) {
+            return readBinary(savedResultsDir, rootPath, bin);
+        }
+
         List<Path> code = readPathList(savedResultsDir.resolve("code_files.txt"));
         List<Path> docs = readPathList(savedResultsDir.resolve("document_files.txt"));
         List<Path> folders = readPathList(savedResultsDir.resolve("folders.txt"));
@@ -34,6 +42,20 @@ public final class ScanResultsReader {
         return new ScanResults(savedResultsDir.toAbsolutePath().normalize(), rootPath, code, docs, folders);
     }
 
+    private static ScanResults readBinary(Path savedResultsDir, Path rootPath, Path bin) throws IOException {
+        BinaryResultsReader reader = BinaryResultsReader.open(bin);
+        List<Path> code = new ArrayList<>();
+        List<Path> docs = new ArrayList<>();
+        List<Path> folders = new ArrayList<>();
+        reader.forEach((i, p) -> {
+            byte kind = reader.kind(i);
+            if (kind == BinaryResultsWriter.KIND_CODE) code.add(Path.of(p).toAbsolutePath().normalize());
+            else if (kind == BinaryResultsWriter.KIND_DOC) docs.add(Path.of(p).toAbsolutePath().normalize());
+            else if (kind == BinaryResultsWriter.KIND_FOLDER) folders.add(Path.of(p).toAbsolutePath().normalize());
+        });
+        return new ScanResults(savedResultsDir.toAbsolutePath().normalize(), rootPath, code, docs, folders);
+    }
+
     private static List<Path> readPathList(Path file) throws IOException {
         if (!Files.exists(file)) {
             return List.of();
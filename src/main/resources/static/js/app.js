@@ -136,7 +136,7 @@ function displayFiles(files, path) {
                 <span class="file-icon">${icon}</span>
                 <div class="file-info">
                     <div class="file-name">${escapeHtml(file.name)}</div>
-                    <div class="file-type">${typeLabel}${!file.directory && file.size ? ` - ${formatBytes(file.size)}` : ''}</div>
+                    <div class="file-type">${typeLabel}${!file.directory && file.size ? ` - ${formatBytes(file.size)}` : ''}${folderTotals(file)}</div>
                 </div>
             </div>
         `;
@@ -305,6 +305,14 @@ function analyzeDirectoryStream(path) {
                     <div id="totalLinesPercent" class="progress-percent">0%</div>
                 </div>
                 <div id="totalLinesCount" class="progress-count">0 / 0</div>
+                <div class="sub-row">Bytes Read — <span id="analysisEta"></span></div>
+                <div class="progress-row">
+                    <div class="progress">
+                        <div id="totalBytesFill" class="progress-fill" style="width:0%"></div>
+                    </div>
+                    <div id="totalBytesPercent" class="progress-percent">0%</div>
+                </div>
+                <div id="totalBytesCount" class="progress-count">0 / 0</div>
             </section>
         </div>
     `;
@@ -425,44 +433,8 @@ function analyzeDirectoryStream(path) {
         }
     });
 
-    es.addEventListener('directory', (e) => {
-        // show current folder name (most-recent)
-        try { document.getElementById('currentFolderName').textContent = e.data; } catch (err) {}
-        // buffer directory entries and flush in batches to avoid UI freezes
-        dirBuffer.push(e.data);
-        scheduleFlush();
-    });
-
-    es.addEventListener('file', (e) => {
-        // buffer file entries and flush in batches to avoid UI freezes
-        fileBuffer.push(e.data);
-        scheduleFlush();
-    });
-
-        // current method name events (streamed for languages where we can detect methods)
-        es.addEventListener('method', (e) => {
-            try {
-                const methodName = e.data;
-                if (methodName && document.getElementById('currentMethod')) document.getElementById('currentMethod').textContent = methodName;
-            } catch (err) {
-                // ignore
-            }
-        });
-
-        es.addEventListener('methodProgress', (e) => {
-            try {
-                const m = (typeof e.data === 'string') ? JSON.parse(e.data) : e.data;
-                if (m.totalMethods && m.totalMethods > 0) {
-                    const pct = Math.round((m.processedMethods * 100)/m.totalMethods);
-                    document.getElementById('methodsProgressFill').style.width = pct + '%';
-                    document.getElementById('methodsPercent').textContent = pct + '%';
-                    document.getElementById('methodsCount').textContent = m.processedMethods + ' / ' + m.totalMethods;
-                }
-            } catch (err) {
-                console.warn('Could not parse methodProgress event', err);
-            }
-        });
-    // initial totals event: contains the total counts so the UI can show percentages
+    // totals event: the previous run's counts, then updated folder/file/byte counts from the server's
+    // metadata pre-scan while it runs alongside the analysis
     es.addEventListener('totals', (e) => {
         try {
             const totals = (typeof e.data === 'string') ? JSON.parse(e.data) : e.data;
@@ -473,140 +445,56 @@ function analyzeDirectoryStream(path) {
         }
     });
 
-    // folder progress updates
-    es.addEventListener('folderProgress', (e) => {
-        try {
-            const f = (typeof e.data === 'string') ? JSON.parse(e.data) : e.data;
-            if (f.totalFolders && f.totalFolders > 0) {
-                const pct = Math.round((f.processedFolders * 100)/f.totalFolders);
-                document.getElementById('folderProgressFill').style.width = pct + '%';
-                document.getElementById('folderPercent').textContent = pct + '%';
-                document.getElementById('folderCount').textContent = f.processedFolders + ' / ' + f.totalFolders;
-            }
-        } catch (err) {
-            console.warn('Could not parse folderProgress event', err);
-        }
-    });
-
-    // received per-file statistics (lines, methods, processed counts)
-    es.addEventListener('file-stats', (e) => {
-        try {
-            const stats = (typeof e.data === 'string') ? JSON.parse(e.data) : e.data;
-            if (stats.type === 'code') {
-                document.getElementById('currentCodeFile').textContent = stats.path || '(none)';
-                // update code file progress
-                if (stats.totalCodeFiles && stats.totalCodeFiles > 0) {
-                    const pct = Math.round((stats.processedCodeFiles * 100)/stats.totalCodeFiles);
-                    document.getElementById('codeFileProgressFill').style.width = pct + '%';
-                    document.getElementById('codeFilePercent').textContent = pct + '%';
-                    document.getElementById('codeFileCount').textContent = stats.processedCodeFiles + ' / ' + stats.totalCodeFiles;
-                }
-                // update code lines (prefer percent directly if included)
-                if (stats.percentCodeLines !== undefined) {
-                    document.getElementById('codeLinesProgressFill').style.width = stats.percentCodeLines + '%';
-                    document.getElementById('codeLinesPercent').textContent = stats.percentCodeLines + '%';
-                } else if (stats.totalCodeLines && stats.totalCodeLines > 0 && stats.processedCodeLines !== undefined) {
-                    const pct2 = Math.round((stats.processedCodeLines * 100)/stats.totalCodeLines);
-                    document.getElementById('codeLinesProgressFill').style.width = pct2 + '%';
-                    document.getElementById('codeLinesPercent').textContent = pct2 + '%';
-                }
-                if (stats.totalCodeLines && stats.totalCodeLines > 0 && stats.processedCodeLines !== undefined) {
-                     document.getElementById('codeLinesCount').textContent = stats.processedCodeLines + ' / ' + stats.totalCodeLines;
-                }
-                // methods
-                if (stats.totalMethods && stats.totalMethods > 0) {
-                    const mp = Math.round((stats.processedMethods * 100)/stats.totalMethods);
-                    document.getElementById('methodsProgressFill').style.width = mp + '%';
-                    document.getElementById('methodsPercent').textContent = mp + '%';
-                    document.getElementById('methodsCount').textContent = stats.processedMethods + ' / ' + stats.totalMethods;
-                }
-            } else if (stats.type === 'document') {
-                // current document/file being processed
-                document.getElementById('currentDocFile').textContent = stats.path || '(none)';
-
-                // document file count progress (e.g. processedDocFiles / totalDocFiles)
-                if (stats.totalDocFiles && stats.totalDocFiles > 0) {
-                    const pct = Math.round((stats.processedDocFiles * 100)/stats.totalDocFiles);
-                    document.getElementById('docFileProgressFill').style.width = pct + '%';
-                    document.getElementById('docFilePercent').textContent = pct + '%';
-                    document.getElementById('docFileCount').textContent = stats.processedDocFiles + ' / ' + stats.totalDocFiles;
-                }
-
-                // lines within document files: prefer explicit percent if provided,
-                // otherwise compute from processedDocLines / totalDocLines when available
-                if (stats.percentDocLines !== undefined) {
-                    document.getElementById('docLinesProgressFill').style.width = stats.percentDocLines + '%';
-                    document.getElementById('docLinesPercent').textContent = stats.percentDocLines + '%';
-                } else if (stats.totalDocLines && stats.totalDocLines > 0 && stats.processedDocLines !== undefined) {
-                    const pct2 = Math.round((stats.processedDocLines * 100)/stats.totalDocLines);
-                    document.getElementById('docLinesProgressFill').style.width = pct2 + '%';
-                    document.getElementById('docLinesPercent').textContent = pct2 + '%';
-                }
+    // set one progress bar (fill, percent and "processed / total" counter) when a total is known
+    function setBar(fillId, percentId, countId, processed, total) {
+        if (!total || total <= 0 || processed === undefined) return;
+        const pct = Math.min(100, Math.round((processed * 100) / total));
+        const fill = document.getElementById(fillId);
+        const percent = document.getElementById(percentId);
+        const count = document.getElementById(countId);
+        if (fill) fill.style.width = pct + '%';
+        if (percent) percent.textContent = pct + '%';
+        if (count) count.textContent = processed + ' / ' + total;
+    }
 
-                // update the numeric processed/total counters (live)
-                try {
-                    const processed = (stats.processedDocLines !== undefined) ? stats.processedDocLines : null;
-                    const total = (stats.totalDocLines !== undefined) ? stats.totalDocLines : (window._analysisTotals ? window._analysisTotals.totalDocLines : null);
-                    if (processed !== null && total !== null) {
-                        document.getElementById('docLinesCount').textContent = processed + ' / ' + total;
-                    } else if (total !== null) {
-                        // show '0 / <total>' while processing begins
-                        document.getElementById('docLinesCount').textContent = '0 / ' + total;
-                    }
-                } catch (err) { /* ignore missing node */ }
-            }
-        } catch (err) {
-            console.warn('Could not parse file-stats event', err);
-        }
-    });
+    function setText(id, text) {
+        const el = document.getElementById(id);
+        if (el && text) el.textContent = text;
+    }
 
-    // progress brings a compact overall summary so update totals and global bars
+    // the server merges folder/file/method updates into one 'progress' frame per interval: running
+    // counters for every bar, the names currently being processed and a small sample of recent paths
     es.addEventListener('progress', (e) => {
         try {
             const p = (typeof e.data === 'string') ? JSON.parse(e.data) : e.data;
-            if (p.totalFiles && p.totalFiles > 0) {
-                const tf = Math.round((p.processedFiles * 100)/p.totalFiles);
-                document.getElementById('totalFilesFill').style.width = tf + '%';
-                document.getElementById('totalFilesPercent').textContent = tf + '%';
-                document.getElementById('totalFilesCount').textContent = p.processedFiles + ' / ' + p.totalFiles;
-            }
-            if (p.totalLines && p.totalLines > 0) {
-                const tl = Math.round((p.processedLines * 100)/p.totalLines);
-                document.getElementById('totalLinesFill').style.width = tl + '%';
-                document.getElementById('totalLinesPercent').textContent = tl + '%';
-                document.getElementById('totalLinesCount').textContent = p.processedLines + ' / ' + p.totalLines;
-            }
-            // update code lines if included
-            if (p.totalCodeLines && p.totalCodeLines > 0) {
-                const cl = Math.round((p.processedCodeLines * 100)/p.totalCodeLines);
-                document.getElementById('codeLinesProgressFill').style.width = cl + '%';
-                document.getElementById('codeLinesPercent').textContent = cl + '%';
-                document.getElementById('codeLinesCount').textContent = p.processedCodeLines + ' / ' + p.totalCodeLines;
-            }
 
-            // update doc files progress if included
-            if (p.totalDocFiles && p.totalDocFiles > 0) {
-                const df = Math.round((p.processedDocFiles * 100)/p.totalDocFiles);
-                document.getElementById('docFileProgressFill').style.width = df + '%';
-                document.getElementById('docFilePercent').textContent = df + '%';
-                document.getElementById('docFileCount').textContent = p.processedDocFiles + ' / ' + p.totalDocFiles;
-            }
+            setText('currentFolderName', p.currentFolder);
+            setText('currentCodeFile', p.currentCodeFile);
+            setText('currentDocFile', p.currentDocFile);
+            setText('currentMethod', p.currentMethod);
 
-            // update document lines progress if included
-            if (p.totalDocLines && p.totalDocLines > 0) {
-                const dl = Math.round((p.processedDocLines * 100)/p.totalDocLines);
-                document.getElementById('docLinesProgressFill').style.width = dl + '%';
-                document.getElementById('docLinesPercent').textContent = dl + '%';
-                // update the compact counter (processed / total) if available in the compact progress event
-                try {
-                    const processed = p.processedDocLines !== undefined ? p.processedDocLines : null;
-                    if (processed !== null) {
-                        document.getElementById('docLinesCount').textContent = processed + ' / ' + p.totalDocLines;
-                    } else {
-                        // fallback to '0 / total'
-                        document.getElementById('docLinesCount').textContent = '0 / ' + p.totalDocLines;
-                    }
-                } catch (err) { /* ignore DOM issues */ }
+            if (Array.isArray(p.recentFolders) && p.recentFolders.length) {
+                dirBuffer.push(...p.recentFolders);
+            }
+            if (Array.isArray(p.recentFiles) && p.recentFiles.length) {
+                fileBuffer.push(...p.recentFiles);
+            }
+            if (dirBuffer.length || fileBuffer.length) scheduleFlush();
+
+            setBar('folderProgressFill', 'folderPercent', 'folderCount', p.processedFolders, p.totalFolders);
+            setBar('codeFileProgressFill', 'codeFilePercent', 'codeFileCount', p.processedCodeFiles, p.totalCodeFiles);
+            setBar('codeLinesProgressFill', 'codeLinesPercent', 'codeLinesCount', p.processedCodeLines, p.totalCodeLines);
+            setBar('methodsProgressFill', 'methodsPercent', 'methodsCount', p.processedMethods, p.totalMethods);
+            setBar('docFileProgressFill', 'docFilePercent', 'docFileCount', p.processedDocFiles, p.totalDocFiles);
+            setBar('docLinesProgressFill', 'docLinesPercent', 'docLinesCount', p.processedDocLines, p.totalDocLines);
+            setBar('totalFilesFill', 'totalFilesPercent', 'totalFilesCount', p.processedFiles, p.totalFiles);
+            setBar('totalLinesFill', 'totalLinesPercent', 'totalLinesCount', p.processedLines, p.totalLines);
+            setBar('totalBytesFill', 'totalBytesPercent', 'totalBytesCount', p.processedBytes, p.totalBytes);
+            // smoothed throughput and time remaining, computed on the server
+            if (p.rate) {
+                const mbps = (p.rate.bytesPerSecond / (1024 * 1024)).toFixed(1);
+                const eta = (p.etaSeconds === null || p.etaSeconds === undefined) ? '' : ' — ' + (p.preScanComplete ? '' : '~') + 'ETA ' + p.etaSeconds + 's';
+                setText('analysisEta', mbps + ' MB/s, ' + p.rate.filesPerSecond + ' files/s' + eta);
             }
         } catch (err) {
             console.warn('Could not parse progress event', err);
@@ -678,8 +566,10 @@ function analyzeDirectoryStream(path) {
     es.addEventListener('error', (e) => {
         if (e && e.data) {
             resultsDiv.innerHTML = `<div class="error-message">Error: ${e.data}</div>`;
-        } else {
-            // If EventSource encounters an error it may send a generic event; leave existing results
+        } else if (es.readyState !== EventSource.CLOSED) {
+            // connection dropped: the scan keeps running on the server and EventSource reconnects on its
+            // own, sending Last-Event-ID so the stream resumes where it left off
+            return;
         }
         // make sure we flush any remaining items and stop the periodic flush
         if (flushTimer) {
@@ -792,10 +682,16 @@ function displayAnalysisResults(results) {
     resultsDiv.innerHTML = html;
 }
 
+// subtree totals of a folder from the last saved scan that covered it (absent when it was never scanned)
+function folderTotals(file) {
+    if (!file.directory || file.cumulativeBytes == null) return '';
+    return ` - ${formatBytes(file.cumulativeBytes)} · ${formatNumber(file.cumulativeFiles)} files · ${formatNumber(file.cumulativeLines)} lines`;
+}
+
 function formatBytes(bytes) {
     if (bytes === 0) return '0 Bytes';
     const k = 1024;
-    const sizes = ['Bytes', 'KB', 'MB', 'GB'];
+    const sizes = ['Bytes', 'KB', 'MB', 'GB', 'TB'];
     const i = Math.floor(Math.log(bytes) / Math.log(k));
     return Math.round(bytes / Math.pow(k, i) * 100) / 100 + ' ' + sizes[i];
 }
@@ -0,0 +1,109 @@
+package com.codecounter.stinger.cli;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import picocli.CommandLine;
+
+// no Spring context: the CLI must work from the plain classpath
+class StingerCliTest {
+
+    private final StringWriter out = new StringWriter();
+    private final StringWriter err = new StringWriter();
+    private int run(String... args) {
+        CommandLine cmd = new CommandLine(new StingerCli());
+        cmd.setOut(new PrintWriter(out));
+        cmd.setErr(new PrintWriter(err));
+        return cmd.execute(args);
+    }
+
+    @Test
+    void scanWritesTheResultsFolderAndPrintsTheSummary(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("ci-app");
+        Files.createDirectories(project.resolve("src"));
+        Files.writeString(project.resolve("src/App.java"), "public class App {\n  void run() {}\n}\n");
+        Files.writeString(project.resolve("README.md"), "# app\n");
+        Path results = tmpDir.resolve("results");
+        String resultsDirProperty = System.getProperty("stinger.results.dir");
+
+        int exit = run("scan", project.toString(), "--results-dir", results.toString());
+
+        assertEquals(0, exit, err.toString());
+        // the option wins over the property surefire sets, without changing it
+        assertEquals(resultsDirProperty, System.getProperty("stinger.results.dir"));
+        Path runFolder = singleRun(results.resolve("ci-app"));
+        assertTrue(Files.exists(runFolder.resolve("summary.txt")));
+        assertTrue(Files.exists(runFolder.resolve("file_metrics.csv")));
+        assertTrue(Files.exists(runFolder.resolve("hotspots.json")));
+        assertTrue(out.toString().contains("resultsPath: " + runFolder), out.toString());
+        assertTrue(out.toString().contains("totalFiles: 2"), out.toString());
+        assertTrue(out.toString().contains("totalMethods: 1"), out.toString());
+        // history is opt-in
+        assertTrue(Files.notExists(results.resolve(".history")));
+    }
+
+    @Test
+    void relativePathsAreScannedAsAbsolute(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("relative-app");
+        Files.createDirectories(project);
+        Files.writeString(project.resolve("App.java"), "class App {}\n");
+        Path results = tmpDir.resolve("results");
+        Path relative = Path.of("").toAbsolutePath().relativize(project);
+
+        assertEquals(0, run("scan", relative.toString(), "--results-dir", results.toString()), err.toString());
+        Path runFolder = singleRun(results.resolve("relative-app"));
+        assertTrue(Files.readAllLines(runFolder.resolve("summary.txt")).contains("root: " + project), out.toString());
+    }
+
+    @Test
+    void partitionedScansMergeIntoOneRun(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("split-app");
+        for (String module : new String[] { "a", "b", "c" }) {
+            Files.createDirectories(project.resolve(module));
+            Files.writeString(project.resolve(module).resolve("M.java"), "class M {}\n");
+        }
+        Path results = tmpDir.resolve("results");
+
+        List<String> partials = new ArrayList<>();
+        for (int part = 0; part < 2; part++) {
+            out.getBuffer().setLength(0);
+            assertEquals(0, run("scan", project.toString(), "--part", String.valueOf(part), "--parts", "2", "--results-dir", results.toString()), err.toString());
+            String printed = out.toString();
+            partials.add(printed.substring("resultsPath: ".length(), printed.indexOf(System.lineSeparator())));
+        }
+        List<String> merge = new ArrayList<>(List.of("merge", "--results-dir", results.toString()));
+        merge.addAll(partials);
+        out.getBuffer().setLength(0);
+
+        assertEquals(0, run(merge.toArray(String[]::new)), err.toString());
+        assertTrue(out.toString().contains("codeFiles: 3"), out.toString());
+        assertTrue(out.toString().contains("folders: 4"), out.toString());
+    }
+
+    @Test
+    void failuresExitNonZero(@TempDir Path tmpDir) {
+        assertEquals(1, run("scan", tmpDir.resolve("missing").toString(), "--results-dir", tmpDir.toString()));
+        assertTrue(err.toString().contains("Invalid directory path"), err.toString());
+        assertEquals(2, run("scan", tmpDir.toString(), "--part", "0"));
+        assertEquals(1, run("merge", tmpDir.toString(), "--results-dir", tmpDir.toString()));
+    }
+
+    private static Path singleRun(Path rootFolder) throws IOException {
+        try (Stream<Path> s = Files.list(rootFolder)) {
+            List<Path> runs = s.filter(Files::isDirectory).filter(p -> !p.getFileName().toString().startsWith(".")).toList();
+            assertEquals(1, runs.size(), runs.toString());
+            return runs.get(0);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.codecounter.stinger.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class BatchAnalysisTest {
+
+    @Autowired
+    private BatchAnalysisService batchAnalysisService;
+
+    @Test
+    void analyzesEveryRootOnceAndReportsEachAsItCompletes(@TempDir Path tmpDir) throws Exception {
+        Path one = tmpDir.resolve("repos/one");
+        Path two = tmpDir.resolve("repos/two");
+        Files.createDirectories(one.resolve("src"));
+        Files.createDirectories(two);
+        Files.writeString(one.resolve("src/A.java"), "class A {\n void a() {}\n}\n");
+        Files.writeString(two.resolve("README.md"), "# two\n");
+        String missing = tmpDir.resolve("repos/missing").toString();
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            List<Map<String, Object>> lines = new CopyOnWriteArrayList<>();
+            Map<String, Object> summary = batchAnalysisService
+                .analyze(List.of(one.toString(), two.toString(), missing, one.toString()), lines::add)
+                .get(30, TimeUnit.SECONDS);
+
+            assertEquals(3, lines.size());
+            Map<String, Map<String, Object>> byRoot = new HashMap<>();
+            for (Map<String, Object> line : lines) byRoot.put((String) line.get("root"), line);
+
+            assertEquals("ok", byRoot.get(one.toString()).get("status"));
+            assertEquals(1, byRoot.get(one.toString()).get("totalCodeFiles"));
+            assertEquals(1, byRoot.get(two.toString()).get("totalDocFiles"));
+            assertEquals("error", byRoot.get(missing).get("status"));
+            for (Path root : List.of(one, two)) {
+                Path saved = Path.of((String) byRoot.get(root.toString()).get("resultsPath"));
+                assertTrue(Files.exists(saved.resolve("summary.txt")), saved.toString());
+            }
+
+            assertEquals(3, summary.get("roots"));
+            assertEquals(2, summary.get("succeeded"));
+            assertEquals(1, summary.get("failed"));
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.codecounter.stinger.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.codecounter.stinger.service.results.BinaryResultsReader;
+import com.codecounter.stinger.service.results.BinaryResultsWriter;
+import com.codecounter.stinger.service.summary.ScanResults;
+import com.codecounter.stinger.service.summary.ScanResultsReader;
+
+@SpringBootTest
+class BinaryResultsFormatTest {
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    @Test
+    void bothFormatWritesMatchingBinaryAndTextLists(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("project");
+        Path deep = project.resolve("src/main/java/com/example");
+        Files.createDirectories(deep);
+        for (int i = 0; i < 40; i++) {
+            Files.writeString(deep.resolve("Class" + i + ".java"), "public class Class" + i + " {\n}\n");
+        }
+        Files.writeString(project.resolve("README.md"), "# readme\nline two\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        System.setProperty("stinger.results.format", "both");
+        try {
+            Path out = fileAnalysisService.saveAnalysisResults(project.toString());
+            Path bin = out.resolve(BinaryResultsWriter.FILE_NAME);
+            assertTrue(Files.exists(bin));
+
+            BinaryResultsReader reader = BinaryResultsReader.open(bin);
+            assertEquals(project.toString(), reader.root());
+            assertEquals(Files.readAllLines(out.resolve("code_files.txt")), reader.paths(BinaryResultsWriter.KIND_CODE));
+            assertEquals(Files.readAllLines(out.resolve("document_files.txt")), reader.paths(BinaryResultsWriter.KIND_DOC));
+            assertEquals(Files.readAllLines(out.resolve("folders.txt")), reader.paths(BinaryResultsWriter.KIND_FOLDER));
+
+            // random access through the block index agrees with sequential decoding
+            List<String> all = new java.util.ArrayList<>();
+            reader.forEach((i, p) -> all.add(p));
+            for (int i = 0; i < reader.size(); i++) {
+                assertEquals(all.get(i), reader.path(i));
+            }
+
+            // per-file columns: sizes are recorded and lines counted during the save
+            int readme = all.indexOf(project.resolve("README.md").toFile().getCanonicalPath());
+            assertEquals(Files.size(project.resolve("README.md")), reader.fileSize(readme));
+            assertEquals(2L, reader.lines(readme));
+        } finally {
+            System.clearProperty("stinger.results.format");
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    @Test
+    void analyzedRunRecordsMeasuredLinesAndMethods(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("measured-app");
+        Files.createDirectories(project.resolve("src"));
+        Files.writeString(project.resolve("src/Test.java"),
+            "public class Test {\n  public void a() {\n  }\n  public void b() {\n  }\n}\n");
+        Files.writeString(project.resolve("README.md"), "# readme\nline two\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        System.setProperty("stinger.results.format", "both");
+        try {
+            Path out = Path.of(fileAnalysisService.analyzeDirectory(project.toString()).getResultsPath());
+            BinaryResultsReader reader = BinaryResultsReader.open(out.resolve(BinaryResultsWriter.FILE_NAME));
+            List<String> all = new java.util.ArrayList<>();
+            reader.forEach((i, p) -> all.add(p));
+
+            // the same measurements as file_metrics.csv, not "not measured"
+            int java = all.indexOf(project.resolve("src/Test.java").toFile().getCanonicalPath());
+            assertEquals(6L, reader.lines(java));
+            assertEquals(2, reader.methods(java));
+            int readme = all.indexOf(project.resolve("README.md").toFile().getCanonicalPath());
+            assertEquals(2L, reader.lines(readme));
+            assertEquals(0, reader.methods(readme));
+        } finally {
+            System.clearProperty("stinger.results.format");
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    @Test
+    void binaryOnlyRunIsReadableByScanResultsReader(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("app");
+        Files.createDirectories(project.resolve("docs"));
+        Files.writeString(project.resolve("Main.java"), "public class Main {}\n");
+        Files.writeString(project.resolve("docs/guide.md"), "# guide\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        System.setProperty("stinger.results.format", "binary");
+        try {
+            Path out = fileAnalysisService.saveAnalysisResults(project.toString());
+            assertFalse(Files.exists(out.resolve("code_files.txt")), "text lists are only written on request");
+            assertTrue(Files.exists(out.resolve("summary.txt")));
+
+            ScanResults results = ScanResultsReader.read(out);
+            assertEquals(1, results.codeFiles().size());
+            assertTrue(results.codeFiles().get(0).endsWith("Main.java"));
+            assertEquals(1, results.docFiles().size());
+            assertEquals(2, results.folders().size());
+        } finally {
+            System.clearProperty("stinger.results.format");
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+}
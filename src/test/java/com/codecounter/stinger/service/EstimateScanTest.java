@@ -0,0 +1,95 @@
+package com.codecounter.stinger.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.codecounter.stinger.model.AnalysisResult;
+import com.codecounter.stinger.model.Estimate;
+
+@SpringBootTest
+class EstimateScanTest {
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    @Test
+    void fullySampledStrataGiveTheExactTotals(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("small-app");
+        Files.createDirectories(project.resolve("src"));
+        Files.createDirectories(project.resolve("target"));
+        Files.writeString(project.resolve("src/A.java"), "public class A {\n  void a() {}\n  void b() {}\n}\n");
+        Files.writeString(project.resolve("src/b.py"), "def b():\n    pass\n");
+        Files.writeString(project.resolve("README.md"), "# readme\ntwo\nthree\n");
+        Files.writeString(project.resolve("target/Ignored.java"), "class Ignored {}\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            AnalysisResult exact = fileAnalysisService.analyzeDirectory(project.toString());
+            AnalysisResult estimated = fileAnalysisService.estimateDirectory(project.toString(), 1L);
+
+            assertEquals(exact.getTotalFolders(), estimated.getTotalFolders());
+            assertEquals(exact.getTotalFiles(), estimated.getTotalFiles());
+            assertEquals(exact.getTotalCodeFiles(), estimated.getTotalCodeFiles());
+            assertEquals(exact.getTotalDocFiles(), estimated.getTotalDocFiles());
+            assertEquals(exact.getTotalLines(), estimated.getTotalLines());
+            assertEquals(exact.getTotalCodeLines(), estimated.getTotalCodeLines());
+            assertEquals(exact.getTotalDocLines(), estimated.getTotalDocLines());
+            assertEquals(exact.getTotalMethods(), estimated.getTotalMethods());
+
+            Estimate estimate = estimated.getEstimate();
+            assertEquals(3, estimate.getSampledFiles());
+            assertEquals(0L, estimate.getTotalLines().getStandardError());
+            assertEquals(estimate.getTotalLines().getLow(), estimate.getTotalLines().getHigh());
+            assertNull(exact.getEstimate());
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    @Test
+    void sampledTotalsCarryAnIntervalAroundTheTruth(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("big-app");
+        Random random = new Random(7);
+        long trueLines = 0;
+        long trueMethods = 0;
+        for (int d = 0; d < 20; d++) {
+            Path dir = Files.createDirectories(project.resolve("pkg" + d));
+            for (int i = 0; i < 40; i++) {
+                int methods = 1 + random.nextInt(6);
+                int padding = random.nextInt(60);
+                StringBuilder sb = new StringBuilder("public class C" + i + " {\n");
+                for (int m = 0; m < methods; m++) sb.append("  void m").append(m).append("() {}\n");
+                for (int p = 0; p < padding; p++) sb.append("  // filler\n");
+                sb.append("}\n");
+                Files.writeString(dir.resolve("C" + i + ".java"), sb.toString());
+                trueLines += methods + padding + 2;
+                trueMethods += methods;
+            }
+        }
+
+        AnalysisResult estimated = fileAnalysisService.estimateDirectory(project.toString(), 42L);
+        Estimate estimate = estimated.getEstimate();
+        assertEquals(800, estimated.getTotalFiles());
+        assertEquals(20, estimated.getTotalFolders());
+        assertTrue(estimate.getSampledFiles() < 800, "only a sample is read: " + estimate.getSampledFiles());
+
+        Estimate.Range lines = estimate.getTotalLines();
+        assertTrue(lines.getLow() <= trueLines && trueLines <= lines.getHigh(),
+            trueLines + " outside [" + lines.getLow() + ", " + lines.getHigh() + "]");
+        assertTrue(Math.abs(lines.getEstimate() - trueLines) < trueLines * 0.1);
+        Estimate.Range methods = estimate.getTotalMethods();
+        assertTrue(methods.getLow() <= trueMethods && trueMethods <= methods.getHigh(),
+            trueMethods + " outside [" + methods.getLow() + ", " + methods.getHigh() + "]");
+        assertEquals(lines.getEstimate(), estimated.getTotalLines());
+    }
+}
@@ -0,0 +1,103 @@
+package com.codecounter.stinger.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.codecounter.stinger.service.results.FileMetricsWriter;
+import com.codecounter.stinger.service.results.RunEntries;
+
+@SpringBootTest
+class FileMetricsOutputTest {
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    @Test
+    void analysisWritesOneMetricsRowPerFileIntoTheRunFolder(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("metrics-project");
+        Files.createDirectories(project);
+        Files.writeString(project.resolve("Test.java"),
+            "public class Test {\n  public void a() {\n  }\n  public void b() {\n  }\n}\n");
+        Files.writeString(project.resolve("README.md"), "# readme\nline two\n");
+
+        Path resultsDir = tmpDir.resolve("code_counter_results");
+        System.setProperty("stinger.results.dir", resultsDir.toString());
+        try {
+            fileAnalysisService.analyzeDirectory(project.toString());
+
+            Path metrics;
+            try (Stream<Path> s = Files.walk(resultsDir)) {
+                List<Path> found = s.filter(p -> p.getFileName().toString().startsWith("file_metrics")).toList();
+                assertEquals(1, found.size(), "temporary metrics file should have been moved, not copied");
+                metrics = found.get(0);
+            }
+            assertEquals(FileMetricsWriter.FILE_NAME, metrics.getFileName().toString());
+            assertTrue(Files.exists(metrics.resolveSibling("summary.txt")));
+            if (Files.getFileAttributeView(metrics, PosixFileAttributeView.class) != null) {
+                // readable like the rest of the run, not owner-only like the temp file it was moved from
+                assertEquals(Files.getPosixFilePermissions(metrics.resolveSibling("summary.txt")), Files.getPosixFilePermissions(metrics));
+            }
+
+            List<String> lines = Files.readAllLines(metrics);
+            assertEquals(FileMetricsWriter.HEADER, lines.get(0));
+            assertEquals(3, lines.size());
+
+            String javaRow = lines.stream().filter(l -> l.contains("Test.java")).findFirst().orElseThrow();
+            String[] cols = javaRow.split(",");
+            assertEquals("code", cols[1]);
+            assertEquals("java", cols[2]);
+            assertEquals(Long.toString(Files.size(project.resolve("Test.java"))), cols[3]);
+            assertEquals("6", cols[4]);
+            assertEquals("2", cols[5]);
+
+            String docRow = lines.stream().filter(l -> l.contains("README.md")).findFirst().orElseThrow();
+            cols = docRow.split(",");
+            assertEquals("document", cols[1]);
+            assertEquals("2", cols[4]);
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    @Test
+    void repeatedScansWritePathSortedIdenticalLists(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("sorted-project");
+        for (int d = 0; d < 12; d++) {
+            Path dir = Files.createDirectories(project.resolve("pkg" + d));
+            for (int i = 0; i < 15; i++) Files.writeString(dir.resolve("C" + i + ".java"), "class C" + i + " {\n  void m() {}\n}\n");
+            Files.writeString(project.resolve("pkg" + d + "-notes.md"), "# notes\n");
+        }
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            Path first = Path.of(fileAnalysisService.analyzeDirectory(project.toString()).getResultsPath());
+            Path second = Path.of(fileAnalysisService.analyzeDirectory(project.toString()).getResultsPath());
+
+            List<String> paths = new ArrayList<>();
+            for (String row : Files.readAllLines(first.resolve(FileMetricsWriter.FILE_NAME)).subList(1, 193)) {
+                paths.add(row.substring(0, row.indexOf(',')));
+            }
+            List<String> sorted = new ArrayList<>(paths);
+            sorted.sort(RunEntries.PATH_ORDER);
+            assertEquals(sorted, paths);
+            assertEquals(Files.readAllLines(first.resolve("total_files.txt")), paths);
+            for (String list : new String[] { "folders.txt", "total_files.txt", "code_files.txt", "document_files.txt" }) {
+                assertEquals(Files.readAllLines(first.resolve(list)), Files.readAllLines(second.resolve(list)), list);
+            }
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.codecounter.stinger.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.codecounter.stinger.model.AnalysisResult;
+import com.codecounter.stinger.model.Hotspot;
+import com.codecounter.stinger.service.results.HotspotTracker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class HotspotsTest {
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    @Test
+    void trackerKeepsOnlyTheTopNLargestFirst() {
+        HotspotTracker tracker = new HotspotTracker(3);
+        for (int i = 1; i <= 1000; i++) {
+            tracker.file("f" + i, i % 97, i % 13, 0);
+        }
+        tracker.folder("b", 5);
+        tracker.folder("a", 5);
+        tracker.folder("c", 5);
+        tracker.folder("d", 5);
+        tracker.folder("empty", 0);
+
+        Map<String, List<Hotspot>> result = tracker.toResult();
+        List<Hotspot> largest = result.get(HotspotTracker.LARGEST_FILES);
+        assertEquals(List.of(96L, 96L, 96L), largest.stream().map(Hotspot::getValue).toList());
+        // ties keep the smallest paths, in path order
+        assertEquals(List.of("f193", "f290", "f387"), largest.stream().map(Hotspot::getPath).toList());
+        assertEquals(12L, result.get(HotspotTracker.MOST_METHODS).get(0).getValue());
+        assertTrue(result.get(HotspotTracker.SLOWEST_FILES).isEmpty(), "zero durations are not ranked");
+        assertEquals(List.of("a", "b", "c"), result.get(HotspotTracker.BUSIEST_FOLDERS).stream().map(Hotspot::getPath).toList());
+    }
+
+    @Test
+    void analysisReturnsHotspotsAndWritesThemNextToTheResults(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("hotspot-app");
+        Files.createDirectories(project.resolve("big"));
+        Files.writeString(project.resolve("big/Big.java"),
+            "public class Big {\n  void a() {}\n  void b() {}\n  void c() {}\n\n\n\n\n}\n");
+        Files.writeString(project.resolve("big/Small.java"), "public class Small {\n  void a() {}\n}\n");
+        Files.writeString(project.resolve("README.md"), "# readme\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            AnalysisResult result = fileAnalysisService.analyzeDirectory(project.toString());
+            Map<String, List<Hotspot>> hotspots = result.getHotspots();
+            Hotspot largest = hotspots.get(HotspotTracker.LARGEST_FILES).get(0);
+            assertTrue(largest.getPath().endsWith("Big.java"));
+            assertEquals(9L, largest.getValue());
+            assertEquals(List.of(3L, 1L), hotspots.get(HotspotTracker.MOST_METHODS).stream().map(Hotspot::getValue).toList());
+            Hotspot busiest = hotspots.get(HotspotTracker.BUSIEST_FOLDERS).get(0);
+            assertTrue(busiest.getPath().endsWith("big"));
+            assertEquals(2L, busiest.getValue());
+
+            Path json = Path.of(result.getResultsPath()).resolve(HotspotTracker.FILE_NAME);
+            JsonNode saved = new ObjectMapper().readTree(json.toFile());
+            assertEquals(largest.getPath(), saved.get(HotspotTracker.LARGEST_FILES).get(0).get("path").asText());
+            assertEquals(2, saved.get(HotspotTracker.BUSIEST_FOLDERS).size());
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+}
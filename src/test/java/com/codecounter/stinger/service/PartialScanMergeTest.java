@@ -0,0 +1,149 @@
+package com.codecounter.stinger.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import com.codecounter.stinger.controller.FileExplorerController;
+import com.codecounter.stinger.model.AnalysisResult;
+import com.codecounter.stinger.service.results.BinaryResultsWriter;
+import com.codecounter.stinger.service.results.FileMetricsWriter;
+import com.codecounter.stinger.service.results.HotspotTracker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class PartialScanMergeTest {
+
+    private static final String[] LISTS = { "folders.txt", "total_files.txt", "code_files.txt", "document_files.txt", "other_files.txt" };
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    @Autowired
+    private FileExplorerController fileExplorerController;
+
+    @Test
+    void mergedPartitionsMatchASingleScan(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("partitioned-app");
+        for (String module : new String[] { "api", "core", "web", "docs", "tools", "util" }) {
+            Files.createDirectories(project.resolve(module).resolve("sub"));
+            Files.writeString(project.resolve(module).resolve("Main.java"),
+                "public class Main {\n  void a() {}\n  void b() {}\n}\n");
+            Files.writeString(project.resolve(module).resolve("sub/Helper.java"),
+                "class Helper {\n" + "  void h() {}\n".repeat(module.length()) + "}\n");
+            Files.writeString(project.resolve(module).resolve("sub/notes.md"), "# " + module + "\n\nnotes\n");
+        }
+        Files.writeString(project.resolve("README.md"), "# readme\n");
+        Files.writeString(project.resolve("build.gradle"), "apply plugin: 'java'\n");
+        Files.writeString(project.resolve("Root.java"), "class Root {\n  void r() {}\n}\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        System.setProperty("stinger.results.format", "both");
+        try {
+            Path single = Path.of(fileAnalysisService.analyzeDirectory(project.toString()).getResultsPath());
+
+            // local processes standing in for three nodes
+            List<String> partials = new ArrayList<>();
+            for (int part = 0; part < 3; part++) {
+                AnalysisResult partial = fileAnalysisService.analyzePartition(project.toString(), part, 3);
+                assertTrue(partial.getResultsPath().contains("partials"), partial.getResultsPath());
+                partials.add(partial.getResultsPath());
+            }
+            Path merged = fileAnalysisService.mergePartials(partials);
+
+            assertEquals(withoutCreatedAt(single.resolve("summary.txt")), withoutCreatedAt(merged.resolve("summary.txt")));
+            for (String list : LISTS) {
+                assertEquals(Files.readAllLines(single.resolve(list)), Files.readAllLines(merged.resolve(list)), list);
+            }
+            assertArrayEquals(Files.readAllBytes(single.resolve(BinaryResultsWriter.FILE_NAME)),
+                Files.readAllBytes(merged.resolve(BinaryResultsWriter.FILE_NAME)));
+            assertEquals(withoutElapsed(single.resolve(FileMetricsWriter.FILE_NAME)), withoutElapsed(merged.resolve(FileMetricsWriter.FILE_NAME)));
+
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode singleHotspots = mapper.readTree(single.resolve(HotspotTracker.FILE_NAME).toFile());
+            JsonNode mergedHotspots = mapper.readTree(merged.resolve(HotspotTracker.FILE_NAME).toFile());
+            for (String list : new String[] { HotspotTracker.LARGEST_FILES, HotspotTracker.MOST_METHODS, HotspotTracker.BUSIEST_FOLDERS }) {
+                assertEquals(singleHotspots.get(list), mergedHotspots.get(list), list);
+            }
+
+            assertEquals(merged, fileAnalysisService.latestRunFolder(project.toString()));
+        } finally {
+            System.clearProperty("stinger.results.dir");
+            System.clearProperty("stinger.results.format");
+        }
+    }
+
+    @Test
+    void symlinkAcrossPartitionsIsCountedOnce(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("linked-app");
+        Files.createDirectories(project.resolve("lib"));
+        Files.createDirectories(project.resolve("src"));
+        Files.writeString(project.resolve("lib/Lib.java"), "class Lib {\n  void l() {}\n}\n");
+        Files.writeString(project.resolve("lib/notes.md"), "# lib\n");
+        Files.writeString(project.resolve("src/Main.java"), "class Main {\n  void m() {}\n}\n");
+        // lib and src land in different partitions of three, so two partials reach lib's files
+        Files.createSymbolicLink(project.resolve("src/liblink"), Path.of("../lib"));
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            Path single = Path.of(fileAnalysisService.analyzeDirectory(project.toString()).getResultsPath());
+            List<String> partials = new ArrayList<>();
+            for (int part = 0; part < 3; part++) {
+                partials.add(fileAnalysisService.analyzePartition(project.toString(), part, 3).getResultsPath());
+            }
+            Path merged = fileAnalysisService.mergePartials(partials);
+
+            assertEquals(withoutCreatedAt(single.resolve("summary.txt")), withoutCreatedAt(merged.resolve("summary.txt")));
+            assertEquals(withoutElapsed(single.resolve(FileMetricsWriter.FILE_NAME)), withoutElapsed(merged.resolve(FileMetricsWriter.FILE_NAME)));
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    @Test
+    void mergeRejectsAnIncompleteSetOfPartials(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("incomplete-app");
+        Files.createDirectories(project.resolve("a"));
+        Files.writeString(project.resolve("a/A.java"), "class A {}\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            String first = fileAnalysisService.analyzePartition(project.toString(), 0, 2).getResultsPath();
+            IOException missing = assertThrows(IOException.class, () -> fileAnalysisService.mergePartials(List.of(first)));
+            assertTrue(missing.getMessage().contains("Partition 1 of 2 is missing"), missing.getMessage());
+            IOException twice = assertThrows(IOException.class, () -> fileAnalysisService.mergePartials(List.of(first, first)));
+            assertTrue(twice.getMessage().contains("more than once"), twice.getMessage());
+
+            // the endpoint runs the merge on the scan scheduler and reports its failure
+            ResponseEntity<?> response = fileExplorerController.mergePartials(Map.of("partials", List.of(first)));
+            assertEquals(400, response.getStatusCode().value());
+            assertTrue(String.valueOf(response.getBody()).contains("Partition 1 of 2 is missing"), String.valueOf(response.getBody()));
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    private static List<String> withoutCreatedAt(Path summary) throws IOException {
+        return Files.readAllLines(summary, StandardCharsets.UTF_8).stream().filter(l -> !l.startsWith("createdAt:")).toList();
+    }
+
+    // elapsedMs is a timing, not a result
+    private static List<String> withoutElapsed(Path metrics) throws IOException {
+        return Files.readAllLines(metrics, StandardCharsets.UTF_8).stream().map(l -> l.substring(0, l.lastIndexOf(','))).toList();
+    }
+}
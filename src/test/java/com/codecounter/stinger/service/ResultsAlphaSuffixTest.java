@@ -3,10 +3,13 @@ package com.codecounter.stinger.service;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,4 +46,20 @@ class ResultsAlphaSuffixTest {
             System.clearProperty("stinger.results.dir");
         }
     }
+
+    @Test
+    void runFolderGetsTheSameModeAsTheFoldersAroundIt(@TempDir Path tmpDir) throws IOException {
+        assumeTrue(Files.getFileAttributeView(tmpDir, PosixFileAttributeView.class) != null, "needs POSIX permissions");
+        Path project = tmpDir.resolve("mode-app");
+        Files.createDirectories(project);
+        Files.writeString(project.resolve("A.java"), "public class A{}\n");
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            Path out = fileAnalysisService.saveAnalysisResults(project.toString());
+            // the staging folder it was renamed from must not have been created owner-only
+            assertEquals(Files.getPosixFilePermissions(out.getParent()), Files.getPosixFilePermissions(out));
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
 }
@@ -0,0 +1,181 @@
+package com.codecounter.stinger.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import com.codecounter.stinger.controller.FileExplorerController;
+import com.codecounter.stinger.model.AnalysisResult;
+import com.codecounter.stinger.model.FileNode;
+import com.codecounter.stinger.service.results.RollupIndex;
+import com.codecounter.stinger.service.results.RollupIndexWriter;
+
+@SpringBootTest
+class RollupMetricsEndpointTest {
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    @Autowired
+    private FileExplorerController fileExplorerController;
+
+    @Test
+    void metricsAnswersSubtreeQueriesFromTheSavedRollups(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("rollup-app");
+        Files.createDirectories(project.resolve("services/billing/api"));
+        Files.createDirectories(project.resolve("services/search"));
+        Files.createDirectories(project.resolve("empty"));
+        Files.writeString(project.resolve("services/billing/Invoice.java"), "public class Invoice {\n  void a() {}\n  void b() {}\n}\n");
+        Files.writeString(project.resolve("services/billing/api/Api.java"), "public class Api {\n  void c() {}\n}\n");
+        Files.writeString(project.resolve("services/search/README.md"), "# search\nnotes\n");
+        Files.writeString(project.resolve("Main.java"), "public class Main {}\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            AnalysisResult result = fileAnalysisService.analyzeDirectory(project.toString());
+            assertTrue(Files.exists(Path.of(result.getResultsPath()).resolve(RollupIndexWriter.FILE_NAME)));
+
+            Map<?, ?> root = body(fileExplorerController.metrics(project.toString(), null, null));
+            assertEquals(5L, root.get("folders"));
+            assertEquals(4L, root.get("files"));
+            assertEquals(3L, root.get("codeFiles"));
+            assertEquals(1L, root.get("docFiles"));
+            assertEquals(3L, root.get("methods"));
+            assertEquals(result.getTotalLines(), root.get("lines"));
+
+            Map<?, ?> billing = body(fileExplorerController.metrics(project.toString(), "services/billing/", null));
+            assertEquals("services/billing", billing.get("subpath"));
+            assertEquals(1L, billing.get("folders"));
+            assertEquals(2L, billing.get("files"));
+            assertEquals(3L, billing.get("methods"));
+            assertEquals(7L, billing.get("codeLines"));
+            long bytes = Files.size(project.resolve("services/billing/Invoice.java")) + Files.size(project.resolve("services/billing/api/Api.java"));
+            assertEquals(bytes, billing.get("bytes"));
+
+            String absolute = project.toFile().getCanonicalPath() + File.separator + "services" + File.separator + "search";
+            Map<?, ?> search = body(fileExplorerController.metrics(project.toString(), absolute, null));
+            assertEquals(1L, search.get("docFiles"));
+            assertEquals(2L, search.get("docLines"));
+
+            Map<?, ?> empty = body(fileExplorerController.metrics(project.toString(), "empty", null));
+            assertEquals(0L, empty.get("files"));
+
+            assertEquals(404, fileExplorerController.metrics(project.toString(), "services/missing", null).getStatusCode().value());
+            assertEquals(404, fileExplorerController.metrics(tmpDir.resolve("never-scanned").toString(), null, null).getStatusCode().value());
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    @Test
+    void listingAttachesSubfolderTotalsFromTheCoveringRun(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("listing-app");
+        Files.createDirectories(project.resolve("services/billing"));
+        Files.createDirectories(project.resolve("docs"));
+        Files.writeString(project.resolve("services/billing/Invoice.java"), "public class Invoice {\n}\n");
+        Files.writeString(project.resolve("services/Api.java"), "public class Api {\n  void a() {}\n}\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            List<FileNode> before = fileAnalysisService.listDirectory(project.toString());
+            assertTrue(before.stream().allMatch(n -> n.getCumulativeBytes() == null), "nothing scanned yet");
+
+            fileAnalysisService.analyzeDirectory(project.toString());
+            // a folder created after the scan has no rollup
+            Files.createDirectories(project.resolve("later"));
+
+            Map<String, FileNode> top = byName(fileAnalysisService.listDirectory(project.toString()));
+            FileNode services = top.get("services");
+            assertEquals(2L, services.getCumulativeFiles());
+            assertEquals(5L, services.getCumulativeLines());
+            assertEquals(Files.size(project.resolve("services/billing/Invoice.java")) + Files.size(project.resolve("services/Api.java")),
+                services.getCumulativeBytes());
+            assertEquals(0L, top.get("docs").getCumulativeFiles());
+            assertNull(top.get("later").getCumulativeFiles());
+
+            // deeper folders are covered by the same run of the root
+            Map<String, FileNode> nested = byName(fileAnalysisService.listDirectory(project.resolve("services").toString()));
+            assertEquals(1L, nested.get("billing").getCumulativeFiles());
+            assertNull(nested.get("Api.java").getCumulativeFiles());
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    @Test
+    void listingDoesNotCreateTheResultsDirectory(@TempDir Path tmpDir) throws IOException {
+        Files.createDirectories(tmpDir.resolve("browse/src"));
+        Path results = tmpDir.resolve("code_counter_results");
+        System.setProperty("stinger.results.dir", results.toString());
+        try {
+            assertEquals(1, fileAnalysisService.listDirectory(tmpDir.resolve("browse").toString()).size());
+            assertTrue(Files.notExists(results));
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+
+    private static Map<String, FileNode> byName(List<FileNode> nodes) {
+        return nodes.stream().collect(Collectors.toMap(FileNode::getName, n -> n));
+    }
+
+    @Test
+    void indexFindsEveryFolderOfALargeTree(@TempDir Path tmpDir) throws IOException {
+        String root = tmpDir.toFile().getCanonicalPath();
+        RollupIndexWriter writer = new RollupIndexWriter(root);
+        for (int a = 0; a < 50; a++) {
+            for (int b = 0; b < 100; b++) {
+                String dir = root + File.separator + "d" + a + File.separator + "e" + b;
+                writer.addFolder(dir);
+                writer.addFile(dir + File.separator + "F.java", "code", 10, 3, 1);
+            }
+        }
+        Path file = tmpDir.resolve(RollupIndexWriter.FILE_NAME);
+        writer.writeTo(file);
+
+        RollupIndex index = RollupIndex.open(file);
+        assertEquals(root, index.root());
+        assertEquals(1 + 50 + 50 * 100, index.size());
+        RollupIndex.Rollup top = index.get("");
+        assertEquals(5050L, top.folders());
+        assertEquals(5000L, top.files());
+        assertEquals(50_000L, top.bytes());
+        for (int a = 0; a < 50; a++) {
+            RollupIndex.Rollup d = index.get("d" + a);
+            assertNotNull(d, "d" + a);
+            assertEquals(100L, d.folders());
+            assertEquals(300L, d.codeLines());
+            for (int b = 0; b < 100; b++) {
+                assertEquals(1L, index.get("d" + a + "/e" + b).methods());
+            }
+        }
+        assertNull(index.get("d0/e100"));
+        assertNull(index.get("d0/../d1"));
+
+        // absolute paths resolve only under the root
+        assertEquals(100L, index.get(root + File.separator + "d7").folders());
+        assertNull(index.get(root + "2" + File.separator + "d7"));
+        assertNull(index.get(tmpDir.getRoot().resolve("d7").toString()));
+    }
+
+    private static Map<?, ?> body(ResponseEntity<?> response) {
+        assertEquals(200, response.getStatusCode().value(), String.valueOf(response.getBody()));
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertNotNull(body);
+        return body;
+    }
+}
@@ -0,0 +1,81 @@
+package com.codecounter.stinger.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import com.codecounter.stinger.controller.FileExplorerController;
+import com.codecounter.stinger.model.AnalysisResult;
+
+@SpringBootTest
+class RunDiffEndpointTest {
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    @Autowired
+    private FileExplorerController fileExplorerController;
+
+    @Test
+    void diffListsAddedRemovedChangedFilesAndFolderDeltas(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("diff-app");
+        Files.createDirectories(project.resolve("a"));
+        Files.createDirectories(project.resolve("b"));
+        Files.writeString(project.resolve("a/A.java"), "public class A {\n  void a() {}\n}\n");
+        Files.writeString(project.resolve("a/Same.java"), "public class Same {}\n");
+        Files.writeString(project.resolve("b/notes.md"), "# notes\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            AnalysisResult first = fileAnalysisService.analyzeDirectory(project.toString());
+
+            Files.writeString(project.resolve("a/A.java"), "public class A {\n  void a() {}\n  void b() {}\n}\n");
+            Files.delete(project.resolve("b/notes.md"));
+            Files.createDirectories(project.resolve("c"));
+            Files.writeString(project.resolve("c/C.java"), "public class C {\n}\n");
+            AnalysisResult second = fileAnalysisService.analyzeDirectory(project.toString());
+
+            String from = Path.of(first.getResultsPath()).getFileName().toString();
+            String to = Path.of(second.getResultsPath()).getFileName().toString();
+            ResponseEntity<?> response = fileExplorerController.diff(project.toString(), from, to, 1000);
+            assertEquals(200, response.getStatusCode().value());
+            Map<?, ?> body = (Map<?, ?>) response.getBody();
+            assertNotNull(body);
+
+            String root = project.toFile().getCanonicalPath();
+            assertEquals(List.of(root + "/c/C.java".replace('/', File.separatorChar)), body.get("added"));
+            assertEquals(List.of(root + "/b/notes.md".replace('/', File.separatorChar)), body.get("removed"));
+            List<?> changed = (List<?>) body.get("changed");
+            assertEquals(1, changed.size());
+            Map<?, ?> a = (Map<?, ?>) changed.get(0);
+            assertEquals(3L, a.get("linesFrom"));
+            assertEquals(4L, a.get("linesTo"));
+            assertEquals(1, a.get("methodsFrom"));
+            assertEquals(2, a.get("methodsTo"));
+            assertEquals(1L, body.get("unchangedCount"));
+
+            // root: +C.java (2 lines) -notes.md (1 line) +1 line in A.java
+            Map<?, ?> rootDelta = ((List<?>) body.get("folders")).stream()
+                .map(f -> (Map<?, ?>) f)
+                .filter(f -> root.equals(f.get("path")))
+                .findFirst().orElseThrow();
+            assertEquals(0L, rootDelta.get("files"));
+            assertEquals(2L, rootDelta.get("lines"));
+
+            assertEquals(400, fileExplorerController.diff(project.toString(), "../x", to, 10).getStatusCode().value());
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+}
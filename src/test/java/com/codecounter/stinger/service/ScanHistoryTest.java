@@ -0,0 +1,72 @@
+package com.codecounter.stinger.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import com.codecounter.stinger.controller.FileExplorerController;
+import com.codecounter.stinger.model.AnalysisResult;
+
+@SpringBootTest
+class ScanHistoryTest {
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    @Autowired
+    private FileExplorerController fileExplorerController;
+
+    @Test
+    void everyCompletedRunIsRecordedAndReturnedOldestFirst(@TempDir Path tmpDir) throws IOException {
+        Path project = tmpDir.resolve("history-app");
+        Files.createDirectories(project);
+        Files.writeString(project.resolve("A.java"), "public class A {\n  void a() {}\n}\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            AnalysisResult first = fileAnalysisService.analyzeDirectory(project.toString());
+            Files.writeString(project.resolve("B.java"), "public class B {\n  void b() {}\n  void c() {}\n}\n");
+            AnalysisResult second = fileAnalysisService.analyzeDirectory(project.toString());
+            // a plain save has no analysis, so no method count
+            fileAnalysisService.saveAnalysisResults(project.toString());
+
+            // trailing separator resolves to the same series
+            ResponseEntity<?> response = fileExplorerController.history(project + "/", null);
+            assertEquals(200, response.getStatusCode().value());
+            Map<?, ?> body = (Map<?, ?>) response.getBody();
+            assertNotNull(body);
+            List<?> runs = (List<?>) body.get("runs");
+            assertEquals(3, runs.size());
+
+            Map<?, ?> r1 = (Map<?, ?>) runs.get(0);
+            Map<?, ?> r2 = (Map<?, ?>) runs.get(1);
+            Map<?, ?> r3 = (Map<?, ?>) runs.get(2);
+            assertEquals(first.getResultsPath(), r1.get("resultsPath"));
+            assertEquals(second.getResultsPath(), r2.get("resultsPath"));
+            assertEquals(1, r1.get("totalCodeFiles"));
+            assertEquals(2, r2.get("totalCodeFiles"));
+            assertEquals(first.getTotalCodeLines(), r1.get("totalCodeLines"));
+            assertEquals(second.getTotalLines(), r2.get("totalLines"));
+            assertEquals(second.getTotalMethods(), r2.get("totalMethods"));
+            assertNull(r3.get("totalMethods"));
+            assertTrue(r1.get("completedAt").toString().compareTo(r2.get("completedAt").toString()) <= 0);
+
+            Map<?, ?> recent = (Map<?, ?>) fileExplorerController.history(project.toString(), 90).getBody();
+            assertEquals(3, ((List<?>) recent.get("runs")).size());
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.codecounter.stinger.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.codecounter.stinger.service.ScanScheduler.Priority;
+
+class ScanSchedulerTest {
+
+    @Test
+    void capsConcurrencyAndRunsInteractiveBeforeBatch() throws Exception {
+        ScanScheduler scheduler = new ScanScheduler(1, 60_000);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            List<String> order = new CopyOnWriteArrayList<>();
+            CompletableFuture<String> first = scheduler.submit("analyze", "/a", Priority.INTERACTIVE, () -> {
+                release.await(5, TimeUnit.SECONDS);
+                order.add("a");
+                return "a";
+            });
+            CompletableFuture<String> batch = scheduler.submit("analyze", "/b", Priority.BATCH, () -> { order.add("b"); return "b"; });
+            CompletableFuture<String> interactive = scheduler.submit("analyze", "/c", Priority.INTERACTIVE, () -> { order.add("c"); return "c"; });
+
+            Map<String, Object> stats = scheduler.stats();
+            assertEquals(1, stats.get("running"));
+            assertEquals(2, stats.get("queueDepth"));
+
+            release.countDown();
+            CompletableFuture.allOf(first, batch, interactive).get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("a", "c", "b"), order);
+            assertEquals(0, scheduler.queueDepth());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void sameRootAndKindSharesOneRun() throws Exception {
+        ScanScheduler scheduler = new ScanScheduler(2, 60_000);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            CompletableFuture<Integer> one = scheduler.submit("analyze", "/same", Priority.INTERACTIVE, () -> {
+                release.await(5, TimeUnit.SECONDS);
+                return runs.incrementAndGet();
+            });
+            CompletableFuture<Integer> two = scheduler.submit("analyze", "/same", Priority.INTERACTIVE, runs::incrementAndGet);
+            assertSame(one, two);
+            release.countDown();
+            assertEquals(1, two.get(5, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+            assertEquals(1L, scheduler.stats().get("deduplicated"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void waitingBatchJobsAgeAheadOfNewInteractiveOnes() throws Exception {
+        ScanScheduler scheduler = new ScanScheduler(1, 20);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            List<String> order = new CopyOnWriteArrayList<>();
+            CompletableFuture<Object> blocker = scheduler.submit("analyze", "/a", Priority.INTERACTIVE, () -> release.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> batch = scheduler.submit("analyze", "/b", Priority.BATCH, () -> { order.add("b"); return "b"; });
+            // two aging intervals later the batch job outranks a fresh interactive one
+            Thread.sleep(100);
+            CompletableFuture<String> interactive = scheduler.submit("analyze", "/c", Priority.INTERACTIVE, () -> { order.add("c"); return "c"; });
+            release.countDown();
+            CompletableFuture.allOf(blocker, batch, interactive).get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("b", "c"), order);
+            assertTrue((Long) scheduler.stats().get("maxWaitMs") >= 100);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
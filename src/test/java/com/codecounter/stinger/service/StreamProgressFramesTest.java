@@ -0,0 +1,103 @@
+package com.codecounter.stinger.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.codecounter.stinger.service.stream.ScanSession;
+import com.codecounter.stinger.service.stream.SseEventPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = "stinger.stream.progress-interval-ms=60000")
+class StreamProgressFramesTest {
+
+    @Autowired
+    private FileAnalysisService fileAnalysisService;
+
+    /**
+     * Records the event names sent on the stream.
+     */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> names = new CopyOnWriteArrayList<>();
+        final Map<String, Object> lastData = new ConcurrentHashMap<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            send(builder.build());
+        }
+
+        // progress frames arrive here already encoded
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            for (var part : items) {
+                Object data = part.getData();
+                if (data instanceof byte[] frame) {
+                    // pre-encoded progress frame: "id:..\nevent:progress\ndata:{json}\n\n"
+                    String text = new String(frame, StandardCharsets.UTF_8);
+                    String name = null;
+                    for (String line : text.split("\n")) {
+                        if (line.startsWith("event:")) names.add(name = line.substring(6).trim());
+                        if (line.startsWith("data:") && name != null) lastData.put(name, new ObjectMapper().readValue(line.substring(5), Map.class));
+                    }
+                } else if (data instanceof String s) {
+                    for (String line : s.split("\n")) {
+                        if (line.startsWith("event:")) names.add(line.substring(6).trim());
+                    }
+                } else if (!names.isEmpty()) {
+                    lastData.put(names.get(names.size() - 1), data);
+                }
+            }
+        }
+
+        @Override
+        public void send(Object object, MediaType mediaType) {
+        }
+    }
+
+    @Test
+    void perFileAndPerMethodEventsAreCoalescedIntoProgressFrames(@TempDir Path tmpDir) throws Exception {
+        Path project = tmpDir.resolve("stream-app");
+        Files.createDirectories(project.resolve("src"));
+        for (int i = 0; i < 50; i++) {
+            Files.writeString(project.resolve("src/C" + i + ".java"), "class C" + i + " {\n void a() {}\n void b() {}\n}\n");
+        }
+        Files.writeString(project.resolve("README.md"), "# readme\n");
+
+        System.setProperty("stinger.results.dir", tmpDir.resolve("code_counter_results").toString());
+        try {
+            RecordingEmitter emitter = new RecordingEmitter();
+            ScanSession session = new ScanSession("t", project.toString());
+            SseEventPublisher events = new SseEventPublisher(session, emitter, 0);
+            fileAnalysisService.analyzeDirectoryStream(project.toString(), session);
+            session.finish();
+            assertTrue(events.awaitDrained(10, TimeUnit.SECONDS));
+
+            assertTrue(Set.of("start", "totals", "progress", "result", "saved", "done").containsAll(emitter.names), emitter.names.toString());
+            // with a long interval only the final flush produces a frame
+            assertEquals(1, emitter.names.stream().filter("progress"::equals).count());
+
+            // no earlier run: the denominators come from the metadata pre-scan
+            Map<?, ?> frame = (Map<?, ?>) emitter.lastData.get("progress");
+            assertEquals(50, frame.get("totalCodeFiles"));
+            assertEquals(frame.get("processedBytes"), frame.get("totalBytes"));
+        } finally {
+            System.clearProperty("stinger.results.dir");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.codecounter.stinger.service.io;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    /**
+     * A device that serves {@code capacity} reads in parallel at {@code serviceMs} each; beyond that, reads
+     * queue and latency grows with the number in flight. Feeds {@code reads} reads at the controller's
+     * current limit and returns the limits it chose over the last quarter.
+     */
+    private static int[] drive(AdaptiveConcurrency controller, int capacity, double serviceMs, int reads) {
+        long now = 0;
+        int[] tail = new int[reads / 4];
+        for (int i = 0; i < reads; i++) {
+            int inFlight = controller.limit();
+            double latency = serviceMs * MILLI * Math.max(1.0, (double) inFlight / capacity);
+            // in flight reads complete at inFlight / latency per ns
+            now += (long) (latency / inFlight);
+            controller.record((long) latency, 64 * 1024, now);
+            if (i >= reads - tail.length) tail[i - (reads - tail.length)] = controller.limit();
+        }
+        return tail;
+    }
+
+    @Test
+    void parallelDeviceClimbsToTheUpperBound() {
+        AdaptiveConcurrency ssd = new AdaptiveConcurrency(1, 16, 2, 1.5);
+        int[] limits = drive(ssd, 64, 0.1, 20_000);
+        for (int limit : limits) assertEquals(16, limit);
+        assertEquals(0L, ssd.stats().get("decreases"));
+    }
+
+    @Test
+    void seekBoundDeviceSettlesNearItsCapacity() {
+        AdaptiveConcurrency disk = new AdaptiveConcurrency(1, 16, 8, 1.5);
+        for (int limit : drive(disk, 1, 8.0, 20_000)) {
+            assertTrue(limit <= 2, "limit " + limit);
+        }
+        AdaptiveConcurrency raid = new AdaptiveConcurrency(1, 16, 1, 1.5);
+        for (int limit : drive(raid, 4, 4.0, 20_000)) {
+            assertTrue(limit >= 3 && limit <= 8, "limit " + limit);
+        }
+        assertTrue((long) raid.stats().get("decreases") > 0);
+        // throughput is flat from 4 up, so the best level seen is at least the device's parallelism
+        assertTrue((int) raid.stats().get("bestLimit") >= 4);
+    }
+
+    @Test
+    void readStageNeverExceedsTheLimitAndDrains() throws Exception {
+        AdaptiveConcurrency controller = new AdaptiveConcurrency(1, 3, 3, 1.5);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            AdaptiveReadStage stage = new AdaptiveReadStage(pool, controller);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            AtomicInteger done = new AtomicInteger();
+            for (int i = 0; i < 200; i++) {
+                stage.submit(100, () -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.incrementAndGet();
+                });
+            }
+            stage.awaitIdle();
+            assertEquals(200, done.get());
+            assertTrue(peak.get() <= 3, "peak " + peak.get());
+            assertTrue(stage.maxInFlight() <= 3);
+            assertEquals(200L, controller.stats().get("reads"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
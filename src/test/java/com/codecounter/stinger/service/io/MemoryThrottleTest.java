@@ -0,0 +1,155 @@
+package com.codecounter.stinger.service.io;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.codecounter.stinger.model.ThrottleEvents;
+
+class MemoryThrottleTest {
+
+    @Test
+    void levelsFollowOccupancy() {
+        AtomicLong used = new AtomicLong(10);
+        MemoryPressure pressure = new MemoryPressure(0.7, 0.8, 0.9, used::get, () -> 100);
+        assertEquals(MemoryPressure.Level.NORMAL, pressure.level());
+        long[] steps = { 75, 85, 95, 20 };
+        MemoryPressure.Level[] expected = { MemoryPressure.Level.SHRINK, MemoryPressure.Level.SPILL,
+            MemoryPressure.Level.PAUSE, MemoryPressure.Level.NORMAL };
+        for (int i = 0; i < steps.length; i++) {
+            used.set(steps[i]);
+            pressure.invalidate();
+            assertEquals(expected[i], pressure.level());
+        }
+        assertEquals(1L, pressure.stats().get("pauseEntered"));
+    }
+
+    @Test
+    void throttleShrinksSpillsAndPausesInSteps(@TempDir Path tmpDir) throws Exception {
+        AtomicLong used = new AtomicLong(10);
+        MemoryPressure pressure = new MemoryPressure(0.7, 0.8, 0.9, used::get, () -> 100);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (SpillableStringSet visited = new SpillableStringSet(tmpDir.resolve("spill"))) {
+            AdaptiveReadStage stage = new AdaptiveReadStage(pool, new AdaptiveConcurrency(1, 8, 4, 1.5));
+            ReadScheduler reads = new ReadScheduler(stage, ReadScheduler.Order.INODE, 100);
+            MemoryThrottle throttle = new MemoryThrottle(pressure, reads, visited, 2_000);
+            AtomicInteger done = new AtomicInteger();
+            for (int i = 0; i < 5; i++) {
+                File f = Files.writeString(tmpDir.resolve("f" + i), "x").toFile();
+                reads.submit(f, done::incrementAndGet);
+                visited.add(f.getAbsolutePath());
+            }
+
+            throttle.admit();
+            assertEquals(Integer.MAX_VALUE, stage.ceiling());
+
+            used.set(75);
+            pressure.invalidate();
+            throttle.admit();
+            assertEquals(2, stage.ceiling());
+            assertEquals(0L, reads.batches());
+
+            used.set(85);
+            pressure.invalidate();
+            throttle.admit();
+            // the pending batch went out and the visited set left the heap
+            assertEquals(1L, reads.batches());
+            assertEquals(0, visited.inMemory());
+            assertTrue(visited.contains(tmpDir.resolve("f3").toFile().getAbsolutePath()));
+
+            used.set(95);
+            pressure.invalidate();
+            Thread release = new Thread(() -> {
+                try {
+                    Thread.sleep(150);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                used.set(50);
+                pressure.invalidate();
+            });
+            release.start();
+            long start = System.nanoTime();
+            throttle.admit();
+            long waitedMs = (System.nanoTime() - start) / 1_000_000;
+            release.join();
+            assertTrue(waitedMs >= 100 && waitedMs < 2_000, "waited " + waitedMs);
+
+            used.set(20);
+            pressure.invalidate();
+            throttle.admit();
+            assertEquals(Integer.MAX_VALUE, stage.ceiling());
+            reads.drain();
+            assertEquals(5, done.get());
+
+            ThrottleEvents events = throttle.finish();
+            assertEquals(1L, events.getShrinks());
+            assertEquals(1L, events.getSpills());
+            assertEquals(5L, events.getSpilledEntries());
+            assertEquals(1L, events.getPauses());
+            assertTrue(events.getPausedMs() >= 100);
+            assertEquals(95.0, events.getPeakHeapPercent());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void heapHeldAtPauseLevelPausesOncePerEntry() {
+        AtomicLong used = new AtomicLong(95);
+        MemoryPressure pressure = new MemoryPressure(0.7, 0.8, 0.9, used::get, () -> 100);
+        MemoryThrottle throttle = new MemoryThrottle(pressure, null, null, 100);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) throttle.admit();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        // one timed-out pause, not twenty
+        assertTrue(elapsedMs >= 100 && elapsedMs < 1_000, "took " + elapsedMs);
+        assertEquals(1L, throttle.finish().getPauses());
+
+        // dropping below the level and coming back pauses again
+        used.set(50);
+        pressure.invalidate();
+        throttle.admit();
+        used.set(95);
+        pressure.invalidate();
+        throttle.admit();
+        assertEquals(2L, throttle.finish().getPauses());
+    }
+
+    @Test
+    void spilledEntriesStayVisibleAcrossRunsAndMerges(@TempDir Path tmpDir) throws Exception {
+        try (SpillableStringSet set = new SpillableStringSet(tmpDir)) {
+            for (int i = 0; i < 30_000; i++) {
+                assertTrue(set.add("/repo/dir" + i));
+                if (i % 3_000 == 2_999) set.spill();
+            }
+            // ten spills, merged back to one run after the ninth
+            assertEquals(10, set.spills());
+            assertEquals(30_000L, set.size());
+            assertEquals(0, set.inMemory());
+            for (int i = 0; i < 30_000; i += 7) {
+                assertTrue(set.contains("/repo/dir" + i));
+                assertFalse(set.add("/repo/dir" + i));
+            }
+            assertFalse(set.contains("/repo/dir30000"));
+            assertFalse(set.contains("/repo/other"));
+            try (var runs = Files.list(tmpDir)) {
+                assertTrue(runs.count() <= SpillableStringSet.MAX_RUNS);
+            }
+        }
+        try (var left = Files.list(tmpDir)) {
+            assertEquals(0L, left.count());
+        }
+    }
+}
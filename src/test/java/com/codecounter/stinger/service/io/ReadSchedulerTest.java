@@ -0,0 +1,141 @@
+package com.codecounter.stinger.service.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReadSchedulerTest {
+
+    private static List<File> createFiles(Path dir, int count) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) files.add(Files.writeString(dir.resolve("f" + i + ".txt"), "x" + i).toFile());
+        return files;
+    }
+
+    @Test
+    void walkOrderIssuesReadsAsSubmitted(@TempDir Path tmpDir) throws Exception {
+        List<File> files = createFiles(tmpDir, 10);
+        Collections.reverse(files);
+        List<File> issued = new ArrayList<>();
+        ReadScheduler reads = new ReadScheduler(null, ReadScheduler.Order.WALK, 4);
+        for (File f : files) reads.submit(f, () -> issued.add(f));
+        assertEquals(files, issued);
+        reads.drain();
+        assertEquals(0L, reads.batches());
+    }
+
+    @Test
+    void inodeOrderSortsEachBatch(@TempDir Path tmpDir) throws Exception {
+        assumeTrue(ReadScheduler.inode(tmpDir) != null, "no unix:ino on this file system");
+        List<File> files = createFiles(tmpDir, 10);
+        Collections.shuffle(files, new Random(3));
+        List<File> issued = new ArrayList<>();
+        ReadScheduler reads = new ReadScheduler(null, ReadScheduler.Order.INODE, 4);
+        for (File f : files) reads.submit(f, () -> issued.add(f));
+        // two full batches have gone out, the last two reads wait for drain()
+        assertEquals(8, issued.size());
+        reads.drain();
+        assertEquals(10, issued.size());
+        assertEquals(3L, reads.batches());
+
+        Comparator<File> byInode = Comparator.comparingLong(f -> ReadScheduler.inode(f.toPath())[1]);
+        for (int start = 0; start < 10; start += 4) {
+            List<File> batch = issued.subList(start, Math.min(10, start + 4));
+            List<File> expected = new ArrayList<>(files.subList(start, Math.min(10, start + 4)));
+            expected.sort(byInode);
+            assertEquals(expected, batch);
+        }
+    }
+
+    @Test
+    void inodeOrderFeedsTheConcurrentStage(@TempDir Path tmpDir) throws Exception {
+        List<File> files = createFiles(tmpDir, 50);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            AdaptiveReadStage stage = new AdaptiveReadStage(pool, new AdaptiveConcurrency(1, 4, 2, 1.5));
+            ReadScheduler reads = new ReadScheduler(stage, ReadScheduler.Order.INODE, 16);
+            AtomicInteger done = new AtomicInteger();
+            for (File f : files) reads.submit(f, done::incrementAndGet);
+            reads.drain();
+            assertEquals(50, done.get());
+            assertEquals(50L, stage.controller().stats().get("reads"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Directory order vs inode order over a tree whose files were created in shuffled order, so inode order
+     * differs from walk order. Meaningful only on a cold cache: run as root with -Dstinger.bench=true inside
+     * a container that may write /proc/sys/vm/drop_caches, ideally on a rotating disk.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "stinger.bench", matches = "true")
+    void benchmarkColdCacheReadOrder(@TempDir Path tmpDir) throws Exception {
+        int dirs = 64;
+        int perDir = 64;
+        byte[] content = new byte[16 * 1024];
+        new Random(1).nextBytes(content);
+        List<Path> toCreate = new ArrayList<>();
+        for (int d = 0; d < dirs; d++) {
+            Path dir = Files.createDirectories(tmpDir.resolve(String.format("d%03d", d)));
+            for (int i = 0; i < perDir; i++) toCreate.add(dir.resolve(String.format("f%03d.bin", i)));
+        }
+        Collections.shuffle(toCreate, new Random(2));
+        for (Path p : toCreate) Files.write(p, content);
+
+        List<File> walk = new ArrayList<>();
+        for (int d = 0; d < dirs; d++) {
+            for (int i = 0; i < perDir; i++) walk.add(tmpDir.resolve(String.format("d%03d/f%03d.bin", d, i)).toFile());
+        }
+        for (int round = 0; round < 3; round++) {
+            for (ReadScheduler.Order order : ReadScheduler.Order.values()) {
+                boolean cold = dropCaches();
+                ReadScheduler reads = new ReadScheduler(null, order, 1024);
+                long[] bytes = new long[1];
+                long start = System.nanoTime();
+                for (File f : walk) {
+                    reads.submit(f, () -> {
+                        try {
+                            bytes[0] += Files.readAllBytes(f.toPath()).length;
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+                }
+                reads.drain();
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                assertEquals((long) walk.size() * content.length, bytes[0]);
+                System.out.printf("round %d: %-5s %5d ms %s%n", round, order, ms, cold ? "(cold)" : "(warm cache: could not drop caches)");
+            }
+        }
+    }
+
+    private static boolean dropCaches() {
+        try {
+            new ProcessBuilder("sync").inheritIO().start().waitFor();
+            Files.writeString(Path.of("/proc/sys/vm/drop_caches"), "3");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RunEntriesTest {
+
+    private static final String SEP = File.separator;
+
+    @Test
+    void pathOrderPlacesFolderContentsDirectlyAfterTheFolder() {
+        // plain string order would put "a-b" between "a" and "a/x"
+        assertTrue(RunEntries.PATH_ORDER.compare("r" + SEP + "a" + SEP + "x", "r" + SEP + "a-b") < 0);
+        assertTrue(RunEntries.PATH_ORDER.compare("r" + SEP + "a", "r" + SEP + "a" + SEP + "x") < 0);
+        assertTrue(RunEntries.PATH_ORDER.compare("r" + SEP + "b", "r" + SEP + "a" + SEP + "z") > 0);
+    }
+
+    @Test
+    void unsortedListsFromOlderRunsAreSortedBeforeTheJoin(@TempDir Path tmpDir) throws IOException {
+        Path from = Files.createDirectories(tmpDir.resolve("from"));
+        Path to = Files.createDirectories(tmpDir.resolve("to"));
+        Files.write(from.resolve("total_files.txt"), List.of("/r/z.java", "/r/a/x.java", "/r/m.md"));
+        Files.write(to.resolve("total_files.txt"), List.of("/r/a/x.java", "/r/b.java", "/r/z.java"));
+
+        List<String> ordered = new ArrayList<>();
+        try (RunEntries e = RunEntries.open(from)) {
+            e.forEachRemaining(x -> ordered.add(x.path()));
+        }
+        assertEquals(List.of("/r/a/x.java", "/r/m.md", "/r/z.java"), ordered);
+
+        try (RunEntries a = RunEntries.open(from); RunEntries b = RunEntries.open(to)) {
+            var diff = RunDiff.compute("/r", a, b, 10);
+            assertEquals(List.of("/r/b.java"), diff.get("added"));
+            assertEquals(List.of("/r/m.md"), diff.get("removed"));
+            assertEquals(2L, diff.get("unchangedCount"));
+        }
+    }
+}
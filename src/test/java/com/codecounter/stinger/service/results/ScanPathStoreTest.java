@@ -0,0 +1,71 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ScanPathStoreTest {
+
+    private static final String SEP = File.separator;
+    private static final String ROOT = SEP + "repo";
+
+    @Test
+    void storesNamesUnderParentsAndRebuildsFullPaths() {
+        ScanPathStore store = new ScanPathStore(ROOT);
+        int src = store.add(store.root(), "src");
+        int main = store.add(src, "Main.java");
+        int readme = store.add(store.root(), "README.md");
+        store.mark(src, ScanPathStore.FOLDER);
+        store.mark(main, ScanPathStore.CODE);
+        store.mark(readme, ScanPathStore.DOC);
+
+        assertEquals(ROOT + SEP + "src" + SEP + "Main.java", store.path(main));
+        assertEquals(main, store.child(src, "Main.java"));
+        assertEquals(-1, store.child(src, "Other.java"));
+        assertEquals(main, store.find(ROOT + SEP + "src" + SEP + "Main.java"));
+        assertEquals(1, store.count(ScanPathStore.CODE));
+        assertTrue(store.isCollected(readme));
+    }
+
+    @Test
+    void unionIterationKeepsInsertionOrderWithoutDuplicates() {
+        ScanPathStore store = new ScanPathStore(ROOT);
+        store.mark(store.add(store.root(), "a.md"), ScanPathStore.DOC);
+        store.mark(store.add(store.root(), "b.java"), ScanPathStore.CODE);
+        store.mark(store.add(store.root(), "c.md"), ScanPathStore.DOC);
+
+        List<String> all = new ArrayList<>();
+        store.paths(ScanPathStore.CODE, ScanPathStore.DOC).forEach(all::add);
+        assertEquals(List.of(ROOT + SEP + "a.md", ROOT + SEP + "b.java", ROOT + SEP + "c.md"), all);
+    }
+
+    @Test
+    void resolveCreatesUncollectedParentsIncludingOutsideRoot() {
+        ScanPathStore store = new ScanPathStore(ROOT);
+        int deep = store.resolve(ROOT + SEP + "x" + SEP + "y" + SEP + "Z.java");
+        assertEquals(ROOT + SEP + "x" + SEP + "y" + SEP + "Z.java", store.path(deep));
+        assertFalse(store.isCollected(store.find(ROOT + SEP + "x")));
+
+        String outside = SEP + "elsewhere" + SEP + "lib" + SEP + "Util.java";
+        int ext = store.resolve(outside);
+        assertEquals(outside, store.path(ext));
+        assertEquals(ext, store.find(outside));
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        ScanPathStore store = new ScanPathStore(ROOT);
+        int dir = store.add(store.root(), "big");
+        for (int i = 0; i < 10_000; i++) {
+            store.mark(store.add(dir, "File" + i + ".java"), ScanPathStore.CODE);
+        }
+        assertEquals(10_000, store.count(ScanPathStore.CODE));
+        assertEquals(store.find(ROOT + SEP + "big" + SEP + "File9999.java"), store.child(dir, "File9999.java"));
+        assertEquals(ROOT + SEP + "big" + SEP + "File1234.java", store.path(store.child(dir, "File1234.java")));
+    }
+}
@@ -0,0 +1,38 @@
+package com.codecounter.stinger.service.results;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class StratifiedEstimatorTest {
+
+    @Test
+    void strataWithNoMeasuredItemsAreReportedNotDropped() {
+        StratifiedEstimator<String> sample = new StratifiedEstimator<>(10, 1L);
+        for (int i = 0; i < 3; i++) sample.offer("good", "good" + i);
+        for (int i = 0; i < 5; i++) sample.offer("bad", "bad" + i);
+
+        StratifiedEstimator.Interval[] totals = sample.estimate(1, item -> item.startsWith("bad") ? null : new long[] { 10 });
+
+        assertEquals(30.0, totals[0].estimate());
+        assertEquals(1, sample.unmeasuredStrata());
+        assertEquals(5L, sample.unmeasuredPopulation());
+    }
+
+    @Test
+    void aSingleMeasuredItemStillCarriesUncertainty() {
+        StratifiedEstimator<String> sample = new StratifiedEstimator<>(2, 1L);
+        for (int i = 0; i < 10; i++) sample.offer("java", "file" + i);
+        AtomicBoolean first = new AtomicBoolean(true);
+
+        // only one of the two sampled files can be read
+        StratifiedEstimator.Interval[] totals = sample.estimate(1, item -> first.getAndSet(false) ? new long[] { 100 } : null);
+
+        assertEquals(1000.0, totals[0].estimate());
+        assertTrue(totals[0].standardError() > 0, "n=1 of 10 is not exact: " + totals[0].standardError());
+        assertTrue(totals[0].high() > totals[0].estimate());
+        assertEquals(0, sample.unmeasuredStrata());
+    }
+}
@@ -0,0 +1,107 @@
+package com.codecounter.stinger.service.results;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StreamingResultsWriterTest {
+
+    @Test
+    void writesPathSortedListsAndRenamesIntoPlace(@TempDir Path tmpDir) throws IOException {
+        Path temp = Files.createTempDirectory(tmpDir, ".inprogress-");
+        StreamingResultsWriter out = StreamingResultsWriter.start(temp, "/repo", true, true);
+        List<String> code = new ArrayList<>();
+        out.accept(ScanPathStore.FOLDER, "/repo", 0L, -1L);
+        // more entries than the queue holds, so the walker has to wait for the writer at least once
+        for (int i = 0; i < 10_000; i++) {
+            String p = "/repo/File" + i + ".java";
+            code.add(p);
+            out.accept(ScanPathStore.CODE, p, 10L, 3L);
+        }
+        out.accept(ScanPathStore.DOC, "/repo/README.md", 5L, 2L);
+        out.close();
+        // arrival order File0, File1, File2 ... becomes File0, File1, File10, File100 ...
+        code.sort(RunEntries.PATH_ORDER);
+        assertEquals("/repo/File10.java", code.get(2));
+
+        assertEquals(10_000, out.count(ScanPathStore.CODE));
+        assertEquals(30_000L, out.lines(ScanPathStore.CODE));
+
+        Path target = tmpDir.resolve("2024_01_01_a");
+        out.commitTo(target);
+        assertFalse(Files.exists(temp));
+        assertEquals(code, Files.readAllLines(target.resolve("code_files.txt")));
+        assertEquals(List.of("/repo/README.md"), Files.readAllLines(target.resolve("document_files.txt")));
+        assertEquals(10_001, Files.readAllLines(target.resolve("total_files.txt")).size());
+        assertEquals(List.of(), Files.readAllLines(target.resolve("other_files.txt")));
+
+        BinaryResultsReader bin = BinaryResultsReader.open(target.resolve(BinaryResultsWriter.FILE_NAME));
+        assertEquals(10_002, bin.size());
+        assertEquals(code, bin.paths(BinaryResultsWriter.KIND_CODE));
+    }
+
+    @Test
+    void commitRefusesExistingTargetAndAbortRemovesTempFolder(@TempDir Path tmpDir) throws IOException {
+        Path temp = Files.createTempDirectory(tmpDir, ".inprogress-");
+        StreamingResultsWriter out = StreamingResultsWriter.start(temp, "/repo", true, false);
+        out.accept(ScanPathStore.CODE, "/repo/A.java", 1L, 1L);
+        out.close();
+
+        Path taken = Files.createDirectories(tmpDir.resolve("2024_01_01_a"));
+        assertThrows(FileAlreadyExistsException.class, () -> out.commitTo(taken));
+        assertTrue(Files.exists(temp.resolve("code_files.txt")));
+
+        out.abort();
+        assertFalse(Files.exists(temp));
+    }
+
+    @Test
+    void spilledRunsMergeIntoTheSameOrderAsAnInMemorySort(@TempDir Path tmpDir) throws IOException {
+        List<String> paths = new ArrayList<>();
+        for (int d = 0; d < 50; d++) {
+            paths.add("/repo/d" + d);
+            for (int f = 0; f < 40; f++) paths.add("/repo/d" + d + "/f" + f + ".java");
+            paths.add("/repo/d" + d + "-x.md");
+        }
+        List<String> shuffled = new ArrayList<>(paths);
+        Collections.shuffle(shuffled, new Random(5));
+
+        Path temp = Files.createTempDirectory(tmpDir, ".inprogress-");
+        // a budget of a few entries forces hundreds of runs
+        StreamingResultsWriter out = StreamingResultsWriter.start(temp, "/repo", true, true, 16 * 1024);
+        for (String p : shuffled) {
+            int category = p.endsWith(".java") ? ScanPathStore.CODE : p.endsWith(".md") ? ScanPathStore.DOC : ScanPathStore.FOLDER;
+            out.accept(category, p, 1L, -1L);
+        }
+        out.close();
+        try (Stream<Path> left = Files.list(temp)) {
+            assertTrue(left.noneMatch(p -> p.getFileName().toString().startsWith(".sort-")));
+        }
+
+        List<String> sorted = new ArrayList<>(paths);
+        sorted.sort(RunEntries.PATH_ORDER);
+        List<String> files = new ArrayList<>();
+        for (String p : sorted) if (!p.matches("/repo/d\\d+")) files.add(p);
+        assertEquals(files, Files.readAllLines(temp.resolve("total_files.txt")));
+        // "/repo/d1" sorts before "/repo/d1-x.md" and its own contents right after it
+        int d1 = sorted.indexOf("/repo/d1");
+        assertEquals("/repo/d1/f0.java", sorted.get(d1 + 1));
+        BinaryResultsReader bin = BinaryResultsReader.open(temp.resolve(BinaryResultsWriter.FILE_NAME));
+        List<String> binPaths = new ArrayList<>();
+        bin.forEach((i, p) -> binPaths.add(p));
+        assertEquals(sorted, binPaths);
+    }
+}
@@ -0,0 +1,83 @@
+package com.codecounter.stinger.service.stream;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.codecounter.stinger.model.AnalysisResult;
+
+class MetadataPreScanTest {
+
+    private static final MetadataPreScan.Rules RULES = new MetadataPreScan.Rules() {
+        @Override
+        public boolean skipFile(File file) {
+            return file.getName().endsWith(".log");
+        }
+
+        @Override
+        public boolean skipDirectory(File directory) {
+            return directory.getName().equals("target");
+        }
+
+        @Override
+        public String classify(File file) {
+            String name = file.getName();
+            if (name.endsWith(".java")) return "code";
+            if (name.endsWith(".md")) return "document";
+            return "other";
+        }
+    };
+
+    @Test
+    void countsFoldersFilesAndBytesLikeTheWalker(@TempDir Path tmpDir) throws Exception {
+        for (int d = 0; d < 5; d++) {
+            Path dir = Files.createDirectories(tmpDir.resolve("pkg" + d).resolve("sub"));
+            for (int i = 0; i < 10; i++) {
+                Files.writeString(dir.resolve("C" + i + ".java"), "class C {}\n");
+            }
+        }
+        Files.writeString(tmpDir.resolve("README.md"), "# readme\n");
+        Files.writeString(tmpDir.resolve("data.bin"), "xx");
+        Files.writeString(tmpDir.resolve("app.log"), "ignored");
+        Path target = Files.createDirectories(tmpDir.resolve("target"));
+        Files.writeString(target.resolve("Gen.java"), "class Gen {}\n");
+
+        AtomicReference<Boolean> lastComplete = new AtomicReference<>(false);
+        MetadataPreScan scan = MetadataPreScan.start(tmpDir.toFile(), RULES, 60_000, s -> lastComplete.set(s.isComplete()));
+        assertTrue(scan.awaitFinished(10, TimeUnit.SECONDS));
+
+        assertTrue(scan.isComplete());
+        assertTrue(lastComplete.get(), "the final update is sent once complete");
+        // pkg0..4, their sub folders and target (counted, not descended)
+        assertEquals(11, scan.folders());
+        assertEquals(51, scan.files());
+        assertEquals(50, scan.codeFiles());
+        assertEquals(1, scan.docFiles());
+        assertEquals(1, scan.otherFiles());
+        assertEquals(50L * "class C {}\n".length() + "# readme\n".length(), scan.bytes());
+    }
+
+    @Test
+    void completeCountsReplaceStaleTotalsButNeverUndercutTheWalk(@TempDir Path tmpDir) throws Exception {
+        Files.writeString(tmpDir.resolve("A.java"), "class A {}\n");
+        MetadataPreScan scan = MetadataPreScan.start(tmpDir.toFile(), RULES, 0, s -> { });
+        assertTrue(scan.awaitFinished(10, TimeUnit.SECONDS));
+
+        AnalysisResult totals = new AnalysisResult();
+        totals.setTotalCodeFiles(40);
+        AnalysisResult processed = new AnalysisResult();
+        scan.mergeInto(totals, processed);
+        assertEquals(1, totals.getTotalCodeFiles());
+
+        processed.setTotalCodeFiles(3);
+        scan.mergeInto(totals, processed);
+        assertEquals(3, totals.getTotalCodeFiles());
+    }
+}
@@ -0,0 +1,58 @@
+package com.codecounter.stinger.service.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import com.codecounter.stinger.model.AnalysisResult;
+
+class ProgressAggregatorTest {
+
+    @Test
+    void mergesEventsIntoOneFrameWithCountersAndRecentSample() throws IOException {
+        AnalysisResult result = new AnalysisResult();
+        AnalysisResult totals = new AnalysisResult();
+        totals.setTotalCodeFiles(100);
+        List<ProgressFrame> frames = new ArrayList<>();
+        ProgressAggregator progress = new ProgressAggregator(result, totals, 60_000, 3, frames::add);
+
+        progress.folder("/r/src");
+        for (int i = 0; i < 100; i++) {
+            result.setTotalCodeFiles(i + 1);
+            progress.codeFile("/r/src/F" + i + ".java");
+            progress.method("m" + i);
+            progress.tick();
+        }
+        assertEquals(0, frames.size(), "nothing is sent before the interval elapses");
+
+        progress.flush();
+        assertEquals(1, frames.size());
+        ProgressFrame frame = frames.get(0);
+        assertEquals(100L, frame.processedCodeFiles());
+        assertEquals(100L, frame.totalCodeFiles());
+        assertEquals("/r/src/F99.java", frame.currentCodeFile());
+        assertEquals("m99", frame.currentMethod());
+        assertEquals(List.of("/r/src/F97.java", "/r/src/F98.java", "/r/src/F99.java"), frame.recentFiles());
+        assertEquals(List.of("/r/src"), frame.recentFolders());
+        assertEquals(201L, frame.events());
+
+        // nothing new: a second flush is a no-op
+        progress.flush();
+        assertEquals(1, frames.size());
+    }
+
+    @Test
+    void zeroIntervalSendsOnEveryTick() throws IOException {
+        List<ProgressFrame> frames = new ArrayList<>();
+        ProgressAggregator progress = new ProgressAggregator(new AnalysisResult(), new AnalysisResult(), 0, 4, frames::add);
+        progress.docFile("/r/a.md");
+        progress.tick();
+        progress.docFile("/r/b.md");
+        progress.tick();
+        assertEquals(2, frames.size());
+        assertEquals(List.of("/r/b.md"), frames.get(1).recentFiles());
+    }
+}
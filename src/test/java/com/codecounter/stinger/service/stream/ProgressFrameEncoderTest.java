@@ -0,0 +1,98 @@
+package com.codecounter.stinger.service.stream;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ProgressFrameEncoderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static ProgressFrame sample(long n, String current) {
+        return new ProgressFrame(
+            n, 500, n * 10, 5000, n * 8, 4000, n * 2, 1000,
+            n * 300, 1_500_000, n * 250, 1_200_000, n * 50, 300_000,
+            n * 20, 100_000, n * 9_000, 45_000_000, n % 2 == 0,
+            12_345_678, 321.5, n % 3 == 0 ? -1 : 42,
+            "/repo/src/main/java/pkg" + n, current, null, "method" + n,
+            n * 3, List.of("/repo/a", "/repo/b"), List.of("/repo/a/A.java", "/repo/b/B.md", "/repo/b/C.java"));
+    }
+
+    @Test
+    void encodesTheSameJsonAsTheMapPath() throws Exception {
+        ProgressFrameEncoder encoder = new ProgressFrameEncoder();
+        for (long n = 0; n < 6; n++) {
+            ProgressFrame frame = sample(n, "/repo/\u00e9t\u00e9/\"quoted\"\\back\tslash/\ud83d\ude00.java");
+            String text = new String(encoder.encode("scan:" + n, frame), StandardCharsets.UTF_8);
+
+            String[] lines = text.split("\n", -1);
+            assertEquals("id:scan:" + n, lines[0]);
+            assertEquals("event:progress", lines[1]);
+            assertTrue(lines[2].startsWith("data:"));
+            assertTrue(text.endsWith("\n\n"));
+            // field order and values match the Jackson rendering of the same frame as a map
+            assertEquals(MAPPER.writeValueAsString(frame.toMap()), lines[2].substring(5));
+            assertEquals(MAPPER.readTree(MAPPER.writeValueAsString(frame.toMap())), MAPPER.readTree(lines[2].substring(5)));
+        }
+    }
+
+    @Test
+    void bufferGrowsForLargeFramesAndIsReused() {
+        ProgressFrameEncoder encoder = new ProgressFrameEncoder();
+        String longPath = "/x".repeat(2000);
+        byte[] big = encoder.encode("s:1", sample(1, longPath));
+        int capacity = encoder.capacity();
+        assertTrue(capacity >= big.length);
+        byte[] small = encoder.encode("s:2", sample(2, "/a"));
+        assertTrue(small.length < big.length);
+        assertEquals(capacity, encoder.capacity());
+    }
+
+    /**
+     * Encoder vs the map + Jackson path the emitter used before. Run with -Dstinger.bench=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "stinger.bench", matches = "true")
+    void benchmarkAgainstMapPath() throws Exception {
+        ProgressFrameEncoder encoder = new ProgressFrameEncoder();
+        ProgressFrame[] frames = new ProgressFrame[64];
+        for (int i = 0; i < frames.length; i++) frames[i] = sample(i, "/repo/src/main/java/pkg/File" + i + ".java");
+        int iterations = 500_000;
+        for (int round = 0; round < 3; round++) {
+            long[] enc = measure(iterations, i -> encoder.encode("scan:" + i, frames[i & 63]).length);
+            long[] map = measure(iterations, i -> {
+                // what SseEmitter.event().id().name().data(map) + MappingJackson2HttpMessageConverter produced
+                String head = "id:scan:" + i + "\nevent:progress\ndata:";
+                byte[] json = MAPPER.writeValueAsBytes(frames[i & 63].toMap());
+                return head.getBytes(StandardCharsets.UTF_8).length + json.length + "\n\n".getBytes(StandardCharsets.UTF_8).length;
+            });
+            System.out.printf("round %d: encoder %d ns/op %d B/op | map+jackson %d ns/op %d B/op%n",
+                round, enc[0], enc[1], map[0], map[1]);
+        }
+    }
+
+    interface Op {
+        int run(int i) throws Exception;
+    }
+
+    private static long[] measure(int iterations, Op op) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().threadId();
+        long sink = 0;
+        long allocBefore = threads.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += op.run(i);
+        long elapsed = System.nanoTime() - start;
+        long alloc = threads.getThreadAllocatedBytes(tid) - allocBefore;
+        assertTrue(sink > 0);
+        return new long[] { elapsed / iterations, alloc / iterations };
+    }
+}
@@ -0,0 +1,170 @@
+package com.codecounter.stinger.service.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseEventPublisherTest {
+
+    /**
+     * Emitter that takes {@code delayMs} per event, like a slow browser or proxy.
+     */
+    static class SlowEmitter extends SseEmitter {
+        final List<String> names = new CopyOnWriteArrayList<>();
+        final List<String> ids = new CopyOnWriteArrayList<>();
+        final List<byte[]> encoded = new CopyOnWriteArrayList<>();
+        final long delayMs;
+        volatile boolean fail;
+
+        SlowEmitter(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            send(builder.build());
+        }
+
+        // progress frames arrive here already encoded
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (fail) throw new IOException("broken pipe");
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (var part : items) {
+                if (part.getData() instanceof byte[] frame) {
+                    encoded.add(frame);
+                    names.add("progress");
+                } else if (part.getData() instanceof String s) {
+                    for (String line : s.split("\n")) {
+                        if (line.startsWith("event:")) names.add(line.substring(6).trim());
+                        if (line.startsWith("id:")) ids.add(line.substring(3).trim());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void slowSubscriberSkipsIntermediateProgressButNeverTerminalEvents() throws Exception {
+        ScanSession session = new ScanSession("scan", "/r");
+        SlowEmitter emitter = new SlowEmitter(20);
+        SseEventPublisher events = new SseEventPublisher(session, emitter, 0);
+
+        long start = System.nanoTime();
+        session.event("start", "s");
+        for (int i = 0; i < 1000; i++) {
+            session.progress(i);
+        }
+        session.event("result", "r");
+        session.event("saved", "x");
+        session.event("done", "d");
+        session.finish();
+        long publishMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // 1000 frames at 20ms each would take 20s if the scan waited for the client
+        assertTrue(publishMs < 1000, "publishing must not wait for the client (" + publishMs + "ms)");
+
+        assertTrue(events.awaitDrained(10, TimeUnit.SECONDS));
+        assertTrue(events.skippedProgress() > 900);
+        List<String> names = emitter.names;
+        assertEquals("start", names.get(0));
+        assertEquals(List.of("result", "saved", "done"), names.subList(names.size() - 3, names.size()));
+        // the last frame published before 'result' is still delivered ahead of it
+        assertEquals("progress", names.get(names.size() - 4));
+        assertEquals("scan:" + session.lastSeq(), emitter.ids.get(emitter.ids.size() - 1));
+    }
+
+    @Test
+    void everySubscriberGetsTheEventsAndAFailedOneIsDroppedAlone() throws Exception {
+        ScanSession session = new ScanSession("scan", "/r");
+        SlowEmitter broken = new SlowEmitter(0);
+        broken.fail = true;
+        SlowEmitter a = new SlowEmitter(0);
+        SlowEmitter b = new SlowEmitter(5);
+        SseEventPublisher gone = new SseEventPublisher(session, broken, 0);
+        SseEventPublisher first = new SseEventPublisher(session, a, 0);
+        SseEventPublisher second = new SseEventPublisher(session, b, 0);
+
+        session.event("start", "s");
+        assertTrue(gone.awaitDrained(5, TimeUnit.SECONDS));
+        assertFalse(gone.isOpen());
+        session.progress("p");
+        session.event("done", "d");
+        session.finish();
+
+        assertTrue(first.awaitDrained(5, TimeUnit.SECONDS));
+        assertTrue(second.awaitDrained(5, TimeUnit.SECONDS));
+        assertEquals(List.of("start", "progress", "done"), a.names);
+        assertEquals(List.of("start", "progress", "done"), b.names);
+        assertEquals(0, session.subscriberCount());
+    }
+
+    @Test
+    void manyViewersShareOneEncodingPerProgressFrame() throws Exception {
+        ScanSession session = new ScanSession("scan", "/r");
+        List<SlowEmitter> emitters = new ArrayList<>();
+        List<SseEventPublisher> viewers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            SlowEmitter emitter = new SlowEmitter(0);
+            emitters.add(emitter);
+            viewers.add(new SseEventPublisher(session, emitter, 0));
+        }
+        session.progress(ProgressFrameEncoderTest.sample(1, "/r/A.java"));
+        for (SlowEmitter emitter : emitters) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (emitter.encoded.isEmpty() && System.nanoTime() < deadline) Thread.sleep(1);
+        }
+        session.event("done", "d");
+        session.finish();
+        for (SseEventPublisher viewer : viewers) {
+            assertTrue(viewer.awaitDrained(10, TimeUnit.SECONDS));
+        }
+
+        Set<byte[]> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (SlowEmitter emitter : emitters) {
+            assertEquals(List.of("progress", "done"), emitter.names);
+            distinct.add(emitter.encoded.get(0));
+        }
+        // senders that raced may each have encoded it, but nowhere near one copy per viewer
+        assertTrue(distinct.size() < emitters.size() / 2, distinct.size() + " encodings");
+    }
+
+    @Test
+    void reconnectingSubscriberResumesAfterItsLastEventId() throws Exception {
+        ScanSession session = new ScanSession("scan", "/r");
+        session.event("start", "s");
+        session.event("totals", "t");
+        session.progress("p1");
+        session.progress("p2");
+        session.event("result", "r");
+        session.finish();
+
+        String[] lastEventId = SseEventPublisher.parseLastEventId("scan:2");
+        assertArrayEquals(new String[] { "scan", "2" }, lastEventId);
+        SlowEmitter emitter = new SlowEmitter(0);
+        SseEventPublisher events = new SseEventPublisher(session, emitter, Long.parseLong(lastEventId[1]));
+        assertTrue(events.awaitDrained(5, TimeUnit.SECONDS));
+        // only the latest progress frame is retained for replay
+        assertEquals(List.of("progress", "result"), emitter.names);
+        assertEquals(List.of("scan:4", "scan:5"), emitter.ids);
+
+        assertNull(SseEventPublisher.parseLastEventId("scan"));
+        assertNull(SseEventPublisher.parseLastEventId("scan:x1"));
+    }
+}
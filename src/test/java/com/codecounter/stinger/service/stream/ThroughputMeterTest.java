@@ -0,0 +1,53 @@
+package com.codecounter.stinger.service.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class ThroughputMeterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void steadyRateGivesExactRateAndEta() {
+        ThroughputMeter meter = new ThroughputMeter();
+        for (int i = 0; i <= 10; i++) {
+            meter.sample(i * SECOND, i * 1_000_000L, i * 10L);
+        }
+        assertEquals(1_000_000, meter.bytesPerSecond(), 1e-6);
+        assertEquals(10, meter.filesPerSecond(), 1e-9);
+        // 10 MB read, 30 MB to go
+        assertEquals(30, meter.etaSeconds(40_000_000L, 0));
+        // without a byte total the ETA falls back to files: 100 done, 50 to go
+        assertEquals(5, meter.etaSeconds(0, 150));
+    }
+
+    @Test
+    void slowdownPullsTheAverageDownWithinAFewTau() {
+        ThroughputMeter meter = new ThroughputMeter(2.0);
+        long bytes = 0;
+        long t = 0;
+        meter.sample(t, bytes, 0);
+        for (int i = 0; i < 10; i++) {
+            t += SECOND;
+            bytes += 10_000_000L;
+            meter.sample(t, bytes, 0);
+        }
+        assertEquals(10_000_000, meter.bytesPerSecond(), 1e-3);
+        // the disk drops to 1 MB/s for 6 seconds (3 tau)
+        for (int i = 0; i < 6; i++) {
+            t += SECOND;
+            bytes += 1_000_000L;
+            meter.sample(t, bytes, 0);
+        }
+        assertTrue(meter.bytesPerSecond() < 1_500_000, "rate " + meter.bytesPerSecond());
+    }
+
+    @Test
+    void noRateMeansNoEta() {
+        ThroughputMeter meter = new ThroughputMeter();
+        assertEquals(-1, meter.etaSeconds(100, 100));
+        meter.sample(0, 0, 0);
+        assertEquals(-1, meter.etaSeconds(100, 100));
+    }
+}